@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs queries outside the caller thread.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+final class AsyncQuery {
+
+    /**
+     * The logger instance for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(AsyncQuery.class.getName());
+
+    /**
+     * Utility class, not for use.
+     */
+    private AsyncQuery() {
+        // Not used.
+    }
+
+    /**
+     * Gets the default executor: a virtual thread per query when the JVM supports it (Java 21 or newer) or a shared
+     * pool of daemon threads otherwise.
+     *
+     * @return the default executor.
+     */
+    static Executor getDefaultExecutor() {
+        return Holder.EXECUTOR;
+    }
+
+    /**
+     * Executes the query in the executor.
+     * <p>
+     * Cancelling the returned future cancels the execution. The statement is closed by the worker if the query fails
+     * or is cancelled, and when the result set is closed otherwise.
+     *
+     * @param statement the statement to execute.
+     * @param executor  the executor to run the query.
+     * @return the query result set.
+     */
+    static CompletableFuture<ResultSet> execute(final PreparedStatement statement, final Executor executor) {
+        final CompletableFuture<ResultSet> future = new CompletableFuture<>();
+        future.whenComplete((ResultSet rs, Throwable e) -> {
+            if (e != null) {
+                cancel(statement);
+            }
+        });
+
+        try {
+            executor.execute(() -> run(statement, future));
+        } catch (final RejectedExecutionException e) {
+            future.completeExceptionally(e);
+            close(statement);
+        }
+
+        return future;
+    }
+
+    /**
+     * Runs the query.
+     *
+     * @param statement the statement to execute.
+     * @param future    the future to complete.
+     */
+    @SuppressWarnings("java:S1181")
+    private static void run(final PreparedStatement statement, final CompletableFuture<ResultSet> future) {
+        if (future.isDone()) {
+            // Cancelled before start.
+            close(statement);
+            return;
+        }
+
+        try {
+            final ResultSet rs = statement.executeQuery();
+            if (!future.complete(rs)) {
+                // Closes the statement too.
+                rs.close();
+            }
+        } catch (final Throwable e) {
+            future.completeExceptionally(e);
+            close(statement);
+        }
+    }
+
+    /**
+     * Cancels the statement execution. The statement is closed by the worker, after the execution ends.
+     *
+     * @param statement the statement to cancel.
+     */
+    private static void cancel(final PreparedStatement statement) {
+        try {
+            statement.cancel();
+        } catch (final SQLException e) {
+            LOGGER.log(Level.FINEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Closes the statement.
+     *
+     * @param statement the statement to close.
+     */
+    private static void close(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (final SQLException e) {
+            LOGGER.log(Level.FINEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lazy creates the default executor.
+     */
+    private static final class Holder {
+
+        /**
+         * The default executor.
+         */
+        private static final Executor EXECUTOR = createExecutor();
+
+        /**
+         * Utility class, not for use.
+         */
+        private Holder() {
+            // Not used.
+        }
+
+        /**
+         * Creates the default executor.
+         *
+         * @return the default executor.
+         */
+        @SuppressWarnings("java:S1166")
+        private static Executor createExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (final ReflectiveOperationException e) {
+                // Virtual threads are not available in this JVM.
+                return Executors.newCachedThreadPool((Runnable runnable) -> {
+                    final Thread thread = new Thread(runnable, "paradox-async-query");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+}
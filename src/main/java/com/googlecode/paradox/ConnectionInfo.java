@@ -10,7 +10,9 @@
  */
 package com.googlecode.paradox;
 
-import com.googlecode.paradox.data.filefilters.DirectoryFilter;
+import com.googlecode.paradox.data.CatalogCache;
+import com.googlecode.paradox.data.CatalogWarmUp;
+import com.googlecode.paradox.data.ChangeMonitor;
 import com.googlecode.paradox.exceptions.DataError;
 import com.googlecode.paradox.exceptions.ParadoxDataException;
 import com.googlecode.paradox.exceptions.ParadoxException;
@@ -18,6 +20,7 @@ import com.googlecode.paradox.exceptions.ParadoxNotSupportedException;
 import com.googlecode.paradox.metadata.Schema;
 import com.googlecode.paradox.metadata.schema.DirectorySchema;
 import com.googlecode.paradox.metadata.schema.SystemSchema;
+import com.googlecode.paradox.utils.Constants;
 import com.googlecode.paradox.utils.Expressions;
 
 import java.io.File;
@@ -26,12 +29,11 @@ import java.sql.*;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Stores the connection information properties.
  *
- * @version 1.3
+ * @version 1.10
  * @since 1.6.0
  */
 public final class ConnectionInfo {
@@ -66,6 +68,46 @@ public final class ConnectionInfo {
      */
     public static final String ENABLE_CATALOG_KEY = "enable_catalogs";
 
+    /**
+     * Parallel execution property key.
+     */
+    public static final String PARALLEL_KEY = "parallel";
+
+    /**
+     * Result cache property key.
+     */
+    public static final String RESULT_CACHE_KEY = "result_cache";
+
+    /**
+     * Catalog snapshot property key.
+     */
+    public static final String CATALOG_SNAPSHOT_KEY = "catalog_snapshot";
+
+    /**
+     * Change monitor property key.
+     */
+    public static final String CHANGE_MONITOR_KEY = "change_monitor";
+
+    /**
+     * Change monitor interval property key.
+     */
+    public static final String CHANGE_MONITOR_INTERVAL_KEY = "change_monitor_interval";
+
+    /**
+     * Background schema warm-up property name.
+     */
+    public static final String WARM_UP_KEY = "warm_up";
+
+    /**
+     * Warm-up table list property name.
+     */
+    public static final String WARM_UP_TABLES_KEY = "warm_up_tables";
+
+    /**
+     * Warm-up thread count property name.
+     */
+    public static final String WARM_UP_THREADS_KEY = "warm_up_threads";
+
     /**
      * Default charset value.
      */
@@ -91,6 +133,31 @@ public final class ConnectionInfo {
      */
     public static final boolean DEFAULT_ENABLE_CATALOG = false;
 
+    /**
+     * Default parallel execution.
+     */
+    public static final boolean DEFAULT_PARALLEL = false;
+
+    /**
+     * Default result cache use.
+     */
+    public static final boolean DEFAULT_RESULT_CACHE = false;
+
+    /**
+     * Default catalog snapshot use.
+     */
+    public static final boolean DEFAULT_CATALOG_SNAPSHOT = false;
+
+    /**
+     * Default change monitor mode.
+     */
+    public static final ChangeMonitor.Mode DEFAULT_CHANGE_MONITOR = ChangeMonitor.Mode.NONE;
+
+    /**
+     * Default background schema warm-up.
+     */
+    public static final boolean DEFAULT_WARM_UP = false;
+
     /**
      * Default user.
      */
@@ -146,6 +213,46 @@ public final class ConnectionInfo {
      */
     private boolean enableCatalogChange = DEFAULT_ENABLE_CATALOG;
 
+    /**
+     * Execute the row processing in parallel.
+     */
+    private volatile boolean parallel = DEFAULT_PARALLEL;
+
+    /**
+     * Reuse the cached query results.
+     */
+    private volatile boolean resultCache = DEFAULT_RESULT_CACHE;
+
+    /**
+     * Save the schema metadata in snapshot files.
+     */
+    private volatile boolean catalogSnapshot = DEFAULT_CATALOG_SNAPSHOT;
+
+    /**
+     * The schema directory change monitor mode.
+     */
+    private volatile ChangeMonitor.Mode changeMonitor = DEFAULT_CHANGE_MONITOR;
+
+    /**
+     * The schema directory change monitor interval in milliseconds.
+     */
+    private volatile long changeMonitorInterval = ChangeMonitor.DEFAULT_INTERVAL;
+
+    /**
+     * If the schema is warmed up in background on connection open.
+     */
+    private volatile boolean warmUp = DEFAULT_WARM_UP;
+
+    /**
+     * The tables to read the first data blocks in warm-up, separated by comma.
+     */
+    private volatile String warmUpTables = "";
+
+    /**
+     * The warm-up thread count.
+     */
+    private volatile int warmUpThreads = CatalogWarmUp.DEFAULT_THREADS;
+
     /**
      * Connection user.
      */
@@ -173,42 +280,17 @@ public final class ConnectionInfo {
      * @return the schema directories.
      * @throws SQLException in case of failures.
      */
-    @SuppressWarnings({"java:S3776", "java:S1541"})
     public List<Schema> getSchemas(final String catalog, final String schemaPattern) throws SQLException {
-        File[] catalogs = null;
-
-        if (!enableCatalogChange) {
-            if (catalog == null || getCatalog().equalsIgnoreCase(catalog)) {
-                catalogs = new File[]{
-                        currentCatalog
-                };
-            }
-        } else {
-            final File parent = currentCatalog.getParentFile();
-            if (!parent.isDirectory()) {
-                throw new ParadoxDataException(DataError.INVALID_CATALOG_PATH);
-            }
-
-            catalogs = parent.listFiles(new DirectoryFilter(locale, catalog));
-        }
-
         final List<Schema> ret = new ArrayList<>();
-        if (catalogs != null) {
-            for (final File catalogFile : catalogs) {
-                final File[] schemas = catalogFile.listFiles(new DirectoryFilter(this.locale, schemaPattern));
-                if (schemas != null) {
-                    ret.addAll(Stream.of(schemas)
-                            .filter(Objects::nonNull)
-                            .map(DirectorySchema::new)
-                            .collect(Collectors.toList()));
-                }
-
-                if (schemaPattern == null ||
-                        Expressions.accept(locale, INFORMATION_SCHEMA, schemaPattern, false, '\\')) {
-                    ret.add(new SystemSchema(this, catalogFile.getName()));
-                }
+        for (final File catalogFile : getCatalogDirectories(catalog)) {
+            ret.addAll(listDirectories(catalogFile, schemaPattern).stream()
+                    .map(DirectorySchema::new)
+                    .collect(Collectors.toList()));
+
+            if (schemaPattern == null ||
+                    Expressions.accept(locale, INFORMATION_SCHEMA, schemaPattern, false, '\\')) {
+                ret.add(new SystemSchema(this, catalogFile.getName()));
             }
-
         }
 
         ret.sort(Comparator.comparing(Schema::name));
@@ -223,41 +305,83 @@ public final class ConnectionInfo {
      * @return the schema directories.
      * @throws SQLException in case of failures.
      */
-    @SuppressWarnings({"java:S3776", "java:S1541"})
     public Schema getSchema(final String catalog, final String schemaName) throws SQLException {
-        File[] catalogs = null;
+        final List<File> catalogs = getCatalogDirectories(catalog);
+        if (catalogs.size() != 1) {
+            throw new ParadoxDataException(DataError.INVALID_CATALOG_NAME);
+        }
+
+        if (INFORMATION_SCHEMA.equalsIgnoreCase(schemaName)) {
+            return new SystemSchema(this, catalogs.get(0).getName());
+        }
+
+        final List<File> schemas = findDirectories(catalogs.get(0), schemaName);
+        if (schemas.size() == 1) {
+            return new DirectorySchema(schemas.get(0));
+        }
 
+        throw new ParadoxException(ParadoxException.Error.SCHEMA_NOT_FOUND);
+    }
+
+    /**
+     * Gets the catalog directories by name.
+     *
+     * @param catalog the catalog name (<code>null</code> for all).
+     * @return the catalog directories.
+     * @throws ParadoxDataException in case of invalid catalog path.
+     */
+    private List<File> getCatalogDirectories(final String catalog) throws ParadoxDataException {
         if (!enableCatalogChange) {
             if (catalog == null || getCatalog().equalsIgnoreCase(catalog)) {
-                catalogs = new File[]{
-                        currentCatalog
-                };
-            }
-        } else {
-            File parent = currentCatalog.getParentFile();
-            if (!parent.isDirectory()) {
-                throw new ParadoxDataException(DataError.INVALID_CATALOG_PATH);
+                return Collections.singletonList(currentCatalog);
             }
 
-            catalogs = parent.listFiles(new DirectoryFilter(locale, catalog));
+            return Collections.emptyList();
         }
 
-        if (catalogs == null || catalogs.length != 1) {
-            throw new ParadoxDataException(DataError.INVALID_CATALOG_NAME);
+        final File parent = currentCatalog.getParentFile();
+        if (!parent.isDirectory()) {
+            throw new ParadoxDataException(DataError.INVALID_CATALOG_PATH);
         }
 
-        if (INFORMATION_SCHEMA.equalsIgnoreCase(schemaName)) {
-            return new SystemSchema(this, catalogs[0].getName());
-        }
+        return findDirectories(parent, catalog);
+    }
 
-        for (final File catalogFile : catalogs) {
-            final File[] schemas = catalogFile.listFiles(new DirectoryFilter(this.locale, schemaName));
-            if (schemas != null && schemas.length == 1) {
-                return new DirectorySchema(schemas[0]);
+    /**
+     * Finds the subdirectories by name, using the cached directory listing. If there is no directory with the exact
+     * name (ignoring case), the name is used as a pattern.
+     *
+     * @param parent the parent directory.
+     * @param name   the directory name (<code>null</code> for all).
+     * @return the subdirectories found.
+     */
+    private List<File> findDirectories(final File parent, final String name) {
+        if (name != null) {
+            final File directory = CatalogCache.getInstance(parent, null).findDirectory(name);
+            if (directory != null) {
+                return Collections.singletonList(directory);
             }
         }
 
-        throw new ParadoxException(ParadoxException.Error.SCHEMA_NOT_FOUND);
+        return listDirectories(parent, name);
+    }
+
+    /**
+     * Lists the subdirectories within a pattern, using the cached directory listing.
+     *
+     * @param parent  the parent directory.
+     * @param pattern the directory pattern (<code>null</code> for all).
+     * @return the subdirectories sorted by name.
+     */
+    private List<File> listDirectories(final File parent, final String pattern) {
+        final List<File> directories = CatalogCache.getInstance(parent, null).listDirectories();
+        if (pattern == null) {
+            return directories;
+        }
+
+        return directories.stream()
+                .filter(file -> Expressions.accept(locale, file.getName(), pattern, false, Constants.ESCAPE_CHAR))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -295,6 +419,18 @@ public final class ConnectionInfo {
         final String timeZoneId = getPropertyValue(TIMEZONE_KEY, DEFAULT_TIMEZONE.getID(), info);
         final String enableCatalog = getPropertyValue(ENABLE_CATALOG_KEY, String.valueOf(DEFAULT_ENABLE_CATALOG), info);
         final String user = getPropertyValue(USER_KEY, DEFAULT_USER, info);
+        final String parallel = getPropertyValue(PARALLEL_KEY, String.valueOf(DEFAULT_PARALLEL), info);
+        final String resultCache = getPropertyValue(RESULT_CACHE_KEY, String.valueOf(DEFAULT_RESULT_CACHE), info);
+        final String catalogSnapshot = getPropertyValue(CATALOG_SNAPSHOT_KEY,
+                String.valueOf(DEFAULT_CATALOG_SNAPSHOT), info);
+        final String changeMonitorValue = getPropertyValue(CHANGE_MONITOR_KEY,
+                DEFAULT_CHANGE_MONITOR.name().toLowerCase(Locale.ROOT), info);
+        final String changeMonitorIntervalValue = getPropertyValue(CHANGE_MONITOR_INTERVAL_KEY,
+                String.valueOf(ChangeMonitor.DEFAULT_INTERVAL), info);
+        final String warmUpValue = getPropertyValue(WARM_UP_KEY, String.valueOf(DEFAULT_WARM_UP), info);
+        final String warmUpTablesValue = getPropertyValue(WARM_UP_TABLES_KEY, "", info);
+        final String warmUpThreadsValue = getPropertyValue(WARM_UP_THREADS_KEY,
+                String.valueOf(CatalogWarmUp.DEFAULT_THREADS), info);
 
         final DriverPropertyInfo bcdRoundingProp = new DriverPropertyInfo(BCD_ROUNDING_KEY, bcdRounding);
         bcdRoundingProp.choices = new String[]{"true", "false"};
@@ -325,6 +461,45 @@ public final class ConnectionInfo {
         timeZoneProp.description = "Time zone ID for use in date and time functions.";
         Arrays.sort(timeZoneProp.choices);
 
+        final DriverPropertyInfo parallelProp = new DriverPropertyInfo(PARALLEL_KEY, parallel);
+        parallelProp.choices = new String[]{"true", "false"};
+        parallelProp.required = false;
+        parallelProp.description = "Filter and project the rows in parallel.";
+
+        final DriverPropertyInfo catalogSnapshotProp = new DriverPropertyInfo(CATALOG_SNAPSHOT_KEY, catalogSnapshot);
+        catalogSnapshotProp.choices = new String[]{"true", "false"};
+        catalogSnapshotProp.required = false;
+        catalogSnapshotProp.description = "Save the table headers in a snapshot file in each schema directory.";
+
+        final DriverPropertyInfo changeMonitorProp = new DriverPropertyInfo(CHANGE_MONITOR_KEY, changeMonitorValue);
+        changeMonitorProp.choices = new String[]{"none", "watch", "poll"};
+        changeMonitorProp.required = false;
+        changeMonitorProp.description = "Monitor the schema directories for changes made by other applications, "
+                + "using file system events (watch) or directory polling (poll, for network shares).";
+
+        final DriverPropertyInfo changeMonitorIntervalProp = new DriverPropertyInfo(CHANGE_MONITOR_INTERVAL_KEY,
+                changeMonitorIntervalValue);
+        changeMonitorIntervalProp.required = false;
+        changeMonitorIntervalProp.description = "Change monitor interval in milliseconds (maximum stale read time).";
+
+        final DriverPropertyInfo warmUpProp = new DriverPropertyInfo(WARM_UP_KEY, warmUpValue);
+        warmUpProp.choices = new String[]{"true", "false"};
+        warmUpProp.required = false;
+        warmUpProp.description = "Read the schema table headers, indexes and views in background on connection open.";
+
+        final DriverPropertyInfo warmUpTablesProp = new DriverPropertyInfo(WARM_UP_TABLES_KEY, warmUpTablesValue);
+        warmUpTablesProp.required = false;
+        warmUpTablesProp.description = "Tables to read the first data blocks in warm-up, separated by comma.";
+
+        final DriverPropertyInfo warmUpThreadsProp = new DriverPropertyInfo(WARM_UP_THREADS_KEY, warmUpThreadsValue);
+        warmUpThreadsProp.required = false;
+        warmUpThreadsProp.description = "Maximum thread count used in warm-up of each schema.";
+
+        final DriverPropertyInfo resultCacheProp = new DriverPropertyInfo(RESULT_CACHE_KEY, resultCache);
+        resultCacheProp.choices = new String[]{"true", "false"};
+        resultCacheProp.required = false;
+        resultCacheProp.description = "Reuse the results of identical queries until the table files change.";
+
         final DriverPropertyInfo userProp = new DriverPropertyInfo(USER_KEY, user);
         userProp.required = false;
         userProp.description = "User to use in connection.";
@@ -335,12 +510,20 @@ public final class ConnectionInfo {
 
         return new DriverPropertyInfo[]{
                 bcdRoundingProp,
+                catalogSnapshotProp,
+                changeMonitorProp,
+                changeMonitorIntervalProp,
                 charset,
                 enableCatalogProp,
                 localeProp,
+                parallelProp,
                 passwordProp,
+                resultCacheProp,
                 timeZoneProp,
-                userProp
+                userProp,
+                warmUpProp,
+                warmUpTablesProp,
+                warmUpThreadsProp
         };
     }
 
@@ -386,8 +569,16 @@ public final class ConnectionInfo {
 
         properties.put(DEFAULT_ENABLE_CATALOG, Boolean.toString(enableCatalogChange));
         properties.put(LOCALE_KEY, locale.toLanguageTag());
+        properties.put(PARALLEL_KEY, Boolean.toString(parallel));
+        properties.put(CATALOG_SNAPSHOT_KEY, Boolean.toString(catalogSnapshot));
+        properties.put(CHANGE_MONITOR_KEY, changeMonitor.name().toLowerCase(Locale.ROOT));
+        properties.put(CHANGE_MONITOR_INTERVAL_KEY, Long.toString(changeMonitorInterval));
+        properties.put(RESULT_CACHE_KEY, Boolean.toString(resultCache));
         properties.put(DEFAULT_TIMEZONE, timeZone.getID());
         properties.put(USER_KEY, user);
+        properties.put(WARM_UP_KEY, Boolean.toString(warmUp));
+        properties.put(WARM_UP_TABLES_KEY, warmUpTables);
+        properties.put(WARM_UP_THREADS_KEY, Integer.toString(warmUpThreads));
 
         return properties;
     }
@@ -410,6 +601,26 @@ public final class ConnectionInfo {
         }
     }
 
+    /**
+     * Restores the properties to the configured values, discarding the changes made at runtime, and clears the
+     * warnings.
+     *
+     * @param info the configured connection properties.
+     * @throws SQLClientInfoException in case of invalid property.
+     */
+    public void reset(final Properties info) throws SQLClientInfoException {
+        for (final String name : Arrays.asList(BCD_ROUNDING_KEY, CHARSET_KEY, ENABLE_CATALOG_KEY, LOCALE_KEY,
+                PARALLEL_KEY, CATALOG_SNAPSHOT_KEY, CHANGE_MONITOR_KEY, CHANGE_MONITOR_INTERVAL_KEY, RESULT_CACHE_KEY,
+                TIMEZONE_KEY, WARM_UP_KEY, WARM_UP_TABLES_KEY, WARM_UP_THREADS_KEY)) {
+            put(name, null);
+        }
+
+        user = DEFAULT_USER;
+        holdability = ResultSet.CLOSE_CURSORS_AT_COMMIT;
+        setProperties(info);
+        clearWarnings();
+    }
+
     /**
      * Update a property by its name and value.
      *
@@ -436,12 +647,40 @@ public final class ConnectionInfo {
                 case LOCALE_KEY:
                     locale = getProperty(name, value, errors, DEFAULT_LOCALE, Locale::forLanguageTag);
                     break;
+                case PARALLEL_KEY:
+                    parallel = getProperty(name, value, errors, DEFAULT_PARALLEL, Boolean::parseBoolean);
+                    break;
+                case CATALOG_SNAPSHOT_KEY:
+                    catalogSnapshot = getProperty(name, value, errors, DEFAULT_CATALOG_SNAPSHOT,
+                            Boolean::parseBoolean);
+                    break;
+                case CHANGE_MONITOR_KEY:
+                    changeMonitor = getProperty(name, value, errors, DEFAULT_CHANGE_MONITOR,
+                            (String mode) -> ChangeMonitor.Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)));
+                    break;
+                case CHANGE_MONITOR_INTERVAL_KEY:
+                    changeMonitorInterval = getProperty(name, value, errors, ChangeMonitor.DEFAULT_INTERVAL,
+                            (String interval) -> Math.max(1L, Long.parseLong(interval.trim())));
+                    break;
+                case RESULT_CACHE_KEY:
+                    resultCache = getProperty(name, value, errors, DEFAULT_RESULT_CACHE, Boolean::parseBoolean);
+                    break;
                 case TIMEZONE_KEY:
                     timeZone = getProperty(name, value, errors, DEFAULT_TIMEZONE, TimeZone::getTimeZone);
                     break;
                 case USER_KEY:
                     user = getProperty(name, value, errors, USER_KEY, String::valueOf);
                     break;
+                case WARM_UP_KEY:
+                    warmUp = getProperty(name, value, errors, DEFAULT_WARM_UP, Boolean::parseBoolean);
+                    break;
+                case WARM_UP_TABLES_KEY:
+                    warmUpTables = getProperty(name, value, errors, "", String::trim);
+                    break;
+                case WARM_UP_THREADS_KEY:
+                    warmUpThreads = getProperty(name, value, errors, CatalogWarmUp.DEFAULT_THREADS,
+                            (String threads) -> Math.max(1, Integer.parseInt(threads.trim())));
+                    break;
                 case "password":
                     // Do nothing.
                     break;
@@ -498,19 +737,12 @@ public final class ConnectionInfo {
                 throw new ParadoxDataException(DataError.INVALID_CATALOG_PATH);
             }
 
-            final File[] catalogFiles = parent.listFiles(new DirectoryFilter(locale));
-            if (catalogFiles != null) {
-                catalogs.addAll(Arrays.stream(catalogFiles)
-                        .filter(File::isDirectory)
-                        .filter((File catalog) -> {
-                            // Not showing catalogs without schemas.
-                            final File[] schemas = catalog.listFiles(new DirectoryFilter(locale));
-                            return schemas != null && schemas.length > 0;
-                        })
-                        .map(File::getName)
-                        .collect(Collectors.toList())
-                );
-            }
+            catalogs.addAll(listDirectories(parent, null).stream()
+                    // Not showing catalogs without schemas.
+                    .filter((File catalog) -> !listDirectories(catalog, null).isEmpty())
+                    .map(File::getName)
+                    .collect(Collectors.toList())
+            );
         } else {
             catalogs.add(getCatalog());
         }
@@ -601,13 +833,12 @@ public final class ConnectionInfo {
         if (INFORMATION_SCHEMA.equalsIgnoreCase(schemaName)) {
             this.currentSchema = new SystemSchema(this, currentCatalog.getName());
         } else {
-            final File[] schemas = this.currentCatalog.listFiles(new DirectoryFilter(locale, schemaName));
-
-            if (schemas == null || schemas.length != 1) {
+            final List<File> schemas = findDirectories(this.currentCatalog, schemaName);
+            if (schemas.size() != 1) {
                 throw new ParadoxException(ParadoxException.Error.SCHEMA_NOT_FOUND);
             }
 
-            this.currentSchema = new DirectorySchema(schemas[0]);
+            this.currentSchema = new DirectorySchema(schemas.get(0));
         }
     }
 
@@ -674,12 +905,156 @@ public final class ConnectionInfo {
         this.user = user;
     }
 
+    /**
+     * Gets if the row processing is executed in parallel.
+     *
+     * @return <code>true</code> if the row processing is executed in parallel.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets if the row processing is executed in parallel.
+     *
+     * @param parallel <code>true</code> to execute the row processing in parallel.
+     */
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Gets if the schema metadata is saved in snapshot files.
+     *
+     * @return <code>true</code> if the schema metadata is saved in snapshot files.
+     */
+    public boolean isCatalogSnapshot() {
+        return catalogSnapshot;
+    }
+
+    /**
+     * Sets if the schema metadata is saved in snapshot files.
+     *
+     * @param catalogSnapshot <code>true</code> to save the schema metadata in snapshot files.
+     */
+    public void setCatalogSnapshot(final boolean catalogSnapshot) {
+        this.catalogSnapshot = catalogSnapshot;
+    }
+
+    /**
+     * Gets the schema directory change monitor mode.
+     *
+     * @return the schema directory change monitor mode.
+     */
+    public ChangeMonitor.Mode getChangeMonitor() {
+        return changeMonitor;
+    }
+
+    /**
+     * Sets the schema directory change monitor mode. Directories already monitored are not changed.
+     *
+     * @param changeMonitor the schema directory change monitor mode.
+     */
+    public void setChangeMonitor(final ChangeMonitor.Mode changeMonitor) {
+        this.changeMonitor = changeMonitor;
+    }
+
+    /**
+     * Gets the schema directory change monitor interval.
+     *
+     * @return the schema directory change monitor interval in milliseconds.
+     */
+    public long getChangeMonitorInterval() {
+        return changeMonitorInterval;
+    }
+
+    /**
+     * Sets the schema directory change monitor interval.
+     *
+     * @param changeMonitorInterval the schema directory change monitor interval in milliseconds.
+     */
+    public void setChangeMonitorInterval(final long changeMonitorInterval) {
+        this.changeMonitorInterval = changeMonitorInterval;
+    }
+
+    /**
+     * Gets if the schema is warmed up in background on connection open.
+     *
+     * @return <code>true</code> if the schema is warmed up in background.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Sets if the schema is warmed up in background on connection open.
+     *
+     * @param warmUp <code>true</code> to warm up the schema in background.
+     */
+    public void setWarmUp(final boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Gets the tables to read the first data blocks in warm-up.
+     *
+     * @return the table names, separated by comma.
+     */
+    public String getWarmUpTables() {
+        return warmUpTables;
+    }
+
+    /**
+     * Sets the tables to read the first data blocks in warm-up.
+     *
+     * @param warmUpTables the table names, separated by comma.
+     */
+    public void setWarmUpTables(final String warmUpTables) {
+        this.warmUpTables = warmUpTables;
+    }
+
+    /**
+     * Gets the warm-up thread count.
+     *
+     * @return the warm-up thread count.
+     */
+    public int getWarmUpThreads() {
+        return warmUpThreads;
+    }
+
+    /**
+     * Sets the warm-up thread count.
+     *
+     * @param warmUpThreads the warm-up thread count.
+     */
+    public void setWarmUpThreads(final int warmUpThreads) {
+        this.warmUpThreads = warmUpThreads;
+    }
+
+    /**
+     * Gets if the cached query results are reused.
+     *
+     * @return <code>true</code> if the cached query results are reused.
+     */
+    public boolean isResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Sets if the cached query results are reused.
+     *
+     * @param resultCache <code>true</code> to reuse the cached query results.
+     */
+    public void setResultCache(final boolean resultCache) {
+        this.resultCache = resultCache;
+    }
+
     /**
      * Gets the SQL warning.
      *
      * @return the SQL warning.
      */
-    public SQLWarning getWarning() {
+    public synchronized SQLWarning getWarning() {
         return this.warning;
     }
 
@@ -688,7 +1063,7 @@ public final class ConnectionInfo {
      *
      * @param exception the exception to add.
      */
-    public void addWarning(final Exception exception) {
+    public synchronized void addWarning(final Exception exception) {
         SQLWarning warningToAdd;
         if (exception instanceof SQLException) {
             SQLException sql = (SQLException) exception;
@@ -709,7 +1084,7 @@ public final class ConnectionInfo {
      *
      * @param message the exception to add.
      */
-    public void addWarning(final String message) {
+    public synchronized void addWarning(final String message) {
         SQLWarning warningToAdd = new SQLWarning(message);
 
         if (this.warning == null) {
@@ -722,7 +1097,7 @@ public final class ConnectionInfo {
     /**
      * Clear warnings.
      */
-    public void clearWarnings() {
+    public synchronized void clearWarnings() {
         this.warning = null;
     }
 }
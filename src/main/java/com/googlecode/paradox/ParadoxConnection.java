@@ -10,36 +10,42 @@
  */
 package com.googlecode.paradox;
 
+import com.googlecode.paradox.data.CatalogWarmUp;
+import com.googlecode.paradox.data.ChangeMonitor;
 import com.googlecode.paradox.exceptions.ParadoxConnectionException;
 import com.googlecode.paradox.exceptions.ParadoxException;
 import com.googlecode.paradox.exceptions.ParadoxNotSupportedException;
 import com.googlecode.paradox.metadata.schema.DirectorySchema;
 import com.googlecode.paradox.metadata.ParadoxDatabaseMetaData;
 import com.googlecode.paradox.parser.SQLParser;
+import com.googlecode.paradox.planner.PlanCache;
 import com.googlecode.paradox.planner.Planner;
+import com.googlecode.paradox.planner.ResultCache;
+import com.googlecode.paradox.planner.ViewCache;
 import com.googlecode.paradox.planner.plan.Plan;
 import com.googlecode.paradox.rowset.ParadoxBlob;
 import com.googlecode.paradox.rowset.ParadoxClob;
 import com.googlecode.paradox.utils.Utils;
 
 import java.io.File;
-import java.lang.ref.SoftReference;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 
 /**
  * JDBC Paradox connection implementation.
  *
- * @version 1.3
+ * @version 1.15
  * @since 1.0
  */
-public final class ParadoxConnection implements Connection {
+public class ParadoxConnection implements Connection {
 
     /**
      * Stores the opened statements.
      */
-    private final List<ParadoxStatement> statements = new ArrayList<>();
+    private final Set<ParadoxStatement> statements = ConcurrentHashMap.newKeySet();
     /**
      * Auto Commit flag.
      */
@@ -69,13 +75,36 @@ public final class ParadoxConnection implements Connection {
      */
     private final ConnectionInfo connectionInfo;
     /**
-     * Statement cache.
+     * The connection directory.
      */
-    private static final HashMap<String, LinkedHashMap<String, SoftReference<Plan<?, ?>>>> STATEMENT_CACHE =
-            new HashMap<>();
+    private final File directory;
+    /**
+     * The configured connection properties, restored on reset.
+     */
+    private final Properties properties = new Properties();
+    /**
+     * Statement cache, shared by all connections.
+     */
+    private static final PlanCache STATEMENT_CACHE = new PlanCache();
+    /**
+     * Query result cache, shared by all connections with result cache enabled.
+     */
+    private static final ResultCache RESULT_CACHE = new ResultCache();
+    /**
+     * Materialized view results, shared by all connections.
+     */
+    private static final ViewCache VIEW_CACHE = new ViewCache();
+
+    static {
+        ChangeMonitor.addListener(STATEMENT_CACHE::invalidate);
+        ChangeMonitor.addListener(RESULT_CACHE::invalidate);
+        ChangeMonitor.addListener(VIEW_CACHE::invalidate);
+    }
 
     /**
      * Creates a new paradox connection.
+     * <p>
+     * With {@link ConnectionInfo#WARM_UP_KEY} enabled, the schema metadata is read in background.
      *
      * @param dir  database directory.
      * @param url  connect URL.
@@ -90,26 +119,104 @@ public final class ParadoxConnection implements Connection {
             throw new ParadoxConnectionException(ParadoxConnectionException.Error.INVALID_ROOT_DIRECTORY);
         }
 
+        this.directory = dir;
+        this.properties.putAll(info);
         this.connectionInfo = new ConnectionInfo(url);
         this.connectionInfo.setProperties(info);
         this.connectionInfo.setCurrentCatalog(dir.getParentFile());
         this.connectionInfo.setCurrentSchema(new DirectorySchema(dir));
+
+        if (this.connectionInfo.isWarmUp()) {
+            // The background warnings must not reach this connection.
+            final ConnectionInfo warmUpInfo = new ConnectionInfo(url);
+            warmUpInfo.setProperties(info);
+            warmUpInfo.setCurrentCatalog(dir.getParentFile());
+            warmUpInfo.setCurrentSchema(new DirectorySchema(dir));
+            CatalogWarmUp.start(dir, warmUpInfo);
+        }
+    }
+
+    /**
+     * Creates a facade sharing the state of a physical connection. The facade must override the methods that use the
+     * connection state.
+     *
+     * @param connection the physical connection.
+     */
+    ParadoxConnection(final ParadoxConnection connection) {
+        this.directory = connection.directory;
+        this.connectionInfo = connection.connectionInfo;
+        this.properties.putAll(connection.properties);
+    }
+
+    /**
+     * Restores the initial connection state, so a pooled connection can be reused. Closes the open statements,
+     * restores the configured properties and clears the warnings.
+     *
+     * @throws SQLException in case of failures.
+     */
+    void reset() throws SQLException {
+        for (final Statement stmt : this.statements) {
+            stmt.close();
+        }
+
+        this.statements.clear();
+        this.autocommit = true;
+        this.readonly = true;
+        this.transactionIsolation = Connection.TRANSACTION_NONE;
+        this.networkTimeout = 0;
+        this.typeMap = null;
+        this.connectionInfo.reset(properties);
+        this.connectionInfo.setCurrentCatalog(directory.getParentFile());
+        this.connectionInfo.setCurrentSchema(new DirectorySchema(directory));
+    }
+
+    /**
+     * Gets the statement cache shared by all connections.
+     *
+     * @return the statement cache.
+     */
+    public static PlanCache getStatementCache() {
+        return STATEMENT_CACHE;
+    }
+
+    /**
+     * Gets the query result cache shared by all connections with the {@link ConnectionInfo#RESULT_CACHE_KEY}
+     * property enabled.
+     *
+     * @return the query result cache.
+     */
+    public static ResultCache getResultCache() {
+        return RESULT_CACHE;
+    }
+
+    /**
+     * Gets the materialized view results shared by all connections.
+     *
+     * @return the materialized view results.
+     */
+    public static ViewCache getViewCache() {
+        return VIEW_CACHE;
     }
 
+    /**
+     * Creates an execution plan or reuses a cached one.
+     *
+     * @param sql the SQL to plan.
+     * @return the execution plan.
+     * @throws SQLException in case of parse or plan errors.
+     */
     @SuppressWarnings("java:S1452")
     public Plan<?, ?> createPlan(final String sql) throws SQLException {
-        final LinkedHashMap<String, SoftReference<Plan<?, ?>>> cache = STATEMENT_CACHE.computeIfAbsent(
-                this.connectionInfo.getUrl(),
-                k -> new LinkedHashMap<>(0x7f, 0.75F, true));
+        final String url = this.connectionInfo.getUrl();
+        final String catalog = this.connectionInfo.getCatalog();
+        final String schema = this.connectionInfo.getCurrentSchema().name();
 
-        final SoftReference<Plan<?, ?>> cached = cache.get(sql);
-        Plan<?, ?> plan;
-        if (cached == null || cached.get() == null) {
+        final PlanCache.Lookup lookup = STATEMENT_CACHE.lookup(url, catalog, schema, sql);
+        Plan<?, ?> plan = lookup.getPlan();
+        if (plan == null) {
             final SQLParser parser = new SQLParser(sql);
             plan = Planner.create(connectionInfo, parser.parse());
-            cache.put(sql, new SoftReference<>(plan));
-        } else {
-            plan = cached.get();
+            lookup.store(plan);
         }
 
         return plan;
@@ -119,7 +226,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void abort(final Executor executor) {
+    public void abort(final Executor executor) throws SQLException {
         executor.execute(this::abort);
     }
 
@@ -150,7 +257,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void clearWarnings() {
+    public void clearWarnings() throws SQLException {
         // Not used.
     }
 
@@ -171,7 +278,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void commit() throws ParadoxNotSupportedException {
+    public void commit() throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -179,7 +286,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Array createArrayOf(final String typeName, final Object[] elements) throws ParadoxNotSupportedException {
+    public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -187,7 +294,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Blob createBlob() {
+    public Blob createBlob() throws SQLException {
         return new ParadoxBlob(new byte[0]);
     }
 
@@ -195,7 +302,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Clob createClob() {
+    public Clob createClob() throws SQLException {
         return new ParadoxClob("");
     }
 
@@ -203,7 +310,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public NClob createNClob() throws ParadoxNotSupportedException {
+    public NClob createNClob() throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -219,7 +326,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Statement createStatement() {
+    public Statement createStatement() throws SQLException {
         return createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
     }
 
@@ -227,7 +334,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) {
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
         return createStatement(resultSetType, resultSetConcurrency, connectionInfo.getHoldability());
     }
 
@@ -236,7 +343,7 @@ public final class ParadoxConnection implements Connection {
      */
     @Override
     public Statement createStatement(final int resultSetType, final int resultSetConcurrency,
-                                     final int resultSetHoldability) {
+                                     final int resultSetHoldability) throws SQLException {
         final ParadoxStatement stmt = new ParadoxStatement(this, resultSetType, resultSetConcurrency,
                 resultSetHoldability);
         this.statements.add(stmt);
@@ -247,7 +354,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Struct createStruct(final String typeName, final Object[] attributes) throws ParadoxNotSupportedException {
+    public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -255,7 +362,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public boolean getAutoCommit() {
+    public boolean getAutoCommit() throws SQLException {
         return this.autocommit;
     }
 
@@ -263,7 +370,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void setAutoCommit(final boolean autoCommit) {
+    public void setAutoCommit(final boolean autoCommit) throws SQLException {
         this.autocommit = autoCommit;
     }
 
@@ -271,7 +378,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public String getCatalog() {
+    public String getCatalog() throws SQLException {
         return connectionInfo.getCatalog();
     }
 
@@ -287,7 +394,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Properties getClientInfo() {
+    public Properties getClientInfo() throws SQLException {
         return connectionInfo.getProperties();
     }
 
@@ -303,7 +410,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public String getClientInfo(final String name) {
+    public String getClientInfo(final String name) throws SQLException {
         return this.connectionInfo.getProperty(name);
     }
 
@@ -311,7 +418,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public int getHoldability() {
+    public int getHoldability() throws SQLException {
         return this.connectionInfo.getHoldability();
     }
 
@@ -319,7 +426,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void setHoldability(final int holdability) {
+    public void setHoldability(final int holdability) throws SQLException {
         this.connectionInfo.setHoldability(holdability);
     }
 
@@ -327,7 +434,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public java.sql.DatabaseMetaData getMetaData() {
+    public java.sql.DatabaseMetaData getMetaData() throws SQLException {
         return new ParadoxDatabaseMetaData(this);
     }
 
@@ -335,7 +442,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public int getNetworkTimeout() {
+    public int getNetworkTimeout() throws SQLException {
         return this.networkTimeout;
     }
 
@@ -343,7 +450,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public String getSchema() {
+    public String getSchema() throws SQLException {
         return this.connectionInfo.getCurrentSchema().name();
     }
 
@@ -359,7 +466,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public int getTransactionIsolation() {
+    public int getTransactionIsolation() throws SQLException {
         return this.transactionIsolation;
     }
 
@@ -378,7 +485,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public Map<String, Class<?>> getTypeMap() {
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
         return this.typeMap;
     }
 
@@ -386,7 +493,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void setTypeMap(final Map<String, Class<?>> typeMap) {
+    public void setTypeMap(final Map<String, Class<?>> typeMap) throws SQLException {
         this.typeMap = typeMap;
     }
 
@@ -394,7 +501,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public SQLWarning getWarnings() {
+    public SQLWarning getWarnings() throws SQLException {
         return connectionInfo.getWarning();
     }
 
@@ -410,7 +517,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public boolean isReadOnly() {
+    public boolean isReadOnly() throws SQLException {
         return this.readonly;
     }
 
@@ -418,7 +525,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void setReadOnly(final boolean readOnly) {
+    public void setReadOnly(final boolean readOnly) throws SQLException {
         this.readonly = readOnly;
     }
 
@@ -442,7 +549,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public String nativeSQL(final String sql) {
+    public String nativeSQL(final String sql) throws SQLException {
         return sql;
     }
 
@@ -532,7 +639,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void releaseSavepoint(final Savepoint savepoint) throws ParadoxNotSupportedException {
+    public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -540,7 +647,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void rollback() throws ParadoxNotSupportedException {
+    public void rollback() throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -548,7 +655,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void rollback(final Savepoint savepoint) throws ParadoxNotSupportedException {
+    public void rollback(final Savepoint savepoint) throws SQLException {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
     }
 
@@ -564,7 +671,7 @@ public final class ParadoxConnection implements Connection {
      * {@inheritDoc}.
      */
     @Override
-    public void setNetworkTimeout(final Executor executor, final int milliseconds) {
+    public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
         this.networkTimeout = milliseconds;
     }
 
@@ -592,6 +699,55 @@ public final class ParadoxConnection implements Connection {
         return Utils.unwrap(this, iFace);
     }
 
+    /**
+     * Executes a query without blocking the caller, in the default executor: a virtual thread per query when the JVM
+     * supports it or a shared pool of daemon threads otherwise.
+     *
+     * @param sql        the SQL query.
+     * @param parameters the query parameters.
+     * @return the query result set. Cancelling it cancels the query.
+     * @throws SQLException in case of invalid SQL.
+     * @see #executeQueryAsync(Executor, String, Object...)
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(final String sql, final Object... parameters)
+            throws SQLException {
+        return executeQueryAsync(AsyncQuery.getDefaultExecutor(), sql, parameters);
+    }
+
+    /**
+     * Executes a query without blocking the caller.
+     *
+     * @param executor   the executor to run the query.
+     * @param sql        the SQL query.
+     * @param parameters the query parameters.
+     * @return the query result set. Cancelling it cancels the query. Closing the result set closes the statement.
+     * @throws SQLException in case of invalid SQL.
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(final Executor executor, final String sql,
+                                                          final Object... parameters) throws SQLException {
+        final PreparedStatement statement = prepareStatement(sql);
+        try {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+        } catch (final SQLException | RuntimeException e) {
+            statement.close();
+            throw e;
+        }
+
+        statement.closeOnCompletion();
+        return AsyncQuery.execute(statement, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Forgets a closed statement.
+     *
+     * @param statement the closed statement.
+     */
+    void removeStatement(final ParadoxStatement statement) {
+        this.statements.remove(statement);
+    }
+
     /**
      * Gets the connection information.
      *
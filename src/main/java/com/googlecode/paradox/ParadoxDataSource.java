@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox;
+
+import com.googlecode.paradox.exceptions.ParadoxConnectionException;
+import com.googlecode.paradox.utils.Utils;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.DataSource;
+import javax.sql.PooledConnection;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Paradox data source with connection pool.
+ * <p>
+ * {@link #getConnection()} reuses the idle physical connections of this data source: closing the returned connection
+ * returns it to the pool. {@link #getPooledConnection()} creates unmanaged pooled connections for external pool
+ * managers. The execution plan cache is shared by all connections.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public class ParadoxDataSource implements DataSource, ConnectionPoolDataSource, AutoCloseable {
+
+    /**
+     * Default maximum idle connection count.
+     */
+    public static final int DEFAULT_MAXIMUM_IDLE = 8;
+
+    /**
+     * The logger instance for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ParadoxDataSource.class.getName());
+
+    /**
+     * Idle connections, most recently used first.
+     */
+    private final Deque<ParadoxPooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Idle connection count.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Lock used to return connections to the pool and to close the pool atomically.
+     */
+    private final Object poolLock = new Object();
+
+    /**
+     * Returns the closed connections to the pool.
+     */
+    private final ConnectionEventListener poolListener = new PoolListener();
+
+    /**
+     * The connection properties.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * The connection URL.
+     */
+    private String url;
+
+    /**
+     * Maximum idle connection count.
+     */
+    private volatile int maximumIdle = DEFAULT_MAXIMUM_IDLE;
+
+    /**
+     * If this data source is closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The login timeout (not used).
+     */
+    private int loginTimeout;
+
+    /**
+     * The log writer.
+     */
+    private PrintWriter logWriter;
+
+    /**
+     * Creates a new instance.
+     */
+    public ParadoxDataSource() {
+        super();
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param url the connection URL.
+     */
+    public ParadoxDataSource(final String url) {
+        this.url = url;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
+        }
+
+        ParadoxPooledConnection pooled = idle.pollFirst();
+        while (pooled != null) {
+            idleCount.decrementAndGet();
+            if (!pooled.getPhysicalConnection().isClosed()) {
+                return pooled.getConnection();
+            }
+
+            pooled = idle.pollFirst();
+        }
+
+        pooled = createPooledConnection();
+        pooled.addConnectionEventListener(poolListener);
+        return pooled.getConnection();
+    }
+
+    /**
+     * {@inheritDoc}.
+     * <p>
+     * Paradox files have no authentication, so the user and password are not used.
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public PooledConnection getPooledConnection() throws SQLException {
+        return createPooledConnection();
+    }
+
+    /**
+     * {@inheritDoc}.
+     * <p>
+     * Paradox files have no authentication, so the user and password are not used.
+     */
+    @Override
+    public PooledConnection getPooledConnection(final String user, final String password) throws SQLException {
+        return getPooledConnection();
+    }
+
+    /**
+     * Creates a new physical connection.
+     *
+     * @return the new pooled connection.
+     * @throws SQLException in case of connection failures.
+     */
+    private ParadoxPooledConnection createPooledConnection() throws SQLException {
+        final Connection connection = new Driver().connect(url, properties);
+        if (connection == null) {
+            throw new ParadoxConnectionException(ParadoxConnectionException.Error.INVALID_URL);
+        }
+
+        return new ParadoxPooledConnection((ParadoxConnection) connection);
+    }
+
+    /**
+     * Closes all idle connections and stops pooling. Connections in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        final List<ParadoxPooledConnection> connections = new ArrayList<>();
+        synchronized (poolLock) {
+            closed = true;
+            ParadoxPooledConnection pooled = idle.pollFirst();
+            while (pooled != null) {
+                idleCount.decrementAndGet();
+                connections.add(pooled);
+                pooled = idle.pollFirst();
+            }
+        }
+
+        connections.forEach(ParadoxDataSource::closeQuietly);
+    }
+
+    /**
+     * Closes a physical connection ignoring errors.
+     *
+     * @param pooled the connection to close.
+     */
+    private static void closeQuietly(final PooledConnection pooled) {
+        try {
+            pooled.close();
+        } catch (final SQLException e) {
+            LOGGER.log(Level.FINEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the idle connection count.
+     *
+     * @return the idle connection count.
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * Gets the connection URL.
+     *
+     * @return the connection URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Sets the connection URL.
+     *
+     * @param url the connection URL.
+     */
+    public void setUrl(final String url) {
+        this.url = url;
+    }
+
+    /**
+     * Gets the connection properties.
+     *
+     * @return the connection properties.
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Sets a connection property.
+     *
+     * @param name  the property name.
+     * @param value the property value.
+     */
+    public void setProperty(final String name, final String value) {
+        properties.setProperty(name, value);
+    }
+
+    /**
+     * Gets the maximum idle connection count.
+     *
+     * @return the maximum idle connection count.
+     */
+    public int getMaximumIdle() {
+        return maximumIdle;
+    }
+
+    /**
+     * Sets the maximum idle connection count. Zero disables the pool.
+     *
+     * @param maximumIdle the maximum idle connection count.
+     */
+    public void setMaximumIdle(final int maximumIdle) {
+        this.maximumIdle = Math.max(0, maximumIdle);
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public void setLogWriter(final PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public void setLoginTimeout(final int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public <T> T unwrap(final Class<T> iFace) throws SQLException {
+        return Utils.unwrap(this, iFace);
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public boolean isWrapperFor(final Class<?> iFace) {
+        return Utils.isWrapperFor(this, iFace);
+    }
+
+    /**
+     * Returns the closed connections to the pool.
+     */
+    private final class PoolListener implements ConnectionEventListener {
+
+        /**
+         * {@inheritDoc}.
+         */
+        @Override
+        public void connectionClosed(final ConnectionEvent event) {
+            final ParadoxPooledConnection pooled = (ParadoxPooledConnection) event.getSource();
+            synchronized (poolLock) {
+                // Atomic with close, so no connection is left idle after the pool is closed.
+                if (!closed) {
+                    if (idleCount.incrementAndGet() <= maximumIdle) {
+                        idle.offerFirst(pooled);
+                        return;
+                    }
+
+                    idleCount.decrementAndGet();
+                }
+            }
+
+            closeQuietly(pooled);
+        }
+
+        /**
+         * {@inheritDoc}.
+         */
+        @Override
+        public void connectionErrorOccurred(final ConnectionEvent event) {
+            closeQuietly((PooledConnection) event.getSource());
+        }
+    }
+}
@@ -0,0 +1,766 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox;
+
+import com.googlecode.paradox.exceptions.ParadoxConnectionException;
+import com.googlecode.paradox.exceptions.ParadoxException;
+import com.googlecode.paradox.planner.plan.Plan;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import javax.sql.StatementEventListener;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.ref.WeakReference;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Pooled connection implementation.
+ * <p>
+ * Each {@link #getConnection()} returns a logical connection handle. Closing the handle restores the physical
+ * connection state and notifies the listeners, keeping the physical connection open for reuse. The statements,
+ * result sets and metadata created by the handle return the handle as their connection, so the physical connection
+ * is never exposed: unwrapping the handle to {@link ParadoxConnection} returns a facade that forwards to the handle.
+ * Each object is wrapped once, so repeated calls return the same wrapper.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public final class ParadoxPooledConnection implements PooledConnection {
+
+    /**
+     * Types wrapped to return the logical connection handle.
+     */
+    private static final Set<Class<?>> WRAPPED_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            Statement.class, PreparedStatement.class, CallableStatement.class, DatabaseMetaData.class,
+            ResultSet.class)));
+
+    /**
+     * The physical connection.
+     */
+    private final ParadoxConnection connection;
+
+    /**
+     * Connection event listeners.
+     */
+    private final List<ConnectionEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Statement event listeners.
+     */
+    private final List<StatementEventListener> statementListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The current logical connection handle.
+     */
+    private Handle handle;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connection the physical connection.
+     */
+    ParadoxPooledConnection(final ParadoxConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public synchronized Connection getConnection() throws SQLException {
+        if (connection.isClosed()) {
+            throw new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
+        }
+
+        // Only one handle is valid at time.
+        if (handle != null) {
+            handle.closed = true;
+            connection.reset();
+        }
+
+        handle = new Handle();
+        return handle.proxy;
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        if (handle != null) {
+            handle.closed = true;
+            handle = null;
+        }
+
+        connection.close();
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public void addConnectionEventListener(final ConnectionEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public void removeConnectionEventListener(final ConnectionEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public void addStatementEventListener(final StatementEventListener listener) {
+        statementListeners.add(listener);
+    }
+
+    /**
+     * {@inheritDoc}.
+     */
+    @Override
+    public void removeStatementEventListener(final StatementEventListener listener) {
+        statementListeners.remove(listener);
+    }
+
+    /**
+     * Gets the physical connection.
+     *
+     * @return the physical connection.
+     */
+    ParadoxConnection getPhysicalConnection() {
+        return connection;
+    }
+
+    /**
+     * Closes a logical connection handle.
+     *
+     * @param closing the handle to close.
+     */
+    private void closeHandle(final Handle closing) {
+        synchronized (this) {
+            if (handle != closing) {
+                return;
+            }
+
+            handle = null;
+        }
+
+        ConnectionEvent event;
+        try {
+            connection.reset();
+            event = new ConnectionEvent(this);
+        } catch (final SQLException e) {
+            event = new ConnectionEvent(this, e);
+        }
+
+        for (final ConnectionEventListener listener : listeners) {
+            if (event.getSQLException() == null) {
+                listener.connectionClosed(event);
+            } else {
+                listener.connectionErrorOccurred(event);
+            }
+        }
+    }
+
+    /**
+     * Wraps an object created by a logical connection handle, reusing the wrapper of the same object.
+     *
+     * @param value   the object to wrap.
+     * @param type    the declared object type.
+     * @param handle  the logical connection handle.
+     * @param parent  the statement that created the object, if any.
+     * @return the wrapped object or the object itself if it does not expose the connection.
+     */
+    private static Object wrap(final Object value, final Class<?> type, final Handle handle, final Object parent) {
+        if (value == null || !WRAPPED_TYPES.contains(type)) {
+            return value;
+        }
+
+        synchronized (handle.wrappers) {
+            final WeakReference<Object> reference = handle.wrappers.get(value);
+            Object wrapper = null;
+            if (reference != null) {
+                wrapper = reference.get();
+            }
+
+            if (!type.isInstance(wrapper)) {
+                wrapper = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                        new Child(value, handle, parent));
+                handle.wrappers.put(value, new WeakReference<>(wrapper));
+            }
+
+            return wrapper;
+        }
+    }
+
+    /**
+     * Invokes a method in the target object.
+     *
+     * @param target the target object.
+     * @param method the method to invoke.
+     * @param args   the method arguments.
+     * @return the method result.
+     * @throws Throwable in case of failures.
+     */
+    @SuppressWarnings("java:S112")
+    private static Object invokeTarget(final Object target, final Method method, final Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Unwraps a proxy only to the interfaces it implements.
+     *
+     * @param proxy the proxy.
+     * @param iFace the interface.
+     * @return the proxy.
+     * @throws ParadoxException if the proxy does not implement the interface.
+     */
+    private static Object unwrap(final Object proxy, final Class<?> iFace) throws ParadoxException {
+        if (iFace.isInstance(proxy)) {
+            return proxy;
+        }
+
+        throw new ParadoxException(ParadoxException.Error.TYPE_NOT_FOUND);
+    }
+
+    /**
+     * Logical connection handle.
+     */
+    private final class Handle implements InvocationHandler {
+
+        /**
+         * The connection proxy.
+         */
+        private final Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, this);
+
+        /**
+         * The wrappers of the objects created by this handle, released with the wrapper.
+         */
+        private final Map<Object, WeakReference<Object>> wrappers = new WeakHashMap<>();
+
+        /**
+         * If this handle is closed.
+         */
+        private volatile boolean closed;
+
+        /**
+         * The {@link ParadoxConnection} facade, created on first unwrap.
+         */
+        private Facade facade;
+
+        /**
+         * Check if this handle is closed.
+         *
+         * @return <code>true</code> if this handle or the physical connection is closed.
+         */
+        boolean isClosed() {
+            return closed || connection.isClosed();
+        }
+
+        /**
+         * Gets the {@link ParadoxConnection} facade.
+         *
+         * @return the facade.
+         */
+        synchronized Facade getFacade() {
+            if (facade == null) {
+                facade = new Facade(connection, this);
+            }
+
+            return facade;
+        }
+
+        /**
+         * Unwraps the handle to the interface or to the {@link ParadoxConnection} facade.
+         *
+         * @param iFace the interface.
+         * @return the handle or the facade.
+         * @throws ParadoxException if the handle can't be unwrapped to the interface.
+         */
+        Object unwrap(final Class<?> iFace) throws ParadoxException {
+            if (iFace.isInstance(proxy)) {
+                return proxy;
+            } else if (iFace.isAssignableFrom(ParadoxConnection.class)) {
+                return getFacade();
+            }
+
+            throw new ParadoxException(ParadoxException.Error.TYPE_NOT_FOUND);
+        }
+
+        /**
+         * {@inheritDoc}.
+         */
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + connection;
+                case "isClosed":
+                    return isClosed();
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeHandle(this);
+                    }
+
+                    return null;
+                case "unwrap":
+                    return unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy)
+                            || ((Class<?>) args[0]).isAssignableFrom(ParadoxConnection.class);
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
+            }
+
+            return wrap(invokeTarget(connection, method, args), method.getReturnType(), this, null);
+        }
+    }
+
+    /**
+     * {@link ParadoxConnection} facade of a logical connection handle. The JDBC methods are forwarded to the handle,
+     * so they fail after the handle is closed and return the handle wrappers.
+     */
+    private static final class Facade extends ParadoxConnection {
+
+        /**
+         * The logical connection handle.
+         */
+        private final Handle handle;
+
+        /**
+         * The physical connection.
+         */
+        private final ParadoxConnection physical;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param physical the physical connection.
+         * @param handle   the logical connection handle.
+         */
+        Facade(final ParadoxConnection physical, final Handle handle) {
+            super(physical);
+            this.physical = physical;
+            this.handle = handle;
+        }
+
+        /**
+         * Check if the handle is open.
+         *
+         * @throws ParadoxConnectionException if the handle is closed.
+         */
+        private void checkOpen() throws ParadoxConnectionException {
+            if (handle.isClosed()) {
+                throw new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
+            }
+        }
+
+        /**
+         * Check if the handle is open, for client info methods.
+         *
+         * @throws SQLClientInfoException if the handle is closed.
+         */
+        private void checkClientInfo() throws SQLClientInfoException {
+            if (handle.isClosed()) {
+                final SQLException e = new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
+                throw new SQLClientInfoException(e.getMessage(), e.getSQLState(), null, e);
+            }
+        }
+
+        @Override
+        public Plan<?, ?> createPlan(final String sql) throws SQLException {
+            checkOpen();
+            return physical.createPlan(sql);
+        }
+
+        @Override
+        public void abort(final Executor executor) throws SQLException {
+            handle.proxy.abort(executor);
+        }
+
+        @Override
+        public void clearWarnings() throws SQLException {
+            handle.proxy.clearWarnings();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            handle.proxy.close();
+        }
+
+        @Override
+        public void commit() throws SQLException {
+            handle.proxy.commit();
+        }
+
+        @Override
+        public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+            return handle.proxy.createArrayOf(typeName, elements);
+        }
+
+        @Override
+        public Blob createBlob() throws SQLException {
+            return handle.proxy.createBlob();
+        }
+
+        @Override
+        public Clob createClob() throws SQLException {
+            return handle.proxy.createClob();
+        }
+
+        @Override
+        public NClob createNClob() throws SQLException {
+            return handle.proxy.createNClob();
+        }
+
+        @Override
+        public SQLXML createSQLXML() throws SQLException {
+            return handle.proxy.createSQLXML();
+        }
+
+        @Override
+        public Statement createStatement() throws SQLException {
+            return handle.proxy.createStatement();
+        }
+
+        @Override
+        public Statement createStatement(final int resultSetType, final int resultSetConcurrency)
+                throws SQLException {
+            return handle.proxy.createStatement(resultSetType, resultSetConcurrency);
+        }
+
+        @Override
+        public Statement createStatement(final int resultSetType, final int resultSetConcurrency,
+                                         final int resultSetHoldability) throws SQLException {
+            return handle.proxy.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+        }
+
+        @Override
+        public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+            return handle.proxy.createStruct(typeName, attributes);
+        }
+
+        @Override
+        public boolean getAutoCommit() throws SQLException {
+            return handle.proxy.getAutoCommit();
+        }
+
+        @Override
+        public void setAutoCommit(final boolean autoCommit) throws SQLException {
+            handle.proxy.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public String getCatalog() throws SQLException {
+            return handle.proxy.getCatalog();
+        }
+
+        @Override
+        public void setCatalog(final String catalog) throws SQLException {
+            handle.proxy.setCatalog(catalog);
+        }
+
+        @Override
+        public Properties getClientInfo() throws SQLException {
+            return handle.proxy.getClientInfo();
+        }
+
+        @Override
+        public void setClientInfo(final Properties clientInfo) throws SQLClientInfoException {
+            checkClientInfo();
+            physical.setClientInfo(clientInfo);
+        }
+
+        @Override
+        public String getClientInfo(final String name) throws SQLException {
+            return handle.proxy.getClientInfo(name);
+        }
+
+        @Override
+        public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+            checkClientInfo();
+            physical.setClientInfo(name, value);
+        }
+
+        @Override
+        public int getHoldability() throws SQLException {
+            return handle.proxy.getHoldability();
+        }
+
+        @Override
+        public void setHoldability(final int holdability) throws SQLException {
+            handle.proxy.setHoldability(holdability);
+        }
+
+        @Override
+        public DatabaseMetaData getMetaData() throws SQLException {
+            return handle.proxy.getMetaData();
+        }
+
+        @Override
+        public int getNetworkTimeout() throws SQLException {
+            return handle.proxy.getNetworkTimeout();
+        }
+
+        @Override
+        public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
+            handle.proxy.setNetworkTimeout(executor, milliseconds);
+        }
+
+        @Override
+        public String getSchema() throws SQLException {
+            return handle.proxy.getSchema();
+        }
+
+        @Override
+        public void setSchema(final String schema) throws SQLException {
+            handle.proxy.setSchema(schema);
+        }
+
+        @Override
+        public int getTransactionIsolation() throws SQLException {
+            return handle.proxy.getTransactionIsolation();
+        }
+
+        @Override
+        public void setTransactionIsolation(final int level) throws SQLException {
+            handle.proxy.setTransactionIsolation(level);
+        }
+
+        @Override
+        public Map<String, Class<?>> getTypeMap() throws SQLException {
+            return handle.proxy.getTypeMap();
+        }
+
+        @Override
+        public void setTypeMap(final Map<String, Class<?>> typeMap) throws SQLException {
+            handle.proxy.setTypeMap(typeMap);
+        }
+
+        @Override
+        public SQLWarning getWarnings() throws SQLException {
+            return handle.proxy.getWarnings();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return handle.isClosed();
+        }
+
+        @Override
+        public boolean isReadOnly() throws SQLException {
+            return handle.proxy.isReadOnly();
+        }
+
+        @Override
+        public void setReadOnly(final boolean readOnly) throws SQLException {
+            handle.proxy.setReadOnly(readOnly);
+        }
+
+        @Override
+        public boolean isValid(final int timeout) {
+            return !handle.isClosed();
+        }
+
+        @Override
+        public String nativeSQL(final String sql) throws SQLException {
+            return handle.proxy.nativeSQL(sql);
+        }
+
+        @Override
+        public CallableStatement prepareCall(final String sql) throws SQLException {
+            return handle.proxy.prepareCall(sql);
+        }
+
+        @Override
+        public CallableStatement prepareCall(final String sql, final int resultSetType,
+                                             final int resultSetConcurrency) throws SQLException {
+            return handle.proxy.prepareCall(sql, resultSetType, resultSetConcurrency);
+        }
+
+        @Override
+        public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency,
+                                             final int resultSetHoldability) throws SQLException {
+            return handle.proxy.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql) throws SQLException {
+            return handle.proxy.prepareStatement(sql);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys)
+                throws SQLException {
+            return handle.proxy.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+            return handle.proxy.prepareStatement(sql, columnIndexes);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+            return handle.proxy.prepareStatement(sql, columnNames);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
+                                                  final int resultSetConcurrency) throws SQLException {
+            return handle.proxy.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(final String sql, final int resultSetType,
+                                                  final int resultSetConcurrency, final int resultSetHoldability)
+                throws SQLException {
+            return handle.proxy.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        }
+
+        @Override
+        public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+            handle.proxy.releaseSavepoint(savepoint);
+        }
+
+        @Override
+        public void rollback() throws SQLException {
+            handle.proxy.rollback();
+        }
+
+        @Override
+        public void rollback(final Savepoint savepoint) throws SQLException {
+            handle.proxy.rollback(savepoint);
+        }
+
+        @Override
+        public Savepoint setSavepoint() throws SQLException {
+            return handle.proxy.setSavepoint();
+        }
+
+        @Override
+        public Savepoint setSavepoint(final String name) throws SQLException {
+            return handle.proxy.setSavepoint(name);
+        }
+
+        @Override
+        public <T> T unwrap(final Class<T> iFace) throws SQLException {
+            return iFace.cast(handle.unwrap(iFace));
+        }
+
+        @Override
+        public boolean isWrapperFor(final Class<?> iFace) {
+            return iFace.isInstance(handle.proxy) || iFace.isAssignableFrom(ParadoxConnection.class);
+        }
+
+        @Override
+        public String toString() {
+            return handle.proxy.toString();
+        }
+    }
+
+    /**
+     * Statement, result set or metadata created by a logical connection handle.
+     */
+    private static final class Child implements InvocationHandler {
+
+        /**
+         * The wrapped object.
+         */
+        private final Object target;
+
+        /**
+         * The logical connection handle.
+         */
+        private final Handle handle;
+
+        /**
+         * The statement that created this object, if any.
+         */
+        private final Object parent;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param target the wrapped object.
+         * @param handle the logical connection handle.
+         * @param parent the statement that created this object, if any.
+         */
+        private Child(final Object target, final Handle handle, final Object parent) {
+            this.target = target;
+            this.handle = handle;
+            this.parent = parent;
+        }
+
+        /**
+         * {@inheritDoc}.
+         */
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                case "getConnection":
+                    return handle.proxy;
+                case "getStatement":
+                    if (parent != null) {
+                        return parent;
+                    }
+
+                    break;
+                case "unwrap":
+                    return unwrap(proxy, (Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                default:
+                    break;
+            }
+
+            Object statement = null;
+            if (proxy instanceof Statement) {
+                statement = proxy;
+            }
+
+            return wrap(invokeTarget(target, method, args), method.getReturnType(), handle, statement);
+        }
+    }
+}
@@ -11,6 +11,8 @@
 package com.googlecode.paradox;
 
 import com.googlecode.paradox.exceptions.*;
+import com.googlecode.paradox.planner.collections.RowIndex;
+import com.googlecode.paradox.planner.nodes.PlanTableNode;
 import com.googlecode.paradox.planner.plan.Plan;
 import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.rowset.ValuesConverter;
@@ -29,18 +31,18 @@ import java.util.*;
 /**
  * {@link PreparedStatement} implementation class.
  *
- * @version 1.8
+ * @version 1.12
  * @since 1.6.0
  */
 @SuppressWarnings({"java:S1448", "java:S1200"})
 class ParadoxPreparedStatement extends ParadoxStatement implements PreparedStatement {
 
     /**
-     * Execution list.
+     * Batch execution list.
      */
     protected final List<Object[]> executions = new ArrayList<>();
     /**
-     * Execution parameter list.
+     * Batch execution parameter type list.
      */
     protected final List<ParadoxType[]> executionTypes = new ArrayList<>();
     /**
@@ -77,12 +79,18 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
         final ArrayList<Integer> ret = new ArrayList<>();
         // One for statement.
         for (final Plan<?, ?> plan : statements) {
+            // Read the tables once for all parameters and index them by the parameter key.
+            Map<PlanTableNode, RowIndex> sharedTableData = null;
+            if (executions.size() > 1) {
+                sharedTableData = new HashMap<>();
+            }
+
             // One for parameters.
             for (int i = 0; i < executions.size(); i++) {
                 final Object[] params = executions.get(i);
                 final ParadoxType[] types = executionTypes.get(i);
                 try {
-                    ret.addAll(executeStatement(plan, params, types));
+                    ret.addAll(executeStatement(plan, params, types, sharedTableData));
                 } catch (@SuppressWarnings("java:S1166") final InternalException e) {
                     throw e.getCause();
                 }
@@ -94,10 +102,8 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        executions.add(currentParameterValues);
-        executionTypes.add(currentParameterTypes);
-
-        executeStatements();
+        // Copy the parameters: they can be changed while the result set is in use.
+        executeSingle(statements.get(0), currentParameterValues.clone(), currentParameterTypes.clone());
 
         resultSetIndex = 0;
         return getResultSet();
@@ -247,7 +253,10 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
         checkIndex(parameterIndex);
         currentParameterValues[parameterIndex - 1] = instance;
 
-        if (instance != null) {
+        if (instance != null && instance.getClass().isArray() && !(instance instanceof byte[])) {
+            // Array values (used in IN expressions).
+            currentParameterTypes[parameterIndex - 1] = ParadoxType.NULL;
+        } else if (instance != null) {
             currentParameterTypes[parameterIndex - 1] = ParadoxType.valueOf(instance.getClass());
         } else {
             currentParameterTypes[parameterIndex - 1] = ParadoxType.NULL;
@@ -261,7 +270,8 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
 
     @Override
     public void addBatch() {
-        executions.add(currentParameterValues);
+        executions.add(currentParameterValues.clone());
+        executionTypes.add(currentParameterTypes.clone());
     }
 
     @Override
@@ -289,7 +299,9 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
 
     @Override
     public void setArray(int parameterIndex, Array x) throws SQLException {
-        throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
+        checkIndex(parameterIndex);
+        currentParameterValues[parameterIndex - 1] = x;
+        currentParameterTypes[parameterIndex - 1] = ParadoxType.NULL;
     }
 
     @Override
@@ -470,6 +482,7 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
     @Override
     public void clearBatch() {
         this.executions.clear();
+        this.executionTypes.clear();
         while (this.statements.size() > 1) {
             this.statements.remove(1);
         }
@@ -506,6 +519,7 @@ class ParadoxPreparedStatement extends ParadoxStatement implements PreparedState
         super.close();
 
         executions.clear();
+        executionTypes.clear();
         Arrays.fill(currentParameterValues, null);
     }
 }
@@ -17,6 +17,7 @@ import com.googlecode.paradox.results.Column;
 import com.googlecode.paradox.rowset.DataNavigation;
 import com.googlecode.paradox.rowset.ParadoxBlob;
 import com.googlecode.paradox.rowset.ParadoxClob;
+import com.googlecode.paradox.rowset.StreamDataNavigation;
 import com.googlecode.paradox.rowset.ValuesConverter;
 import com.googlecode.paradox.utils.Utils;
 
@@ -31,13 +32,16 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * JDBC ResultSet implementation.
  *
- * @version 1.6
+ * @version 1.9
  * @since 1.0
  */
 public final class ParadoxResultSet implements ResultSet {
@@ -50,6 +54,10 @@ public final class ParadoxResultSet implements ResultSet {
      * {@link ResultSet} columns.
      */
     private final List<Column> columns;
+    /**
+     * Columns by upper case label.
+     */
+    private final Map<String, Column> columnsByLabel = new HashMap<>();
     /**
      * This {@link ResultSet} {@link Statement}.
      */
@@ -89,16 +97,51 @@ public final class ParadoxResultSet implements ResultSet {
         this.columns = columns;
         this.connectionInfo = connectionInfo;
 
-        // Fix column indexes.
+        fixColumnIndexes();
+
+        this.dataNavigation = new DataNavigation(columns, values);
+    }
+
+    /**
+     * Creates a new forward only {@link ResultSet} reading the rows on demand.
+     *
+     * @param connectionInfo the connection information.
+     * @param statement      the {@link Statement} for this {@link ResultSet}.
+     * @param values         row and column values stream.
+     * @param columns        the columns name.
+     * @param fetchSize      the amount of rows to fetch at once.
+     * @throws SQLException in case of failures in first fetch.
+     */
+    public ParadoxResultSet(final ConnectionInfo connectionInfo, final Statement statement,
+                            final Stream<Object[]> values, final List<Column> columns, final int fetchSize)
+            throws SQLException {
+        this.statement = new WeakReference<>(statement);
+        this.columns = columns;
+        this.connectionInfo = connectionInfo;
+        this.type = ResultSet.TYPE_FORWARD_ONLY;
+        this.fetchSize = fetchSize;
+
+        fixColumnIndexes();
+
+        this.dataNavigation = new StreamDataNavigation(columns, values, fetchSize);
+    }
+
+    /**
+     * Fix column indexes.
+     */
+    private void fixColumnIndexes() {
         int index = 1;
         for (final Column column : this.columns) {
             if (!column.isHidden()) {
                 column.setIndex(index);
                 index++;
             }
-        }
 
-        this.dataNavigation = new DataNavigation(columns, values);
+            // First column wins.
+            if (column.getName() != null) {
+                this.columnsByLabel.putIfAbsent(column.getName().toUpperCase(Locale.ROOT), column);
+            }
+        }
     }
 
     /**
@@ -145,9 +188,18 @@ public final class ParadoxResultSet implements ResultSet {
      * {@inheritDoc}.
      */
     @Override
-    public void close() {
+    public void close() throws SQLException {
+        if (this.dataNavigation.isClosed()) {
+            return;
+        }
+
         this.dataNavigation.close();
         this.connectionInfo = null;
+
+        final Statement stmt = statement.get();
+        if (stmt instanceof ParadoxStatement) {
+            ((ParadoxStatement) stmt).resultSetClosed(this);
+        }
     }
 
     /**
@@ -163,6 +215,12 @@ public final class ParadoxResultSet implements ResultSet {
      */
     @Override
     public int findColumn(final String columnLabel) throws SQLException {
+        final Column found = this.columnsByLabel.get(columnLabel.toUpperCase(Locale.ROOT));
+        if (found != null) {
+            return found.getIndex();
+        }
+
+        // Some case insensitive matches differ in upper case.
         for (final Column column : this.columns) {
             if (column.getName().equalsIgnoreCase(columnLabel)) {
                 return column.getIndex();
@@ -461,7 +519,12 @@ public final class ParadoxResultSet implements ResultSet {
      */
     @Override
     public double getDouble(final int columnIndex) throws SQLException {
-        Double ret = ValuesConverter.getDouble(dataNavigation.getColumnValue(columnIndex), connectionInfo);
+        final Object value = dataNavigation.getColumnValue(columnIndex);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+
+        Double ret = ValuesConverter.getDouble(value, connectionInfo);
         if (ret != null) {
             return ret;
         }
@@ -507,6 +570,7 @@ public final class ParadoxResultSet implements ResultSet {
     @Override
     public void setFetchSize(final int rows) {
         this.fetchSize = rows;
+        this.dataNavigation.setFetchSize(rows);
     }
 
     /**
@@ -543,7 +607,12 @@ public final class ParadoxResultSet implements ResultSet {
      */
     @Override
     public int getInt(final int columnIndex) throws SQLException {
-        Integer ret = ValuesConverter.getInteger(dataNavigation.getColumnValue(columnIndex), connectionInfo);
+        final Object value = dataNavigation.getColumnValue(columnIndex);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+
+        Integer ret = ValuesConverter.getInteger(value, connectionInfo);
         if (ret != null) {
             return ret;
         }
@@ -564,7 +633,12 @@ public final class ParadoxResultSet implements ResultSet {
      */
     @Override
     public long getLong(final int columnIndex) throws SQLException {
-        Long ret = ValuesConverter.getLong(dataNavigation.getColumnValue(columnIndex), connectionInfo);
+        final Object value = dataNavigation.getColumnValue(columnIndex);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+
+        Long ret = ValuesConverter.getLong(value, connectionInfo);
         if (ret != null) {
             return ret;
         }
@@ -990,7 +1064,7 @@ public final class ParadoxResultSet implements ResultSet {
      * {@inheritDoc}.
      */
     @Override
-    public boolean next() {
+    public boolean next() throws SQLException {
         return dataNavigation.next();
     }
 
@@ -998,7 +1072,7 @@ public final class ParadoxResultSet implements ResultSet {
      * {@inheritDoc}.
      */
     @Override
-    public boolean previous() {
+    public boolean previous() throws SQLException {
         return dataNavigation.previous();
     }
 
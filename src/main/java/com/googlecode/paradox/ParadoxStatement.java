@@ -11,10 +11,15 @@
 package com.googlecode.paradox;
 
 import com.googlecode.paradox.exceptions.*;
+import com.googlecode.paradox.planner.ResultCache;
+import com.googlecode.paradox.planner.collections.RowIndex;
 import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.planner.context.SelectContext;
+import com.googlecode.paradox.planner.context.TimeoutScheduler;
+import com.googlecode.paradox.planner.nodes.PlanTableNode;
 import com.googlecode.paradox.planner.plan.Plan;
 import com.googlecode.paradox.planner.plan.SelectPlan;
+import com.googlecode.paradox.results.Column;
 import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.Constants;
 import com.googlecode.paradox.utils.Utils;
@@ -22,21 +27,25 @@ import com.googlecode.paradox.utils.Utils;
 import java.lang.ref.WeakReference;
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Stream;
 
 /**
  * JDBC statement implementation.
  *
- * @version 1.9
+ * @version 1.18
  * @since 1.0
  */
 @SuppressWarnings({"java:S1448", "java:S1200"})
 class ParadoxStatement implements Statement {
 
     /**
-     * Statement list.
+     * Statement batch list.
      */
     protected final List<Plan<?, ?>> statements = new ArrayList<>();
     /**
@@ -58,7 +67,7 @@ class ParadoxStatement implements Statement {
     /**
      * This statement active executions list.
      */
-    private final HashSet<Context> activeExecutions = new HashSet<>();
+    private final Set<Context> activeExecutions = ConcurrentHashMap.newKeySet();
     /**
      * The Paradox connection.
      */
@@ -126,6 +135,59 @@ class ParadoxStatement implements Statement {
         this.autoGeneratedKeys = Statement.NO_GENERATED_KEYS;
     }
 
+    /**
+     * Execute only one plan, releasing the previous results.
+     *
+     * @param plan   the plan to execute.
+     * @param params the parameter values.
+     * @param types  the parameter types.
+     * @throws SQLException in case of failures.
+     */
+    protected void executeSingle(final Plan<?, ?> plan, final Object[] params, final ParadoxType[] types)
+            throws SQLException {
+        clearResultSets();
+
+        try {
+            executeStatement(plan, params, types);
+        } catch (@SuppressWarnings("java:S1166") final InternalException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Close and release the previous execution result sets.
+     *
+     * @throws SQLException in case of failures.
+     */
+    protected void clearResultSets() throws SQLException {
+        // Not closed by completion: the statement closes them.
+        final List<ResultSet> previous = new ArrayList<>(resultSets);
+        this.resultSets.clear();
+        this.resultSetIndex = -1;
+
+        for (final ResultSet rs : previous) {
+            rs.close();
+        }
+    }
+
+    /**
+     * Closes this statement when all its result sets are closed, if {@link #closeOnCompletion()} was called.
+     *
+     * @param resultSet the closed result set.
+     * @throws SQLException in case of failures.
+     */
+    void resultSetClosed(final ResultSet resultSet) throws SQLException {
+        if (closeOnCompletion && !closed && resultSets.contains(resultSet)) {
+            for (final ResultSet rs : resultSets) {
+                if (!rs.isClosed()) {
+                    return;
+                }
+            }
+
+            close();
+        }
+    }
+
     protected int[] executeStatements() throws SQLException {
         final ArrayList<Integer> ret = new ArrayList<>();
         // One for statement.
@@ -141,34 +203,103 @@ class ParadoxStatement implements Statement {
         return ret.stream().mapToInt(Integer::intValue).toArray();
     }
 
-    @SuppressWarnings("java:S2093")
     protected List<Integer> executeStatement(final Plan<?, ?> plan, final Object[] params, final ParadoxType[] types)
             throws SQLException {
+        return executeStatement(plan, params, types, null);
+    }
+
+    /**
+     * Executes a plan.
+     *
+     * @param plan            the plan to execute.
+     * @param params          the parameter values.
+     * @param types           the parameter types.
+     * @param sharedTableData the table data shared by the executions of a batch or <code>null</code> if not in batch.
+     * @return the update counts.
+     * @throws SQLException in case of failures.
+     */
+    @SuppressWarnings("java:S2093")
+    protected List<Integer> executeStatement(final Plan<?, ?> plan, final Object[] params, final ParadoxType[] types,
+                                             final Map<PlanTableNode, RowIndex> sharedTableData)
+            throws SQLException {
         ArrayList<Integer> ret = new ArrayList<>();
         if (plan instanceof SelectPlan) {
             final SelectPlan selectPlan = (SelectPlan) plan;
             final SelectContext context = selectPlan.createContext(this.connectionInfo, params, types);
             context.setMaxRows(maxRows);
+            context.setSharedTableData(sharedTableData);
             activeExecutions.add(context);
+            final ScheduledFuture<?> timeout = TimeoutScheduler.schedule(context, queryTimeout);
 
+            boolean streaming = false;
+            Stream<Object[]> stream = null;
             try {
-                final List<Object[]> values = selectPlan.execute(context);
+                ResultCache.Lookup lookup = null;
+                if (this.connectionInfo.isResultCache() && selectPlan.isCacheable()) {
+                    lookup = ParadoxConnection.getResultCache().lookup(selectPlan, context);
+                }
+
+                // Cached results must be fully loaded.
+                final boolean onDemand = resultSetType == ResultSet.TYPE_FORWARD_ONLY && lookup == null;
+
+                final ParadoxResultSet resultSet;
+                if (lookup != null && lookup.getRows() != null) {
+                    resultSet = new ParadoxResultSet(this.connectionInfo, this, lookup.getRows(),
+                            selectPlan.getResultColumns(context));
+                } else if (onDemand) {
+                    // Read the rows on demand.
+                    final List<Column> columns = selectPlan.getResultColumns(context);
+                    stream = selectPlan.executeStream(context).onClose(() -> releaseExecution(context, timeout));
+                    resultSet = new ParadoxResultSet(this.connectionInfo, this, stream, columns, fetchSize);
+
+                    // Function types are known only after the first rows.
+                    selectPlan.updateColumnTypes(context, columns);
+                } else {
+                    final List<Object[]> values = selectPlan.execute(context);
+                    if (lookup != null) {
+                        lookup.store(values, context);
+                    }
+
+                    resultSet = new ParadoxResultSet(this.connectionInfo, this, values,
+                            selectPlan.getResultColumns(context));
+                }
 
-                final ParadoxResultSet resultSet = new ParadoxResultSet(this.connectionInfo, this, values,
-                        selectPlan.getColumns());
                 resultSet.setFetchDirection(ResultSet.FETCH_FORWARD);
                 resultSet.setType(resultSetType);
                 resultSet.setConcurrency(resultSetConcurrency);
                 ret.add(Statement.SUCCESS_NO_INFO);
                 resultSets.add(resultSet);
+
+                // Forward only executions (and their timeouts) end when the result set is closed.
+                streaming = onDemand;
             } finally {
-                activeExecutions.remove(context);
+                if (!streaming) {
+                    if (stream != null) {
+                        // Failed before the result set took the stream.
+                        stream.close();
+                    }
+
+                    releaseExecution(context, timeout);
+                }
             }
         }
 
         return ret;
     }
 
+    /**
+     * Ends an execution.
+     *
+     * @param context the execution context.
+     * @param timeout the scheduled timeout, if any.
+     */
+    private void releaseExecution(final Context context, final ScheduledFuture<?> timeout) {
+        activeExecutions.remove(context);
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+
     /**
      * {@inheritDoc}.
      */
@@ -212,15 +343,19 @@ class ParadoxStatement implements Statement {
      */
     @Override
     public void close() throws SQLException {
-        for (final ResultSet rs : resultSets) {
-            rs.close();
+        if (closed) {
+            return;
         }
 
-        this.resultSets.clear();
-        this.statements.clear();
-
         this.closed = true;
+        clearResultSets();
+        this.statements.clear();
         this.connectionInfo = null;
+
+        final ParadoxConnection conn = connection.get();
+        if (conn != null) {
+            conn.removeStatement(this);
+        }
     }
 
     /**
@@ -240,9 +375,7 @@ class ParadoxStatement implements Statement {
             throw new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
         }
 
-        this.statements.add(Objects.requireNonNull(connection.get()).createPlan(sql));
-
-        executeStatements();
+        executeSingle(Objects.requireNonNull(connection.get()).createPlan(sql), null, null);
 
         return getMoreResults();
     }
@@ -276,6 +409,7 @@ class ParadoxStatement implements Statement {
      */
     @Override
     public int[] executeBatch() throws SQLException {
+        clearResultSets();
         return executeStatements();
     }
 
@@ -288,9 +422,7 @@ class ParadoxStatement implements Statement {
             throw new ParadoxConnectionException(ParadoxConnectionException.Error.NOT_CONNECTED);
         }
 
-        this.statements.add(Objects.requireNonNull(connection.get()).createPlan(sql));
-
-        executeStatements();
+        executeSingle(Objects.requireNonNull(connection.get()).createPlan(sql), null, null);
 
         if (getMoreResults()) {
             return getResultSet();
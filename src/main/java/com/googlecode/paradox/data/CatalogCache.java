@@ -0,0 +1,484 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.data;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.utils.Constants;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Metadata file cache for a schema directory.
+ * <p>
+ * Stores the header bytes of table and index files and the content of view files, revalidated by file size and
+ * modification time. The bytes are cached instead of the parsed structures because the parsed structures depend on
+ * the connection settings (charset and locale). The cache can be saved to a snapshot file in the schema directory,
+ * so a new process can read the metadata without opening every file.
+ * <p>
+ * While the directory is {@link ChangeMonitor monitored}, the file state is not read again: the entries are
+ * discarded by the change events.
+ * <p>
+ * The subdirectories (catalogs and schemas) are also cached, revalidated by the directory modification time.
+ *
+ * @version 1.4
+ * @since 1.6.1
+ */
+public final class CatalogCache {
+
+    /**
+     * The snapshot file name.
+     */
+    public static final String SNAPSHOT_FILE = ".paradox-catalog";
+
+    /**
+     * The snapshot file signature.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x50584343;
+
+    /**
+     * The snapshot file format version.
+     */
+    private static final int SNAPSHOT_VERSION = 2;
+
+    /**
+     * The logger instance for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(CatalogCache.class.getName());
+
+    /**
+     * The caches by schema directory.
+     */
+    private static final Map<File, CatalogCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Time after the directory or file modification in which a listing or a read can miss changes in the same time
+     * stamp (file systems with coarse modification times).
+     */
+    public static final long RACY_INTERVAL = 2000L;
+
+    static {
+        ChangeMonitor.addListener(CatalogCache::invalidate);
+    }
+
+    /**
+     * The schema directory.
+     */
+    private final File directory;
+
+    /**
+     * Cached files by name.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The subdirectory listing.
+     */
+    private volatile Directories directories;
+
+    /**
+     * If the snapshot file was already read.
+     */
+    private volatile boolean snapshotLoaded;
+
+    /**
+     * If there are entries not saved in snapshot file.
+     */
+    private volatile boolean dirty;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory the schema directory.
+     */
+    private CatalogCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the cache of a schema directory.
+     *
+     * @param directory      the schema directory.
+     * @param connectionInfo the connection information.
+     * @return the directory cache.
+     */
+    public static CatalogCache getInstance(final File directory, final ConnectionInfo connectionInfo) {
+        final CatalogCache cache = CACHES.computeIfAbsent(directory.getAbsoluteFile(), CatalogCache::new);
+        if (connectionInfo != null) {
+            ChangeMonitor.start(cache.directory, connectionInfo.getChangeMonitor(),
+                    connectionInfo.getChangeMonitorInterval());
+
+            if (connectionInfo.isCatalogSnapshot() && !cache.snapshotLoaded) {
+                cache.loadSnapshot();
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * Discards a changed file.
+     *
+     * @param file the changed file or directory.
+     */
+    private static void invalidate(final File file) {
+        final CatalogCache cache = CACHES.get(file.getAbsoluteFile());
+        if (cache != null) {
+            cache.entries.clear();
+            cache.directories = null;
+        } else if (file.getParentFile() != null) {
+            final CatalogCache parent = CACHES.get(file.getAbsoluteFile().getParentFile());
+            if (parent != null) {
+                parent.entries.remove(file.getName());
+            }
+        }
+    }
+
+    /**
+     * Clears all directory caches.
+     */
+    public static void clearAll() {
+        CACHES.clear();
+    }
+
+    /**
+     * Reads the file header.
+     *
+     * @param file the file to read.
+     * @return the header bytes.
+     * @throws IOException in case of read failures.
+     */
+    public byte[] readHeader(final File file) throws IOException {
+        return read(file, true);
+    }
+
+    /**
+     * Reads the entire file.
+     *
+     * @param file the file to read.
+     * @return the file bytes.
+     * @throws IOException in case of read failures.
+     */
+    public byte[] readAll(final File file) throws IOException {
+        return read(file, false);
+    }
+
+    /**
+     * Reads a file using the cached bytes if the file is unchanged.
+     *
+     * @param file       the file to read.
+     * @param headerOnly <code>true</code> to read only the file header.
+     * @return the file bytes.
+     * @throws IOException in case of read failures.
+     */
+    private byte[] read(final File file, final boolean headerOnly) throws IOException {
+        final String name = file.getName();
+        final ChangeMonitor monitor = ChangeMonitor.getMonitor(directory);
+        final long sequence = ChangeMonitor.sequence();
+
+        Entry entry = entries.get(name);
+        if (entry != null && entry.monitor != null && entry.monitor.isActive()) {
+            if (!entry.monitor.isChanged(name, entry.sequence)) {
+                return entry.bytes;
+            }
+
+            entry = null;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long size = file.length();
+        final long modified = file.lastModified();
+        if (entry != null && entry.size == size && entry.modified == modified
+                && entry.read - modified >= RACY_INTERVAL) {
+            if (monitor != null) {
+                // No need to check the file state again while monitored.
+                entries.replace(name, entry, new Entry(size, modified, entry.read, entry.bytes, monitor, sequence));
+            }
+
+            return entry.bytes;
+        }
+
+        final byte[] bytes;
+        if (headerOnly) {
+            bytes = readHeaderBytes(file);
+        } else {
+            bytes = Files.readAllBytes(file.toPath());
+        }
+
+        entries.put(name, new Entry(size, modified, now, bytes, monitor, sequence));
+        dirty = true;
+        return bytes;
+    }
+
+    /**
+     * Reads the file header bytes, using the header size stored in file.
+     *
+     * @param file the file to read.
+     * @return the header bytes.
+     * @throws IOException in case of read failures.
+     */
+    private static byte[] readHeaderBytes(final File file) throws IOException {
+        final byte[] buffer = new byte[Constants.MAX_BUFFER_SIZE];
+        int read = 0;
+        try (final InputStream in = new FileInputStream(file)) {
+            int count;
+            while (read < buffer.length && (count = in.read(buffer, read, buffer.length - read)) > 0) {
+                read += count;
+            }
+        }
+
+        int length = read;
+        if (read >= 4) {
+            final int headerSize = (buffer[2] & 0xFF) | ((buffer[3] & 0xFF) << 8);
+            if (headerSize > 0 && headerSize < read) {
+                length = headerSize;
+            }
+        }
+
+        final byte[] bytes = new byte[length];
+        System.arraycopy(buffer, 0, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * Lists the subdirectories, sorted by name.
+     *
+     * @return the subdirectories.
+     */
+    public List<File> listDirectories() {
+        return getDirectories().files;
+    }
+
+    /**
+     * Finds a subdirectory by name, ignoring case.
+     *
+     * @param name the directory name.
+     * @return the subdirectory or <code>null</code> if not found.
+     */
+    public File findDirectory(final String name) {
+        return getDirectories().names.get(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the subdirectory listing, listing the directory again if it was modified.
+     *
+     * @return the subdirectory listing.
+     */
+    private Directories getDirectories() {
+        final long modified = directory.lastModified();
+        Directories current = directories;
+        if (current == null || current.modified != modified || current.listed - modified < RACY_INTERVAL) {
+            current = new Directories(directory, modified);
+            directories = current;
+        }
+
+        return current;
+    }
+
+    /**
+     * Gets the cached file count.
+     *
+     * @return the cached file count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Saves the cache to the snapshot file if there are new entries. Entries of removed files are not saved.
+     */
+    public void saveSnapshot() {
+        if (!dirty) {
+            return;
+        }
+
+        dirty = false;
+        entries.keySet().removeIf(name -> !new File(directory, name).isFile());
+
+        final File snapshot = new File(directory, SNAPSHOT_FILE);
+        final File temp = new File(directory, SNAPSHOT_FILE + ".tmp");
+        try {
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+
+                final Map<String, Entry> copy = new HashMap<>(entries);
+                out.writeInt(copy.size());
+                for (final Map.Entry<String, Entry> current : copy.entrySet()) {
+                    out.writeUTF(current.getKey());
+                    out.writeLong(current.getValue().size);
+                    out.writeLong(current.getValue().modified);
+                    out.writeLong(current.getValue().read);
+                    out.writeInt(current.getValue().bytes.length);
+                    out.write(current.getValue().bytes);
+                }
+            }
+
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            // Read only directories can't have snapshots.
+            LOGGER.log(Level.FINEST, e.getMessage(), e);
+            dirty = true;
+            try {
+                Files.deleteIfExists(temp.toPath());
+            } catch (final IOException ex) {
+                LOGGER.log(Level.FINEST, ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Loads the snapshot file entries not already in cache.
+     */
+    private synchronized void loadSnapshot() {
+        if (snapshotLoaded) {
+            return;
+        }
+
+        snapshotLoaded = true;
+        final File snapshot = new File(directory, SNAPSHOT_FILE);
+        if (!snapshot.isFile()) {
+            return;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return;
+            }
+
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String name = in.readUTF();
+                final long size = in.readLong();
+                final long modified = in.readLong();
+                final long read = in.readLong();
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                entries.putIfAbsent(name, new Entry(size, modified, read, bytes, null, 0L));
+            }
+        } catch (final IOException e) {
+            // Invalid snapshots are rebuilt on next save.
+            LOGGER.log(Level.FINEST, e.getMessage(), e);
+            dirty = true;
+        }
+    }
+
+    /**
+     * A subdirectory listing.
+     */
+    private static final class Directories {
+
+        /**
+         * The directory modification time when listed.
+         */
+        private final long modified;
+
+        /**
+         * The listing time.
+         */
+        private final long listed;
+
+        /**
+         * The subdirectories sorted by name.
+         */
+        private final List<File> files;
+
+        /**
+         * The subdirectories by upper case name.
+         */
+        private final Map<String, File> names = new HashMap<>();
+
+        /**
+         * Creates a new instance, listing the subdirectories.
+         *
+         * @param directory the directory to list.
+         * @param modified  the directory modification time.
+         */
+        private Directories(final File directory, final long modified) {
+            this.modified = modified;
+            this.listed = System.currentTimeMillis();
+
+            final File[] list = directory.listFiles(File::isDirectory);
+            if (list == null) {
+                this.files = Collections.emptyList();
+            } else {
+                Arrays.sort(list);
+                this.files = Collections.unmodifiableList(Arrays.asList(list));
+                for (final File file : list) {
+                    names.putIfAbsent(file.getName().toUpperCase(Locale.ROOT), file);
+                }
+            }
+        }
+    }
+
+    /**
+     * A cached file.
+     */
+    private static final class Entry {
+
+        /**
+         * The file size.
+         */
+        private final long size;
+
+        /**
+         * The file modification time.
+         */
+        private final long modified;
+
+        /**
+         * The time before the file was read.
+         */
+        private final long read;
+
+        /**
+         * The file bytes.
+         */
+        private final byte[] bytes;
+
+        /**
+         * The directory monitor when the file was read (can be <code>null</code>).
+         */
+        private final ChangeMonitor monitor;
+
+        /**
+         * The change sequence before the file was read.
+         */
+        private final long sequence;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param size     the file size.
+         * @param modified the file modification time.
+         * @param read     the time before the file was read.
+         * @param bytes    the file bytes.
+         * @param monitor  the directory monitor when the file was read (can be <code>null</code>).
+         * @param sequence the change sequence before the file was read.
+         */
+        private Entry(final long size, final long modified, final long read, final byte[] bytes,
+                      final ChangeMonitor monitor, final long sequence) {
+            this.size = size;
+            this.modified = modified;
+            this.read = read;
+            this.bytes = bytes;
+            this.monitor = monitor;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.data;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.data.filefilters.SQLFilter;
+import com.googlecode.paradox.data.filefilters.TableFilter;
+import com.googlecode.paradox.metadata.paradox.ParadoxTable;
+import com.googlecode.paradox.utils.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background warm-up of a schema directory.
+ * <p>
+ * Reads the table headers, primary keys, indexes and view definitions into the {@link CatalogCache} and the first
+ * data blocks of the configured tables, so the operating system file cache holds them before the first query. The
+ * warm-up runs once per schema directory using at most the configured thread count, in a pool shared by all schemas
+ * with at most {@link #MAXIMUM_THREADS} threads. Queries never wait for it: a file not reached yet is read by the
+ * query itself.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public final class CatalogWarmUp {
+
+    /**
+     * Default warm-up thread count per schema.
+     */
+    public static final int DEFAULT_THREADS = 2;
+
+    /**
+     * Maximum warm-up thread count of all schemas.
+     */
+    public static final int MAXIMUM_THREADS = 4;
+
+    /**
+     * Data blocks read from each configured table.
+     */
+    public static final int PREFETCH_BLOCKS = 16;
+
+    /**
+     * The logger instance for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(CatalogWarmUp.class.getName());
+
+    /**
+     * The warm-ups started, by schema directory.
+     */
+    private static final Map<File, CompletableFuture<Void>> RUNS = new ConcurrentHashMap<>();
+
+    /**
+     * The schema directory.
+     */
+    private final File directory;
+
+    /**
+     * The connection information.
+     */
+    private final ConnectionInfo connectionInfo;
+
+    /**
+     * The pending tasks.
+     */
+    private final Queue<Callable<?>> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory      the schema directory.
+     * @param connectionInfo the connection information.
+     */
+    private CatalogWarmUp(final File directory, final ConnectionInfo connectionInfo) {
+        this.directory = directory;
+        this.connectionInfo = connectionInfo;
+    }
+
+    /**
+     * Starts the warm-up of a schema directory, if not started yet.
+     * <p>
+     * The warm-up warnings are added to the connection information, so it must not be the information of an open
+     * connection.
+     *
+     * @param directory      the schema directory.
+     * @param connectionInfo the connection information used only by the warm-up.
+     * @return the warm-up completion.
+     */
+    public static CompletableFuture<Void> start(final File directory, final ConnectionInfo connectionInfo) {
+        return RUNS.computeIfAbsent(directory.getAbsoluteFile(),
+                (File dir) -> new CatalogWarmUp(dir, connectionInfo).run());
+    }
+
+    /**
+     * Forgets the warm-ups started, so the next connection warms up the schemas again.
+     */
+    public static void clearAll() {
+        RUNS.clear();
+    }
+
+    /**
+     * Lists the schema files and starts the workers, outside the caller thread.
+     *
+     * @return the warm-up completion.
+     */
+    private CompletableFuture<Void> run() {
+        return CompletableFuture.runAsync(this::queue, Holder.EXECUTOR).thenCompose((Void ignored) -> {
+            final int workers = Math.min(connectionInfo.getWarmUpThreads(), tasks.size());
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+            for (int i = 0; i < workers; i++) {
+                futures[i] = CompletableFuture.runAsync(this::work, Holder.EXECUTOR);
+            }
+
+            return CompletableFuture.allOf(futures);
+        });
+    }
+
+    /**
+     * Queues the files to read.
+     */
+    private void queue() {
+        final Set<String> hotTables = new HashSet<>();
+        for (final String name : connectionInfo.getWarmUpTables().split(",")) {
+            if (!name.trim().isEmpty()) {
+                hotTables.add(name.trim().toUpperCase(connectionInfo.getLocale()));
+            }
+        }
+
+        final File[] tableFiles = directory.listFiles(new TableFilter(connectionInfo.getLocale()));
+        if (tableFiles != null) {
+            // Configured tables first, so they are ready sooner.
+            Arrays.sort(tableFiles, Comparator.comparing((File file) -> !hotTables.contains(
+                    Utils.removeSuffix(file.getName()).toUpperCase(connectionInfo.getLocale()))));
+            for (final File file : tableFiles) {
+                final boolean prefetch = hotTables.contains(
+                        Utils.removeSuffix(file.getName()).toUpperCase(connectionInfo.getLocale()));
+                tasks.add(() -> loadTable(file, prefetch));
+            }
+        }
+
+        final File[] viewFiles = directory.listFiles(new SQLFilter(connectionInfo.getLocale(), null));
+        if (viewFiles != null) {
+            final CatalogCache cache = CatalogCache.getInstance(directory, connectionInfo);
+            for (final File file : viewFiles) {
+                tasks.add(() -> cache.readAll(file));
+            }
+        }
+    }
+
+    /**
+     * Runs the pending tasks until the queue is empty.
+     */
+    @SuppressWarnings("java:S2221")
+    private void work() {
+        Callable<?> task = tasks.poll();
+        while (task != null) {
+            try {
+                task.call();
+            } catch (final Exception e) {
+                // The queries report the failure when reading the file.
+                LOGGER.log(Level.FINEST, e.getMessage(), e);
+            }
+
+            task = tasks.poll();
+        }
+    }
+
+    /**
+     * Loads the table header and indexes.
+     *
+     * @param file     the table file.
+     * @param prefetch <code>true</code> to also read the first data blocks.
+     * @return the table.
+     * @throws SQLException in case of failures.
+     * @throws IOException  in case of I/O errors.
+     */
+    private ParadoxTable loadTable(final File file, final boolean prefetch) throws SQLException, IOException {
+        final ParadoxTable table = TableData.loadTable(file, connectionInfo);
+        if (prefetch) {
+            prefetch(table);
+        }
+
+        return table;
+    }
+
+    /**
+     * Reads the first data blocks of a table, in file order.
+     *
+     * @param table the table to read.
+     * @throws IOException in case of I/O errors.
+     */
+    private static void prefetch(final ParadoxTable table) throws IOException {
+        final int blockSize = table.getBlockSizeBytes();
+        final long blocks = Math.min(table.getUsedBlocks(), PREFETCH_BLOCKS);
+        final long end = table.getHeaderSize() + blocks * blockSize;
+        try (final FileChannel channel = FileChannel.open(table.getFile().toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+            long position = table.getHeaderSize();
+            while (position < end) {
+                buffer.clear();
+                final int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+
+                position += read;
+            }
+        }
+    }
+
+    /**
+     * Lazy creates the warm-up executor.
+     */
+    private static final class Holder {
+
+        /**
+         * The warm-up executor, shared by all schemas. Idle threads are released.
+         */
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        /**
+         * Utility class, not for use.
+         */
+        private Holder() {
+            // Not used.
+        }
+
+        /**
+         * Creates the warm-up executor, with at most {@link #MAXIMUM_THREADS} low priority daemon threads. Tasks
+         * beyond that wait in queue.
+         *
+         * @return the warm-up executor.
+         */
+        private static ExecutorService createExecutor() {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAXIMUM_THREADS, MAXIMUM_THREADS, 30L,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (Runnable runnable) -> {
+                final Thread thread = new Thread(runnable, "paradox-warm-up");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Schema directory change monitor.
+ * <p>
+ * Publishes the changes of table, memo, index and view files to the registered listeners, using the file system
+ * {@link WatchService} or polling the directory (for network shares, where file system events are not reported).
+ * Changes are detected at each interval, so the stale reads are bounded by the monitor interval.
+ * <p>
+ * While a directory is monitored, the caches can check for changes by sequence number, without reading the file
+ * state on every query.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+public final class ChangeMonitor {
+
+    /**
+     * Default monitor interval in milliseconds.
+     */
+    public static final long DEFAULT_INTERVAL = 1000L;
+
+    /**
+     * The logger instance for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ChangeMonitor.class.getName());
+
+    /**
+     * The monitored files: tables, memos, primary and secondary indexes, and views.
+     */
+    private static final Pattern MONITORED_FILES = Pattern.compile("(?i).+\\.(db|mb|px|sql|[xy][0-9g][0-9a-f])");
+
+    /**
+     * The monitors by schema directory.
+     */
+    private static final Map<File, ChangeMonitor> MONITORS = new ConcurrentHashMap<>();
+
+    /**
+     * The change listeners.
+     */
+    private static final List<Consumer<File>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Change sequence, shared by all directories.
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * The monitor task scheduler.
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            (Runnable runnable) -> {
+                final Thread thread = new Thread(runnable, "paradox-change-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * The monitored directory.
+     */
+    private final File directory;
+
+    /**
+     * The file system watch service (<code>null</code> if polling).
+     */
+    private final WatchService watchService;
+
+    /**
+     * The sequence of the last change by file name.
+     */
+    private final Map<String, Long> changes = new ConcurrentHashMap<>();
+
+    /**
+     * The file state in last poll, by file name.
+     */
+    private Map<String, FileState> polled;
+
+    /**
+     * The sequence of the last change of unknown files.
+     */
+    private volatile long directoryChange;
+
+    /**
+     * The monitor task.
+     */
+    private volatile ScheduledFuture<?> task;
+
+    /**
+     * Monitor modes.
+     */
+    public enum Mode {
+        /**
+         * No monitor.
+         */
+        NONE,
+
+        /**
+         * File system events.
+         */
+        WATCH,
+
+        /**
+         * Directory polling.
+         */
+        POLL
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory    the directory to monitor.
+     * @param watchService the file system watch service (<code>null</code> if polling).
+     */
+    private ChangeMonitor(final File directory, final WatchService watchService) {
+        this.directory = directory;
+        this.watchService = watchService;
+        if (watchService == null) {
+            this.polled = listFiles();
+        }
+    }
+
+    /**
+     * Starts to monitor a directory, if not monitored already.
+     *
+     * @param directory the directory to monitor.
+     * @param mode      the monitor mode.
+     * @param interval  the monitor interval in milliseconds.
+     */
+    public static void start(final File directory, final Mode mode, final long interval) {
+        if (mode == null || mode == Mode.NONE) {
+            return;
+        }
+
+        MONITORS.computeIfAbsent(directory.getAbsoluteFile(), (File dir) -> {
+            final ChangeMonitor monitor = create(dir, mode);
+            monitor.task = SCHEDULER.scheduleWithFixedDelay(monitor::check, interval, Math.max(1L, interval),
+                    TimeUnit.MILLISECONDS);
+            return monitor;
+        });
+    }
+
+    /**
+     * Creates a directory monitor, polling if the file system events are not available.
+     *
+     * @param directory the directory to monitor.
+     * @param mode      the monitor mode.
+     * @return the new monitor.
+     */
+    private static ChangeMonitor create(final File directory, final Mode mode) {
+        if (mode == Mode.WATCH) {
+            try {
+                final WatchService service = directory.toPath().getFileSystem().newWatchService();
+                directory.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                return new ChangeMonitor(directory, service);
+            } catch (final IOException | UnsupportedOperationException e) {
+                LOGGER.log(Level.FINE, "File system events not available, polling " + directory, e);
+            }
+        }
+
+        return new ChangeMonitor(directory, null);
+    }
+
+    /**
+     * Stops all monitors.
+     */
+    public static void stopAll() {
+        for (final ChangeMonitor monitor : MONITORS.values()) {
+            monitor.stop();
+        }
+    }
+
+    /**
+     * Gets the active monitor of a directory.
+     *
+     * @param directory the directory.
+     * @return the active monitor or <code>null</code> if the directory is not monitored.
+     */
+    public static ChangeMonitor getMonitor(final File directory) {
+        if (directory == null || MONITORS.isEmpty()) {
+            return null;
+        }
+
+        return MONITORS.get(directory.getAbsoluteFile());
+    }
+
+    /**
+     * Registers a change listener. The listener receives the changed file or the directory if the changed files are
+     * unknown.
+     *
+     * @param listener the listener to register.
+     */
+    public static void addListener(final Consumer<File> listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a change listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public static void removeListener(final Consumer<File> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Gets the current change sequence. Changes published after this call have greater sequence numbers.
+     *
+     * @return the current change sequence.
+     */
+    public static long sequence() {
+        return SEQUENCE.get();
+    }
+
+    /**
+     * Check if this monitor is running.
+     *
+     * @return <code>true</code> if this monitor is running.
+     */
+    public boolean isActive() {
+        return task != null;
+    }
+
+    /**
+     * Check if a file has changed after a sequence number.
+     *
+     * @param name     the file name.
+     * @param sequence the sequence number.
+     * @return <code>true</code> if the file has changed.
+     */
+    public boolean isChanged(final String name, final long sequence) {
+        return directoryChange > sequence || changes.getOrDefault(name, 0L) > sequence;
+    }
+
+    /**
+     * Stops this monitor. The caches read the file state again.
+     */
+    private void stop() {
+        MONITORS.remove(directory, this);
+        final ScheduledFuture<?> current = task;
+        task = null;
+        if (current != null) {
+            current.cancel(false);
+        }
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (final IOException e) {
+                LOGGER.log(Level.FINEST, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Checks for changes.
+     */
+    private void check() {
+        try {
+            if (watchService != null) {
+                checkEvents();
+            } else {
+                checkFiles();
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.log(Level.WARNING, e.getMessage(), e);
+            stop();
+        }
+    }
+
+    /**
+     * Publishes the pending file system events.
+     */
+    private void checkEvents() {
+        WatchKey key = watchService.poll();
+        while (key != null) {
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    publish(directory);
+                } else {
+                    final String name = event.context().toString();
+                    if (MONITORED_FILES.matcher(name).matches()) {
+                        publish(new File(directory, name));
+                    }
+                }
+            }
+
+            if (!key.reset()) {
+                // Directory removed.
+                publish(directory);
+                stop();
+                return;
+            }
+
+            key = watchService.poll();
+        }
+    }
+
+    /**
+     * Publishes the files changed since last poll.
+     */
+    private void checkFiles() {
+        final Map<String, FileState> current = listFiles();
+        for (final Map.Entry<String, FileState> entry : current.entrySet()) {
+            if (!entry.getValue().equals(polled.remove(entry.getKey()))) {
+                publish(new File(directory, entry.getKey()));
+            }
+        }
+
+        // Removed files.
+        for (final String name : polled.keySet()) {
+            publish(new File(directory, name));
+        }
+
+        polled = current;
+    }
+
+    /**
+     * Gets the state of the monitored files.
+     *
+     * @return the file state by name.
+     */
+    private Map<String, FileState> listFiles() {
+        final Map<String, FileState> states = new HashMap<>();
+        final File[] files = directory.listFiles(file -> MONITORED_FILES.matcher(file.getName()).matches());
+        if (files != null) {
+            for (final File file : files) {
+                states.put(file.getName(), new FileState(file.length(), file.lastModified()));
+            }
+        }
+
+        return states;
+    }
+
+    /**
+     * Publishes a change.
+     *
+     * @param file the changed file or the directory if the changed files are unknown.
+     */
+    private void publish(final File file) {
+        final long sequence = SEQUENCE.incrementAndGet();
+        if (file.equals(directory)) {
+            directoryChange = sequence;
+        } else {
+            changes.put(file.getName(), sequence);
+        }
+
+        for (final Consumer<File> listener : LISTENERS) {
+            try {
+                listener.accept(file);
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.WARNING, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * The file state in a poll.
+     */
+    private static final class FileState {
+
+        /**
+         * The file size.
+         */
+        private final long size;
+
+        /**
+         * The file modification time.
+         */
+        private final long modified;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param size     the file size.
+         * @param modified the file modification time.
+         */
+        private FileState(final long size, final long modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final FileState state = (FileState) o;
+            return size == state.size && modified == state.modified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(modified);
+        }
+    }
+}
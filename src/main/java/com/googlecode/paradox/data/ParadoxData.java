@@ -19,13 +19,10 @@ import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.Constants;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.Buffer;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.sql.SQLException;
 import java.util.HashMap;
@@ -34,7 +31,7 @@ import java.util.Map;
 /**
  * Handles the paradox files (structure).
  *
- * @version 1.3
+ * @version 1.4
  * @since 1.4.0
  */
 @SuppressWarnings({"i18n-java:V1008", "java:S109", "i18n-java:V1004"})
@@ -140,7 +137,7 @@ public class ParadoxData {
     }
 
     /**
-     * Gets the header from a file.
+     * Gets the header from a file, using the directory catalog cache.
      *
      * @param file           the {@link File} to read.
      * @param connectionInfo the connection information.
@@ -150,12 +147,10 @@ public class ParadoxData {
      */
     protected static <T extends ParadoxDataFile> T loadHeader(final File file, final ConnectionInfo connectionInfo)
             throws SQLException {
-        final ByteBuffer buffer = ByteBuffer.allocate(Constants.MAX_BUFFER_SIZE);
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
-
-        try (FileInputStream fs = new FileInputStream(file); FileChannel channel = fs.getChannel()) {
-            channel.read(buffer);
-            ((Buffer) buffer).flip();
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(CatalogCache.getInstance(file.getParentFile(), connectionInfo)
+                    .readHeader(file));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
 
             int recordSize = buffer.getShort() & 0xFFFF;
             int headerSize = buffer.getShort() & 0xFFFF;
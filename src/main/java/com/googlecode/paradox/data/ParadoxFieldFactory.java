@@ -15,6 +15,7 @@ import com.googlecode.paradox.exceptions.DataError;
 import com.googlecode.paradox.exceptions.ParadoxDataException;
 import com.googlecode.paradox.metadata.Field;
 import com.googlecode.paradox.metadata.paradox.ParadoxTable;
+import com.googlecode.paradox.planner.context.Context;
 
 import java.nio.ByteBuffer;
 import java.sql.SQLException;
@@ -22,7 +23,7 @@ import java.sql.SQLException;
 /**
  * Factory for Paradox field parsers.
  *
- * @version 1.3
+ * @version 1.4
  * @since 1.3
  */
 public final class ParadoxFieldFactory {
@@ -64,8 +65,27 @@ public final class ParadoxFieldFactory {
      */
     public static Object parse(final ParadoxTable table, final ByteBuffer buffer, final Field field)
             throws SQLException {
+        return parse(table, buffer, field, null);
+    }
+
+    /**
+     * Parses the filter, checking the execution cancel state before reading LOB files.
+     *
+     * @param table   the  table.
+     * @param buffer  the buffer to read of.
+     * @param field   the  field.
+     * @param context the execution context (can be <code>null</code>).
+     * @return the parsed value.
+     * @throws SQLException in case of parse errors or execution cancelled.
+     */
+    public static Object parse(final ParadoxTable table, final ByteBuffer buffer, final Field field,
+                               final Context context) throws SQLException {
         for (final FieldParser parser : ALL_PARSES) {
             if (parser.match(field.getType())) {
+                if (context != null && parser instanceof AbstractLobField) {
+                    context.checkCancelState();
+                }
+
                 return parser.parse(table, buffer, field);
             }
         }
@@ -13,10 +13,12 @@ package com.googlecode.paradox.data;
 import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.data.filefilters.TableFilter;
 import com.googlecode.paradox.exceptions.DataError;
+import com.googlecode.paradox.exceptions.InternalException;
 import com.googlecode.paradox.exceptions.ParadoxDataException;
 import com.googlecode.paradox.metadata.Field;
 import com.googlecode.paradox.metadata.Table;
 import com.googlecode.paradox.metadata.paradox.ParadoxTable;
+import com.googlecode.paradox.planner.context.Context;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -26,15 +28,25 @@ import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for loading table files.
  *
- * @version 1.10
+ * @version 1.16
  * @since 1.0
  */
 public final class TableData extends ParadoxData {
 
+    /**
+     * Maximum number of table headers loaded at the same time. Header loading is bound by the file access latency
+     * (network shares), not by the CPU.
+     */
+    private static final int LOADER_THREADS = 8;
+
     /**
      * Utility class.
      */
@@ -44,6 +56,8 @@ public final class TableData extends ParadoxData {
 
     /**
      * Gets all tables within a pattern.
+     * <p>
+     * The table headers and indexes are loaded concurrently, keeping the tables sorted by file name.
      *
      * @param schema         the schema directory.
      * @param pattern        the pattern.
@@ -55,23 +69,88 @@ public final class TableData extends ParadoxData {
         final List<Table> tables = new ArrayList<>();
         final File[] fileList = schema.listFiles(new TableFilter(connectionInfo.getLocale(), pattern));
 
-        if (fileList != null) {
-            Arrays.sort(fileList);
-            for (final File file : fileList) {
+        if (fileList == null) {
+            return tables;
+        }
+
+        Arrays.sort(fileList);
+        if (fileList.length == 1) {
+            try {
+                tables.add(loadTable(fileList[0], connectionInfo));
+            } catch (final SQLException e) {
+                connectionInfo.addWarning(e);
+            }
+
+            return tables;
+        }
+
+        final List<CompletableFuture<ParadoxTable>> futures = new ArrayList<>(fileList.length);
+        for (final File file : fileList) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
                 try {
-                    final ParadoxTable table = loadHeader(file, connectionInfo);
-                    Arrays.stream(table.getFields()).forEach(field -> field.setTable(table));
-                    table.loadIndexes();
-                    tables.add(table);
+                    return loadTable(file, connectionInfo);
                 } catch (final SQLException e) {
-                    connectionInfo.addWarning(e);
+                    throw new CompletionException(e);
                 }
+            }, Loader.EXECUTOR));
+        }
+
+        for (final CompletableFuture<ParadoxTable> future : futures) {
+            try {
+                tables.add(future.join());
+            } catch (final CompletionException e) {
+                if (!(e.getCause() instanceof SQLException)) {
+                    throw e;
+                }
+
+                connectionInfo.addWarning((SQLException) e.getCause());
             }
         }
 
         return tables;
     }
 
+    /**
+     * Finds a table by name, ignoring case, reading only the table header and indexes.
+     *
+     * @param schema         the schema directory.
+     * @param tableName      the table name.
+     * @param connectionInfo the connection information.
+     * @return the table or <code>null</code> if not found.
+     */
+    public static ParadoxTable findTable(final File schema, final String tableName,
+                                         final ConnectionInfo connectionInfo) {
+        final File[] fileList = schema.listFiles(file -> file.getName().equalsIgnoreCase(tableName + ".db")
+                && file.isFile());
+
+        if (fileList != null && fileList.length > 0) {
+            Arrays.sort(fileList);
+            try {
+                return loadTable(fileList[0], connectionInfo);
+            } catch (final SQLException e) {
+                connectionInfo.addWarning(e);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Loads the table header and indexes.
+     *
+     * @param file           the table file.
+     * @param connectionInfo the connection information.
+     * @return the table.
+     * @throws SQLException in case of failures.
+     */
+    static ParadoxTable loadTable(final File file, final ConnectionInfo connectionInfo)
+            throws SQLException {
+        final ParadoxTable table = loadHeader(file, connectionInfo);
+        Arrays.stream(table.getFields()).forEach(field -> field.setTable(table));
+        table.loadIndexes();
+        return table;
+    }
+
     /**
      * Load the table data from file.
      *
@@ -81,70 +160,124 @@ public final class TableData extends ParadoxData {
      * @throws SQLException in case of failures.
      */
     public static List<Object[]> loadData(final ParadoxTable table, final Field[] fields) throws SQLException {
+        return loadData(table, fields, null);
+    }
 
-        final int blockSize = table.getBlockSizeBytes();
-        final int recordSize = table.getRecordSize();
-        final int headerSize = table.getHeaderSize();
-
-        try (final FileInputStream fs = new FileInputStream(table.getFile());
-             final FileChannel channel = fs.getChannel()) {
-            if (table.getUsedBlocks() == 0) {
-                return Collections.emptyList();
-            }
-
+    /**
+     * Load the table data from file, checking the execution cancel state at each block.
+     *
+     * @param table   the table to read.
+     * @param fields  the fields to read.
+     * @param context the execution context (can be <code>null</code>).
+     * @return the row values.
+     * @throws SQLException in case of failures or execution cancelled.
+     */
+    public static List<Object[]> loadData(final ParadoxTable table, final Field[] fields, final Context context)
+            throws SQLException {
+        try (final Stream<Object[]> stream = streamData(table, fields, context)) {
             final List<Object[]> ret = new ArrayList<>(table.getRowCount());
-            long nextBlock = table.getFirstBlock();
-
-            final ByteBuffer buffer = ByteBuffer.allocate(blockSize);
-            do {
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-                long position = headerSize + ((nextBlock - 1) * blockSize);
-                channel.position(position);
+            stream.forEach(ret::add);
+            return ret;
+        } catch (@SuppressWarnings("java:S1166") final InternalException e) {
+            throw e.getCause();
+        }
+    }
 
-                buffer.clear();
-                channel.read(buffer);
-                checkDBEncryption(buffer, table, blockSize, nextBlock);
-                buffer.flip();
+    /**
+     * Creates a stream that reads the table data from file one block at a time.
+     * <p>
+     * The stream must be closed to release the table file.
+     *
+     * @param table  the table to read.
+     * @param fields the fields to read.
+     * @return the row values stream.
+     * @throws SQLException in case of failures.
+     */
+    public static Stream<Object[]> streamData(final ParadoxTable table, final Field[] fields) throws SQLException {
+        return streamData(table, fields, null);
+    }
 
-                nextBlock = buffer.getShort() & 0xFFFF;
+    /**
+     * Creates a stream that reads the table data from file one block at a time, checking the execution cancel state
+     * at each block.
+     * <p>
+     * The stream must be closed to release the table file.
+     *
+     * @param table   the table to read.
+     * @param fields  the fields to read.
+     * @param context the execution context (can be <code>null</code>).
+     * @return the row values stream.
+     * @throws SQLException in case of failures.
+     */
+    public static Stream<Object[]> streamData(final ParadoxTable table, final Field[] fields, final Context context)
+            throws SQLException {
+        final BlockSpliterator spliterator = new BlockSpliterator(table, fields, context, table.getFirstBlock());
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
 
-                // The block number.
-                buffer.getShort();
+    /**
+     * Reads only the first and the last row of the table file. The rows of a table with primary key are stored in key
+     * order, so these are the rows with the lowest and the highest key.
+     *
+     * @param table  the table to read.
+     * @param fields the fields to read.
+     * @return the first and the last row or an empty list if the table is empty.
+     * @throws SQLException in case of failures.
+     */
+    public static List<Object[]> loadEndpoints(final ParadoxTable table, final Field[] fields) throws SQLException {
+        if (table.getUsedBlocks() == 0 || table.getRowCount() == 0) {
+            return Collections.emptyList();
+        }
 
-                final int addDataSize = buffer.getShort();
-                final int rowsInBlock = (addDataSize / recordSize) + 1;
+        final List<Object[]> ret = new ArrayList<>(2);
+        try {
+            BlockSpliterator spliterator = new BlockSpliterator(table, fields, null, table.getFirstBlock());
+            try {
+                spliterator.tryAdvance(ret::add);
+            } finally {
+                spliterator.close();
+            }
 
-                buffer.order(ByteOrder.BIG_ENDIAN);
+            // The last block is the end of the block list.
+            final Object[][] last = new Object[1][];
+            spliterator = new BlockSpliterator(table, fields, null, table.getLastBlock());
+            try {
+                spliterator.forEachRemaining((Object[] row) -> last[0] = row);
+            } finally {
+                spliterator.close();
+            }
 
-                for (int loop = 0; loop < rowsInBlock; loop++) {
-                    ret.add(TableData.readRow(table, fields, buffer));
-                }
-            } while (nextBlock != 0);
+            ret.add(last[0]);
+        } catch (@SuppressWarnings("java:S1166") final InternalException e) {
+            throw e.getCause();
+        }
 
-            return ret;
-        } catch (final IOException e) {
-            throw new ParadoxDataException(DataError.ERROR_LOADING_DATA, e);
+        if (ret.size() != 2 || ret.get(1) == null) {
+            return Collections.emptyList();
         }
+
+        return ret;
     }
 
     /**
      * Read a entire row.
      *
-     * @param table  the table to read of.
-     * @param fields the fields to read.
-     * @param buffer the buffer to read of.
+     * @param table   the table to read of.
+     * @param fields  the fields to read.
+     * @param buffer  the buffer to read of.
+     * @param context the execution context (can be <code>null</code>).
      * @return the row.
      * @throws SQLException in case of parse errors.
      */
-    private static Object[] readRow(final ParadoxTable table, final Field[] fields, final ByteBuffer buffer)
-            throws SQLException {
+    private static Object[] readRow(final ParadoxTable table, final Field[] fields, final ByteBuffer buffer,
+                                    final Context context) throws SQLException {
         final Object[] row = new Object[fields.length];
 
         for (final Field field : table.getFields()) {
             // Field filter
             final int index = search(fields, field);
             if (index != -1) {
-                row[index] = ParadoxFieldFactory.parse(table, buffer, field);
+                row[index] = ParadoxFieldFactory.parse(table, buffer, field, context);
             } else {
                 int size = field.getRealSize();
                 buffer.position(buffer.position() + size);
@@ -163,4 +296,171 @@ public final class TableData extends ParadoxData {
 
         return -1;
     }
+
+    /**
+     * Reads the table rows one block at a time.
+     */
+    private static final class BlockSpliterator extends Spliterators.AbstractSpliterator<Object[]> {
+
+        /**
+         * The table to read.
+         */
+        private final ParadoxTable table;
+
+        /**
+         * The fields to read.
+         */
+        private final Field[] fields;
+
+        /**
+         * The execution context (can be <code>null</code>).
+         */
+        private final Context context;
+
+        /**
+         * The table file.
+         */
+        private final FileInputStream fs;
+
+        /**
+         * The block buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The next block to read (zero for none).
+         */
+        private long nextBlock;
+
+        /**
+         * Rows not read in current block.
+         */
+        private int rowsInBlock;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param table      the table to read.
+         * @param fields     the fields to read.
+         * @param context    the execution context (can be <code>null</code>).
+         * @param firstBlock the first block to read.
+         * @throws SQLException in case of failures.
+         */
+        private BlockSpliterator(final ParadoxTable table, final Field[] fields, final Context context,
+                                 final int firstBlock) throws SQLException {
+            super(table.getRowCount(), Spliterator.ORDERED | Spliterator.NONNULL);
+            this.table = table;
+            this.fields = fields;
+            this.context = context;
+            this.buffer = ByteBuffer.allocate(table.getBlockSizeBytes());
+
+            try {
+                this.fs = new FileInputStream(table.getFile());
+            } catch (final IOException e) {
+                throw new ParadoxDataException(DataError.ERROR_LOADING_DATA, e);
+            }
+
+            if (table.getUsedBlocks() != 0) {
+                this.nextBlock = firstBlock;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Object[]> action) {
+            try {
+                while (rowsInBlock == 0) {
+                    if (nextBlock == 0) {
+                        return false;
+                    } else if (context != null) {
+                        context.checkCancelState();
+                    }
+
+                    readBlock();
+                }
+
+                rowsInBlock--;
+                action.accept(TableData.readRow(table, fields, buffer, context));
+                return true;
+            } catch (final IOException e) {
+                throw new InternalException(new ParadoxDataException(DataError.ERROR_LOADING_DATA, e));
+            } catch (final SQLException e) {
+                throw new InternalException(e);
+            }
+        }
+
+        /**
+         * Reads the next block.
+         *
+         * @throws IOException in case of I/O errors.
+         */
+        private void readBlock() throws IOException {
+            final int blockSize = table.getBlockSizeBytes();
+            final FileChannel channel = fs.getChannel();
+
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            long position = table.getHeaderSize() + ((nextBlock - 1) * blockSize);
+            channel.position(position);
+
+            buffer.clear();
+            channel.read(buffer);
+            checkDBEncryption(buffer, table, blockSize, nextBlock);
+            buffer.flip();
+
+            nextBlock = buffer.getShort() & 0xFFFF;
+
+            // The block number.
+            buffer.getShort();
+
+            final int addDataSize = buffer.getShort();
+            rowsInBlock = (addDataSize / table.getRecordSize()) + 1;
+
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+
+        /**
+         * Close the table file.
+         */
+        @SuppressWarnings("java:S1166")
+        private void close() {
+            try {
+                fs.close();
+            } catch (final IOException e) {
+                // Nothing to do with a read only file.
+            }
+        }
+    }
+
+    /**
+     * Lazy creates the header loader executor.
+     */
+    private static final class Loader {
+
+        /**
+         * The header loader executor. Idle threads are released.
+         */
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        /**
+         * Utility class, not for use.
+         */
+        private Loader() {
+            // Not used.
+        }
+
+        /**
+         * Creates the header loader executor.
+         *
+         * @return the header loader executor.
+         */
+        private static ExecutorService createExecutor() {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(LOADER_THREADS, LOADER_THREADS, 30L,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (Runnable runnable) -> {
+                final Thread thread = new Thread(runnable, "paradox-metadata-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
 }
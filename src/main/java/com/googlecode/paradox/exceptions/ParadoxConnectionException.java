@@ -15,7 +15,7 @@ import java.sql.SQLNonTransientException;
 /**
  * Exception for connection problems.
  *
- * @version 1.2
+ * @version 1.3
  * @since 1.6.0
  */
 public class ParadoxConnectionException extends SQLNonTransientException {
@@ -56,7 +56,12 @@ public class ParadoxConnectionException extends SQLNonTransientException {
         /**
          * Not connected.
          */
-        NOT_CONNECTED("003", "Not connected.");
+        NOT_CONNECTED("003", "Not connected."),
+
+        /**
+         * Invalid connection URL.
+         */
+        INVALID_URL("004", "Invalid connection URL.");
 
         /**
          * SQL state code.
@@ -17,7 +17,7 @@ import java.sql.SQLDataException;
 /**
  * Generic exception.
  *
- * @version 1.2
+ * @version 1.3
  * @since 1.6.0
  */
 @SuppressWarnings("java:S110")
@@ -142,7 +142,12 @@ public class ParadoxException extends SQLDataException {
         /**
          * Operation cancelled by the user.
          */
-        OPERATION_CANCELLED("016", "Operation cancelled by the user");
+        OPERATION_CANCELLED("016", "Operation cancelled by the user"),
+
+        /**
+         * Invalid operation in forward only result set.
+         */
+        FORWARD_ONLY("017", "The ResultSet is forward only");
 
         /**
          * SQL state code.
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.exceptions;
+
+import java.sql.SQLTimeoutException;
+
+/**
+ * Exception for statements cancelled by query timeout.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+@SuppressWarnings("java:S110")
+public class ParadoxTimeoutException extends SQLTimeoutException {
+
+    /**
+     * SQL state for timeout expired.
+     */
+    private static final String SQL_STATE = "HYT00";
+
+    /**
+     * Creates a new instance.
+     *
+     * @param seconds the query timeout in seconds.
+     */
+    public ParadoxTimeoutException(final int seconds) {
+        super(ExceptionUtils.message("Query timeout of %s seconds expired", new Object[]{seconds}), SQL_STATE);
+    }
+}
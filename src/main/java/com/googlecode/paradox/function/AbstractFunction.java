@@ -23,12 +23,11 @@ import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Stream;
 
 /**
  * SQL function interface.
  *
- * @version 1.6
+ * @version 1.9
  * @since 1.6.0
  */
 public abstract class AbstractFunction {
@@ -70,10 +69,38 @@ public abstract class AbstractFunction {
      * @return the returned value type.
      */
     public ParadoxType getFieldType() {
-        return Stream.of(getColumns())
-                .filter(c -> c.getColumnType() == RESULT)
-                .map(Column::getType)
-                .findFirst().orElse(ParadoxType.NULL);
+        for (final Column column : getColumns()) {
+            if (column.getColumnType() == RESULT) {
+                return column.getType();
+            }
+        }
+
+        return ParadoxType.NULL;
+    }
+
+    /**
+     * The returned value type for one evaluation. Functions with the returned type depending on the parameter values
+     * must override it.
+     *
+     * @param values the parameter values.
+     * @param types  the parameter types.
+     * @return the returned value type.
+     * @throws ParadoxSyntaxErrorException in case of inconsistent parameter types.
+     * @see #isDynamicType()
+     */
+    @SuppressWarnings("java:S1172")
+    public ParadoxType getFieldType(final Object[] values, final ParadoxType[] types)
+            throws ParadoxSyntaxErrorException {
+        return getFieldType();
+    }
+
+    /**
+     * Gets if the returned value type depends on the parameter values.
+     *
+     * @return <code>true</code> if the returned value type depends on the parameter values.
+     */
+    public boolean isDynamicType() {
+        return false;
     }
 
     /**
@@ -82,9 +109,14 @@ public abstract class AbstractFunction {
      * @return the function parameters count.
      */
     public int getParameterCount() {
-        return (int) Stream.of(getColumns())
-                .filter(c -> c.getColumnType() == IN)
-                .count();
+        int count = 0;
+        for (final Column column : getColumns()) {
+            if (column.getColumnType() == IN) {
+                count++;
+            }
+        }
+
+        return count;
     }
 
     /**
@@ -171,6 +203,16 @@ public abstract class AbstractFunction {
         return true;
     }
 
+    /**
+     * Gets if this function can return a different value in each call, even in the same execution with the same
+     * parameters. Non volatile functions are evaluated only once by execution when all its parameters are constants.
+     *
+     * @return <code>true</code> if this function is volatile.
+     */
+    public boolean isVolatile() {
+        return false;
+    }
+
     public String definition() {
         return null;
     }
@@ -24,7 +24,7 @@ import java.util.stream.Stream;
 /**
  * The SQL coalesce function.
  *
- * @version 1.5
+ * @version 1.6
  * @since 1.6.0
  */
 public class CoalesceFunction extends AbstractGeneralFunction {
@@ -34,8 +34,6 @@ public class CoalesceFunction extends AbstractGeneralFunction {
      */
     public static final String NAME = "COALESCE";
 
-    private ParadoxType type = ParadoxType.NULL;
-
     /**
      * Column parameter list.
      */
@@ -59,37 +57,29 @@ public class CoalesceFunction extends AbstractGeneralFunction {
 
     @Override
     public ParadoxType getFieldType() {
-        return type;
+        // Unknown until the parameter values are known.
+        return ParadoxType.NULL;
     }
 
     @Override
-    public boolean isVariableParameters() {
-        return true;
+    public ParadoxType getFieldType(final Object[] values, final ParadoxType[] types)
+            throws ParadoxSyntaxErrorException {
+        return FieldValueUtils.getSqlType(values, types);
     }
 
     @Override
-    public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
-                          final FieldNode[] fields) throws ParadoxSyntaxErrorException {
-        this.type = FieldValueUtils.getSqlType(values, types);
-        return Stream.of(values).filter(Objects::nonNull).findFirst().orElse(null);
+    public boolean isDynamicType() {
+        return true;
     }
 
     @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-
-        CoalesceFunction that = (CoalesceFunction) o;
-        return type == that.type;
+    public boolean isVariableParameters() {
+        return true;
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), type);
+    public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
+                          final FieldNode[] fields) {
+        return Stream.of(values).filter(Objects::nonNull).findFirst().orElse(null);
     }
 }
@@ -22,7 +22,7 @@ import java.util.Objects;
 /**
  * The SQL NULLIF function.
  *
- * @version 1.4
+ * @version 1.5
  * @since 1.6.0
  */
 public class NullIfFunction extends AbstractGeneralFunction {
@@ -42,8 +42,6 @@ public class NullIfFunction extends AbstractGeneralFunction {
             new Column("expression2", ParadoxType.VARCHAR, "The second value to test.", 2, true, IN)
     };
 
-    private ParadoxType type = ParadoxType.NULL;
-
     @Override
     public String getRemarks() {
         return "Returns null if both values are equal, otherwise it returns the first expression.";
@@ -56,38 +54,28 @@ public class NullIfFunction extends AbstractGeneralFunction {
 
     @Override
     public ParadoxType getFieldType() {
-        return type;
+        // Unknown until the parameter values are known.
+        return ParadoxType.NULL;
     }
 
     @Override
-    public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
-                          final FieldNode[] fields)
+    public ParadoxType getFieldType(final Object[] values, final ParadoxType[] types)
             throws ParadoxSyntaxErrorException {
-        this.type = FieldValueUtils.getSqlType(values, types);
-
-        if (Objects.equals(values[0], values[1])) {
-            return null;
-        }
-
-        return values[0];
+        return FieldValueUtils.getSqlType(values, types);
     }
 
     @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-
-        NullIfFunction that = (NullIfFunction) o;
-        return type == that.type;
+    public boolean isDynamicType() {
+        return true;
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), type);
+    public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
+                          final FieldNode[] fields) {
+        if (Objects.equals(values[0], values[1])) {
+            return null;
+        }
+
+        return values[0];
     }
 }
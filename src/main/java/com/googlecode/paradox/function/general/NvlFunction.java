@@ -17,12 +17,10 @@ import com.googlecode.paradox.planner.nodes.FieldNode;
 import com.googlecode.paradox.results.Column;
 import com.googlecode.paradox.results.ParadoxType;
 
-import java.util.Objects;
-
 /**
  * The SQL NVL function.
  *
- * @version 1.4
+ * @version 1.5
  * @since 1.6.0
  */
 public class NvlFunction extends AbstractGeneralFunction {
@@ -41,11 +39,6 @@ public class NvlFunction extends AbstractGeneralFunction {
             new Column("replacement", ParadoxType.VARCHAR, "The replacement in case of null.", 2, true, IN)
     };
 
-    /**
-     * The current type.
-     */
-    private ParadoxType type = ParadoxType.NULL;
-
     @Override
     public String getRemarks() {
         return "Return a specified value if the string is null.";
@@ -58,37 +51,28 @@ public class NvlFunction extends AbstractGeneralFunction {
 
     @Override
     public ParadoxType getFieldType() {
-        return type;
+        // Unknown until the parameter values are known.
+        return ParadoxType.NULL;
     }
 
     @Override
-    public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
-                          final FieldNode[] fields) throws ParadoxSyntaxErrorException {
-        this.type = FieldValueUtils.getSqlType(values, types);
-
-        if (values[0] != null) {
-            return values[0];
-        }
-
-        return values[1];
+    public ParadoxType getFieldType(final Object[] values, final ParadoxType[] types)
+            throws ParadoxSyntaxErrorException {
+        return FieldValueUtils.getSqlType(values, types);
     }
 
     @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-
-        NvlFunction that = (NvlFunction) o;
-        return type == that.type;
+    public boolean isDynamicType() {
+        return true;
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), type);
+    public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
+                          final FieldNode[] fields) {
+        if (values[0] != null) {
+            return values[0];
+        }
+
+        return values[1];
     }
 }
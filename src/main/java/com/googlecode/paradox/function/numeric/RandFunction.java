@@ -21,7 +21,7 @@ import java.sql.SQLException;
 /**
  * The SQL RAND function.
  *
- * @version 1.2
+ * @version 1.3
  * @since 1.6.0
  */
 public class RandFunction extends AbstractNumericFunction {
@@ -48,6 +48,16 @@ public class RandFunction extends AbstractNumericFunction {
         return COLUMNS;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return false;
+    }
+
+    @Override
+    public boolean isVolatile() {
+        return true;
+    }
+
     @Override
     public Object execute(final ConnectionInfo connectionInfo, final Object[] values, final ParadoxType[] types,
                           final FieldNode[] fields) throws SQLException {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.metadata;
+
+import com.googlecode.paradox.planner.context.Context;
+import com.googlecode.paradox.planner.context.SelectContext;
+import com.googlecode.paradox.utils.Constants;
+
+/**
+ * Schema and table name patterns pushed down to the system tables, so only the matching tables are read.
+ * <p>
+ * The patterns use the <code>LIKE</code> syntax, ignoring case. The filter only reduces the tables read: the query
+ * conditions are still evaluated for the rows returned.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public final class MetadataFilter {
+
+    /**
+     * Filter that accepts all tables.
+     */
+    public static final MetadataFilter ALL = new MetadataFilter(null, null);
+
+    /**
+     * The schema name pattern (<code>null</code> for all).
+     */
+    private final String schemaPattern;
+
+    /**
+     * The table name pattern (<code>null</code> for all).
+     */
+    private final String tablePattern;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param schemaPattern the schema name pattern (<code>null</code> for all).
+     * @param tablePattern  the table name pattern (<code>null</code> for all).
+     */
+    public MetadataFilter(final String schemaPattern, final String tablePattern) {
+        this.schemaPattern = schemaPattern;
+        this.tablePattern = tablePattern;
+    }
+
+    /**
+     * Creates a filter for exact schema and table names, escaping the pattern characters in names.
+     *
+     * @param schemaName the schema name (<code>null</code> for all).
+     * @param tableName  the table name (<code>null</code> for all).
+     * @return the filter.
+     */
+    public static MetadataFilter ofNames(final String schemaName, final String tableName) {
+        return new MetadataFilter(escape(schemaName), escape(tableName));
+    }
+
+    /**
+     * Escapes the pattern characters in a name.
+     *
+     * @param name the name to escape.
+     * @return the pattern that matches only the name.
+     */
+    private static String escape(final String name) {
+        if (name == null) {
+            return null;
+        }
+
+        final StringBuilder builder = new StringBuilder(name.length());
+        for (final char c : name.toCharArray()) {
+            if (c == '%' || c == '_' || c == Constants.ESCAPE_CHAR) {
+                builder.append(Constants.ESCAPE_CHAR);
+            }
+
+            builder.append(c);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Gets the filter of an execution.
+     *
+     * @param context the execution context.
+     * @return the execution filter or {@link #ALL} if there is no filter.
+     */
+    public static MetadataFilter of(final Context context) {
+        if (context instanceof SelectContext && ((SelectContext) context).getMetadataFilter() != null) {
+            return ((SelectContext) context).getMetadataFilter();
+        }
+
+        return ALL;
+    }
+
+    /**
+     * Gets the schema name pattern.
+     *
+     * @return the schema name pattern (<code>null</code> for all).
+     */
+    public String getSchemaPattern() {
+        return schemaPattern;
+    }
+
+    /**
+     * Gets the table name pattern.
+     *
+     * @return the table name pattern (<code>null</code> for all).
+     */
+    public String getTablePattern() {
+        return tablePattern;
+    }
+}
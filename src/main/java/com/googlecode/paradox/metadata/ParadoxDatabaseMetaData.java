@@ -36,7 +36,7 @@ import java.util.stream.Collectors;
 /**
  * Creates an database metadata.
  *
- * @version 1.10
+ * @version 1.14
  * @since 1.0
  */
 @SuppressWarnings({"java:S1192", "java:S3776", "java:S1448"})
@@ -446,7 +446,7 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
                 });
 
         final List<Object[]> values = selectPlan.execute(context);
-        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getColumns());
+        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getResultColumns(context));
     }
 
     /**
@@ -539,8 +539,10 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
                         ParadoxType.VARCHAR
                 });
 
+        context.setMetadataFilter(new MetadataFilter(schemaPattern, tableNamePattern));
+
         final List<Object[]> values = selectPlan.execute(context);
-        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getColumns());
+        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getResultColumns(context));
     }
 
     /**
@@ -593,8 +595,11 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
                         ParadoxType.BOOLEAN,
                 });
 
+        // Exact names, not patterns.
+        context.setMetadataFilter(MetadataFilter.ofNames(schemaName, tableNamePattern));
+
         final List<Object[]> values = selectPlan.execute(context);
-        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getColumns());
+        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getResultColumns(context));
     }
 
     /**
@@ -818,8 +823,11 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
                         ParadoxType.VARCHAR
                 });
 
+        // Exact names, not patterns.
+        context.setMetadataFilter(MetadataFilter.ofNames(schemaName, tableNamePattern));
+
         final List<Object[]> values = selectPlan.execute(context);
-        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getColumns());
+        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getResultColumns(context));
     }
 
     /**
@@ -853,7 +861,7 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
      */
     @Override
     public int getResultSetHoldability() {
-        return this.connection.getHoldability();
+        return this.connectionInfo.getHoldability();
     }
 
     /**
@@ -1007,7 +1015,8 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
                 "       cast(null as VARCHAR) as REF_GENERATION\n" +
                 "from information_schema.pdx_tables\n" +
                 "where (? is null or \"catalog\" = ?)\n" +
-                "    and (? is null or \"schema\" ilike ?)\n";
+                "    and (? is null or \"schema\" ilike ?)\n" +
+                "    and (? is null or name ilike ?)\n";
 
         if (types != null) {
             sql += " and upper(type_name) in (" + Arrays.stream(types)
@@ -1020,11 +1029,13 @@ public final class ParadoxDatabaseMetaData implements java.sql.DatabaseMetaData
 
         final SelectPlan selectPlan = (SelectPlan) connection.createPlan(sql);
         final SelectContext context = selectPlan.createContext(connectionInfo,
-                new Object[]{catalog, catalog, schemaPattern, schemaPattern},
-                new ParadoxType[]{ParadoxType.VARCHAR, ParadoxType.VARCHAR, ParadoxType.VARCHAR, ParadoxType.VARCHAR});
+                new Object[]{catalog, catalog, schemaPattern, schemaPattern, tableNamePattern, tableNamePattern},
+                new ParadoxType[]{ParadoxType.VARCHAR, ParadoxType.VARCHAR, ParadoxType.VARCHAR, ParadoxType.VARCHAR,
+                        ParadoxType.VARCHAR, ParadoxType.VARCHAR});
+        context.setMetadataFilter(new MetadataFilter(schemaPattern, tableNamePattern));
 
         final List<Object[]> values = selectPlan.execute(context);
-        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getColumns());
+        return new ParadoxResultSet(this.connectionInfo, null, values, selectPlan.getResultColumns(context));
     }
 
     /**
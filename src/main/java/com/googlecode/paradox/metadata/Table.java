@@ -10,16 +10,21 @@
  */
 package com.googlecode.paradox.metadata;
 
+import com.googlecode.paradox.planner.context.Context;
+
+import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * A generic table.
  *
- * @version 1.3
+ * @version 1.9
  * @since 1.6.0
  */
 public interface Table {
@@ -38,6 +43,16 @@ public interface Table {
      */
     int getRowCount();
 
+    /**
+     * Gets the row count of an execution, counting only the rows the execution can read.
+     *
+     * @param context the execution context.
+     * @return the row count.
+     */
+    default int getRowCount(final Context context) {
+        return getRowCount();
+    }
+
     /**
      * Gets the table type.
      *
@@ -86,6 +101,43 @@ public interface Table {
      */
     List<Object[]> load(final Field[] fields) throws SQLException;
 
+    /**
+     * Creates a stream over the table rows, loaded on demand if supported by the table.
+     * <p>
+     * The stream must be closed after use.
+     *
+     * @param fields the fields to load.
+     * @return the table rows filtered by {@code fields}.
+     * @throws SQLException in case of failures.
+     */
+    default Stream<Object[]> stream(final Field[] fields) throws SQLException {
+        return load(fields).stream();
+    }
+
+    /**
+     * Load the table data, checking the execution cancel state while reading.
+     *
+     * @param fields  the fields to load.
+     * @param context the execution context.
+     * @return the table data.
+     * @throws SQLException in case of failures or execution cancelled.
+     */
+    default List<Object[]> load(final Field[] fields, final Context context) throws SQLException {
+        return load(fields);
+    }
+
+    /**
+     * Creates a stream to load the table data on demand, checking the execution cancel state while reading.
+     *
+     * @param fields  the fields to load.
+     * @param context the execution context.
+     * @return the table data stream.
+     * @throws SQLException in case of failures.
+     */
+    default Stream<Object[]> stream(final Field[] fields, final Context context) throws SQLException {
+        return load(fields, context).stream();
+    }
+
     /**
      * Gets the primary key index.
      *
@@ -182,6 +234,25 @@ public interface Table {
         return Arrays.stream(getFields()).mapToInt(Field::getRealSize).sum();
     }
 
+    /**
+     * Gets the files this table reads from, used to detect data changes.
+     *
+     * @return the files this table reads from.
+     */
+    default List<File> getSourceFiles() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets if this table data depends only on its source files, so query results can be reused until the files
+     * change.
+     *
+     * @return <code>true</code> if the query results can be reused.
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
     /**
      * Gets boolean description.
      *
@@ -11,32 +11,58 @@
 package com.googlecode.paradox.metadata;
 
 import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.data.CatalogCache;
 import com.googlecode.paradox.data.filefilters.SQLFilter;
 import com.googlecode.paradox.exceptions.ParadoxNotSupportedException;
 import com.googlecode.paradox.parser.SQLParser;
+import com.googlecode.paradox.parser.nodes.AsteriskNode;
+import com.googlecode.paradox.parser.nodes.SQLNode;
+import com.googlecode.paradox.parser.nodes.SelectNode;
 import com.googlecode.paradox.planner.Planner;
+import com.googlecode.paradox.planner.ViewCache;
+import com.googlecode.paradox.planner.ViewInliner;
 import com.googlecode.paradox.planner.context.SelectContext;
+import com.googlecode.paradox.planner.nodes.FunctionNode;
 import com.googlecode.paradox.planner.nodes.PlanTableNode;
+import com.googlecode.paradox.planner.nodes.ValueNode;
 import com.googlecode.paradox.planner.plan.Plan;
 import com.googlecode.paradox.planner.plan.SelectPlan;
 import com.googlecode.paradox.results.Column;
-import com.googlecode.paradox.utils.Expressions;
+import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.Utils;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * View support.
+ * <p>
+ * Views with a <code>-- materialized</code> comment line in the definition keep their result in the
+ * {@link ParadoxConnection#getViewCache() view cache} until a source table file changes.
+ * <p>
+ * The view file is a source file of the view, so changes in the view definition invalidate the cached plans and
+ * results using it.
+ * <p>
+ * Simple views are planned together with the queries using them (see {@link ViewInliner}). The other views execute
+ * with only the columns used by the query.
  *
- * @version 1.3
+ * @version 1.13
  * @since 1.6.0
  */
 public class View implements Table {
 
+    /**
+     * The materialized view marker.
+     */
+    private static final Pattern MATERIALIZED = Pattern.compile("(?im)^\\s*--\\s*materialized\\s*$");
+
     /**
      * The connection information.
      */
@@ -57,6 +83,16 @@ public class View implements Table {
      */
     private final String schemaName;
 
+    /**
+     * The view file (can be <code>null</code>).
+     */
+    private final File file;
+
+    /**
+     * If the view result is materialized.
+     */
+    private final boolean materialized;
+
     /**
      * Select plan.
      */
@@ -67,6 +103,21 @@ public class View implements Table {
      */
     private Field[] fields;
 
+    /**
+     * Plans with only the used columns, by used column set.
+     */
+    private final Map<BitSet, Projection> projections = new ConcurrentHashMap<>();
+
+    /**
+     * Plan that only counts the view rows or <code>null</code> if the view rows must be loaded to be counted.
+     */
+    private SelectPlan countPlan;
+
+    /**
+     * If the count plan was already created.
+     */
+    private boolean countPlanned;
+
     /**
      * Creates a new instance.
      *
@@ -77,11 +128,26 @@ public class View implements Table {
      */
     public View(final ConnectionInfo connectionInfo, final String schemaName, final String name,
                 final String definition) {
+        this(connectionInfo, schemaName, name, definition, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connectionInfo the connection information.
+     * @param schemaName     the schema name.
+     * @param name           the view name.
+     * @param definition     the view definition.
+     * @param file           the view file (can be <code>null</code>).
+     */
+    public View(final ConnectionInfo connectionInfo, final String schemaName, final String name,
+                final String definition, final File file) {
         this.connectionInfo = connectionInfo;
         this.definition = definition;
         this.name = name;
         this.schemaName = schemaName;
-
+        this.file = file;
+        this.materialized = MATERIALIZED.matcher(definition).find();
     }
 
     /**
@@ -138,9 +204,82 @@ public class View implements Table {
         return schemaName;
     }
 
+    @Override
+    public boolean isCacheable() {
+        try {
+            return getSelectPlan().isCacheable();
+        } catch (final SQLException e) {
+            connectionInfo.addWarning(e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<File> getSourceFiles() {
+        final List<File> files = new ArrayList<>();
+        try {
+            files.addAll(getSelectPlan().getSourceFiles());
+        } catch (final SQLException e) {
+            connectionInfo.addWarning(e);
+        }
+
+        if (file != null) {
+            files.add(file);
+        }
+
+        return files;
+    }
+
+    /**
+     * Gets the view file.
+     *
+     * @return the view file or <code>null</code> if the view is not loaded from a file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets if the view result is materialized.
+     *
+     * @return <code>true</code> if the view result is materialized.
+     */
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Gets the materialized result, if this view is materialized and the result can be reused.
+     *
+     * @return the materialized result or <code>null</code> if the view must be executed.
+     * @throws SQLException in case of failures.
+     */
+    private ViewCache.Materialized getMaterialized() throws SQLException {
+        if (!materialized || !getSelectPlan().isCacheable()) {
+            return null;
+        }
+
+        return ParadoxConnection.getViewCache().load(definition, getSelectPlan(), getSourceFiles(), connectionInfo);
+    }
+
     @Override
     public int getRowCount() {
         try {
+            final ViewCache.Materialized result = getMaterialized();
+            if (result != null) {
+                return result.getRowCount();
+            }
+
+            final SelectPlan plan = getCountPlan();
+            if (plan != null) {
+                final List<Object[]> rows = plan.execute(plan.createContext(connectionInfo, null, null));
+                if (rows.isEmpty() || rows.get(0)[0] == null) {
+                    return 0;
+                }
+
+                return ((Number) rows.get(0)[0]).intValue();
+            }
+
             return load(new Field[0]).size();
         } catch (@SuppressWarnings("java:S1166") final SQLException e) {
             return 0;
@@ -162,17 +301,148 @@ public class View implements Table {
             }
         }
 
-        final SelectContext context = getSelectPlan().createContext(connectionInfo, null, null);
-        return getSelectPlan().execute(context).stream()
+        final ViewCache.Materialized result = getMaterialized();
+        if (result != null) {
+            return result.getRows(mapColumns);
+        }
+
+        final Projection projection = getProjection(mapColumns);
+        final SelectContext context = projection.plan.createContext(connectionInfo, null, null);
+        return projection.plan.execute(context).stream()
                 .map((Object[] row) -> {
                     final Object[] newRow = new Object[mapColumns.length];
                     for (int i = 0; i < mapColumns.length; i++) {
-                        newRow[i] = row[mapColumns[i]];
+                        newRow[i] = row[projection.columns[mapColumns[i]]];
                     }
                     return newRow;
                 }).collect(Collectors.toList());
     }
 
+    /**
+     * Gets the plan that counts the view rows without loading them, replacing the view SELECT list with
+     * <code>COUNT(*)</code>.
+     * <p>
+     * Views with DISTINCT, GROUP BY, aggregate functions, LIMIT or OFFSET have no count plan, because the count of
+     * their rows is not the count of the source rows.
+     *
+     * @return the count plan or <code>null</code> if the view rows must be loaded to be counted.
+     * @throws SQLException in case of failures.
+     */
+    private SelectPlan getCountPlan() throws SQLException {
+        if (!countPlanned) {
+            getSelectPlan();
+
+            final SelectNode statement = (SelectNode) new SQLParser(definition).parse();
+            if (!statement.isDistinct() && statement.getGroups().isEmpty() && statement.getLimit() == null
+                    && statement.getOffset() == null && statement.getFields().stream().noneMatch(View::isGrouping)) {
+                final SelectNode count = (SelectNode) new SQLParser("select count(*)").parse();
+                statement.getFields().clear();
+                statement.getFields().addAll(count.getFields());
+                statement.getOrder().clear();
+                statement.getOrderTypes().clear();
+
+                this.countPlan = (SelectPlan) Planner.create(connectionInfo, statement);
+            }
+
+            this.countPlanned = true;
+        }
+
+        return countPlan;
+    }
+
+    /**
+     * Gets the plan with only the used columns.
+     *
+     * @param columnIndexes the used column indexes.
+     * @return the plan with only the used columns.
+     * @throws SQLException in case of failures.
+     */
+    private Projection getProjection(final int[] columnIndexes) throws SQLException {
+        final BitSet used = new BitSet();
+        for (final int index : columnIndexes) {
+            if (index < 0) {
+                return new Projection(getSelectPlan(), null);
+            }
+
+            used.set(index);
+        }
+
+        Projection projection = projections.get(used);
+        if (projection == null) {
+            projection = createProjection(used);
+            projections.putIfAbsent(used, projection);
+        }
+
+        return projection;
+    }
+
+    /**
+     * Creates a plan with only the used columns, removing the other columns from the view SELECT list.
+     * <p>
+     * The columns are kept when used by position in ORDER BY or when removing them changes the view rows: with
+     * DISTINCT, with an asterisk, or the last aggregate function of a view without GROUP BY.
+     *
+     * @param used the used column indexes.
+     * @return the plan with only the used columns.
+     * @throws SQLException in case of failures.
+     */
+    private Projection createProjection(final BitSet used) throws SQLException {
+        final SelectPlan plan = getSelectPlan();
+        final SelectNode statement = (SelectNode) new SQLParser(definition).parse();
+        final List<SQLNode> items = statement.getFields();
+        if (used.cardinality() == items.size() || used.length() > items.size() || statement.isDistinct()
+                || items.stream().anyMatch(AsteriskNode.class::isInstance)
+                || statement.getOrder().stream().anyMatch(ValueNode.class::isInstance)) {
+            return new Projection(plan, null);
+        }
+
+        final boolean aggregate = statement.getGroups().isEmpty() && items.stream().anyMatch(View::isGrouping);
+        final int[] columns = new int[items.size()];
+        Arrays.fill(columns, -1);
+        final List<SQLNode> kept = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (used.get(i)) {
+                columns[i] = kept.size();
+                kept.add(items.get(i));
+            }
+        }
+
+        if (aggregate && kept.stream().noneMatch(View::isGrouping)) {
+            // Keep the aggregation.
+            kept.add(items.stream().filter(View::isGrouping).findFirst().orElse(null));
+        } else if (kept.isEmpty() && !statement.getGroups().isEmpty()) {
+            kept.add(items.get(0));
+        } else if (kept.isEmpty()) {
+            final ValueNode value = new ValueNode(null, statement.getPosition(), ParadoxType.NULL);
+            value.setAlias("null");
+            kept.add(value);
+        }
+
+        items.clear();
+        items.addAll(kept);
+
+        return new Projection((SelectPlan) Planner.create(connectionInfo, statement), columns);
+    }
+
+    /**
+     * Check for aggregate functions.
+     *
+     * @param node the SELECT field.
+     * @return <code>true</code> if the field is an aggregate function.
+     */
+    private static boolean isGrouping(final SQLNode node) {
+        return node instanceof FunctionNode && ((FunctionNode) node).isGrouping();
+    }
+
+    /**
+     * Gets the view SELECT statement.
+     *
+     * @return the view SELECT statement.
+     */
+    public String getQuery() {
+        return definition;
+    }
+
     /**
      * Gets the view definition.
      *
@@ -203,10 +473,19 @@ public class View implements Table {
      */
     public static List<View> listViews(final File currentSchema, final String viewNamePattern,
                                        final ConnectionInfo connectionInfo) {
-        return search(connectionInfo, currentSchema.getName(), currentSchema)
-                .stream().filter(view -> viewNamePattern == null ||
-                        Expressions.accept(connectionInfo.getLocale(), view.getName(), viewNamePattern, false, '\\'))
-                .collect(Collectors.toList());
+        final List<View> views = new ArrayList<>();
+        final File[] files = currentSchema.listFiles(new SQLFilter(connectionInfo.getLocale(), viewNamePattern));
+        if (files != null) {
+            for (final File file : files) {
+                try {
+                    views.add(load(connectionInfo, currentSchema.getName(), file));
+                } catch (final IOException e) {
+                    connectionInfo.addWarning(e);
+                }
+            }
+        }
+
+        return views;
     }
 
     /**
@@ -237,6 +516,31 @@ public class View implements Table {
         return views;
     }
 
+    /**
+     * Finds a view by name, ignoring case, reading only the view file.
+     *
+     * @param connectionInfo the connection information.
+     * @param schemaName     the schema name.
+     * @param directory      the directory to search.
+     * @param viewName       the view name.
+     * @return the view or <code>null</code> if not found.
+     */
+    public static View find(final ConnectionInfo connectionInfo, final String schemaName, final File directory,
+                            final String viewName) {
+        final File[] files = directory.listFiles(file -> file.getName().equalsIgnoreCase(viewName + ".sql")
+                && file.isFile());
+        if (files != null && files.length > 0) {
+            Arrays.sort(files);
+            try {
+                return load(connectionInfo, schemaName, files[0]);
+            } catch (final IOException e) {
+                connectionInfo.addWarning(e);
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Loads a view from a stream.
      *
@@ -262,7 +566,7 @@ public class View implements Table {
     }
 
     /**
-     * Loads a view from a file.
+     * Loads a view from a file, using the directory catalog cache.
      *
      * @param connectionInfo the connection information.
      * @param schemaName     the schema name.
@@ -272,8 +576,39 @@ public class View implements Table {
      */
     public static View load(final ConnectionInfo connectionInfo, final String schemaName, final File file)
             throws IOException {
-        try (final FileInputStream fis = new FileInputStream(file)) {
-            return load(connectionInfo, schemaName, Utils.removeSuffix(file.getName()), fis);
+        final byte[] bytes = CatalogCache.getInstance(file.getParentFile(), connectionInfo).readAll(file);
+        return new View(connectionInfo, schemaName, Utils.removeSuffix(file.getName()),
+                new String(bytes, StandardCharsets.UTF_8), file);
+    }
+
+    /**
+     * A view plan with only the used columns.
+     */
+    private static final class Projection {
+
+        /**
+         * The plan.
+         */
+        private final SelectPlan plan;
+
+        /**
+         * The plan column index of each view column.
+         */
+        private final int[] columns;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param plan    the plan.
+         * @param columns the plan column index of each view column (<code>null</code> if all columns are kept).
+         */
+        Projection(final SelectPlan plan, final int[] columns) {
+            this.plan = plan;
+            if (columns == null) {
+                this.columns = IntStream.range(0, plan.getColumns().size()).toArray();
+            } else {
+                this.columns = columns;
+            }
         }
     }
 }
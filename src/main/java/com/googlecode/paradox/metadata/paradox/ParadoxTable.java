@@ -21,17 +21,22 @@ import com.googlecode.paradox.metadata.Field;
 import com.googlecode.paradox.metadata.Index;
 import com.googlecode.paradox.metadata.Table;
 import com.googlecode.paradox.metadata.TableType;
+import com.googlecode.paradox.planner.context.Context;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Stores a table data file.
  *
- * @version 1.10
+ * @version 1.15
  * @since 1.0
  */
 public final class ParadoxTable extends ParadoxDataFile implements Table {
@@ -90,6 +95,32 @@ public final class ParadoxTable extends ParadoxDataFile implements Table {
         return TableData.loadData(this, fields);
     }
 
+    @Override
+    public Stream<Object[]> stream(final Field[] fields) throws SQLException {
+        return TableData.streamData(this, fields);
+    }
+
+    @Override
+    public List<Object[]> load(final Field[] fields, final Context context) throws SQLException {
+        return TableData.loadData(this, fields, context);
+    }
+
+    @Override
+    public Stream<Object[]> stream(final Field[] fields, final Context context) throws SQLException {
+        return TableData.streamData(this, fields, context);
+    }
+
+    /**
+     * Loads only the rows with the lowest and the highest primary key, if this table has a primary key.
+     *
+     * @param fields the fields to load.
+     * @return the first and the last row or an empty list if the table is empty.
+     * @throws SQLException in case of failures.
+     */
+    public List<Object[]> loadEndpoints(final Field[] fields) throws SQLException {
+        return TableData.loadEndpoints(this, fields);
+    }
+
     /**
      * Return the block size in bytes.
      *
@@ -120,4 +151,22 @@ public final class ParadoxTable extends ParadoxDataFile implements Table {
     public TableType type() {
         return TableType.TABLE;
     }
+
+    @Override
+    public List<File> getSourceFiles() {
+        final File[] blobs = file.getParentFile().listFiles(new TableFilter(connectionInfo.getLocale(), name, "mb"));
+        if (blobs == null || blobs.length == 0) {
+            return Collections.singletonList(file);
+        }
+
+        final List<File> ret = new ArrayList<>(blobs.length + 1);
+        ret.add(file);
+        ret.addAll(Arrays.asList(blobs));
+        return ret;
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
 }
@@ -11,6 +11,7 @@
 package com.googlecode.paradox.metadata.schema;
 
 import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.data.CatalogCache;
 import com.googlecode.paradox.data.TableData;
 import com.googlecode.paradox.metadata.Schema;
 import com.googlecode.paradox.metadata.Table;
@@ -24,7 +25,7 @@ import java.util.List;
 /**
  * A directory schema.
  *
- * @version 1.1
+ * @version 1.3
  * @since 1.6.0
  */
 public class DirectorySchema implements Schema {
@@ -48,6 +49,11 @@ public class DirectorySchema implements Schema {
         final List<Table> ret = new ArrayList<>();
         ret.addAll(TableData.listTables(schemaFile, tablePattern, connectionInfo));
         ret.addAll(View.listViews(schemaFile, tablePattern, connectionInfo));
+
+        if (connectionInfo.isCatalogSnapshot()) {
+            CatalogCache.getInstance(schemaFile, connectionInfo).saveSnapshot();
+        }
+
         return ret;
     }
 
@@ -61,11 +67,18 @@ public class DirectorySchema implements Schema {
         return schemaFile.getName();
     }
 
+    /**
+     * {@inheritDoc}.
+     * <p>
+     * Reads only the files of the table found, tables first and then views.
+     */
     @Override
     public Table findTable(final ConnectionInfo connectionInfo, final String tableName) throws SQLException {
-        final List<Table> tables = new ArrayList<>();
-        tables.addAll(TableData.listTables(schemaFile, null, connectionInfo));
-        tables.addAll(View.search(connectionInfo, name(), schemaFile));
-        return tables.stream().filter(table -> tableName.equalsIgnoreCase(table.getName())).findFirst().orElse(null);
+        final Table table = TableData.findTable(schemaFile, tableName, connectionInfo);
+        if (table != null) {
+            return table;
+        }
+
+        return View.find(connectionInfo, name(), schemaFile, tableName);
     }
 }
@@ -15,17 +15,20 @@ import com.googlecode.paradox.metadata.Schema;
 import com.googlecode.paradox.metadata.Table;
 import com.googlecode.paradox.metadata.View;
 import com.googlecode.paradox.metadata.tables.*;
+import com.googlecode.paradox.utils.Constants;
+import com.googlecode.paradox.utils.Expressions;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * The information schema.
  *
- * @version 1.3
+ * @version 1.4
  * @since 1.6.0
  */
 public class SystemSchema implements Schema {
@@ -105,7 +108,12 @@ public class SystemSchema implements Schema {
 
     @Override
     public List<Table> list(final ConnectionInfo connectionInfo, final String tablePattern) {
-        return tables;
+        if (tablePattern == null) {
+            return tables;
+        }
+
+        return tables.stream().filter(table -> Expressions.accept(connectionInfo.getLocale(), table.getName(),
+                tablePattern, false, Constants.ESCAPE_CHAR)).collect(Collectors.toList());
     }
 
     @Override
@@ -12,6 +12,7 @@ package com.googlecode.paradox.metadata.tables;
 
 import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.metadata.*;
+import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.Constants;
 
@@ -22,7 +23,7 @@ import java.util.List;
 /**
  * Indexes table.
  *
- * @version 1.1
+ * @version 1.3
  * @since 1.6.0
  */
 public class Indexes implements Table {
@@ -96,10 +97,25 @@ public class Indexes implements Table {
 
     @Override
     public int getRowCount() {
+        return getRowCount(MetadataFilter.ALL);
+    }
+
+    @Override
+    public int getRowCount(final Context context) {
+        return getRowCount(MetadataFilter.of(context));
+    }
+
+    /**
+     * Gets the row count of the tables accepted by the filter.
+     *
+     * @param filter the schema and table name filter.
+     * @return the row count.
+     */
+    private int getRowCount(final MetadataFilter filter) {
         try {
             int sum = 0;
-            for (final Schema localSchema : connectionInfo.getSchemas(catalogName, null)) {
-                for (final Table localTable : localSchema.list(connectionInfo, null)) {
+            for (final Schema localSchema : connectionInfo.getSchemas(catalogName, filter.getSchemaPattern())) {
+                for (final Table localTable : localSchema.list(connectionInfo, filter.getTablePattern())) {
                     for (final Index index : localTable.getIndexes()) {
                         sum += index.getFields().length;
                     }
@@ -114,10 +130,27 @@ public class Indexes implements Table {
 
     @Override
     public List<Object[]> load(final Field[] fields) throws SQLException {
+        return load(fields, MetadataFilter.ALL);
+    }
+
+    @Override
+    public List<Object[]> load(final Field[] fields, final Context context) throws SQLException {
+        return load(fields, MetadataFilter.of(context));
+    }
+
+    /**
+     * Loads the rows of the tables accepted by the filter.
+     *
+     * @param fields the fields to load.
+     * @param filter the schema and table name filter.
+     * @return the rows.
+     * @throws SQLException in case of failures.
+     */
+    private List<Object[]> load(final Field[] fields, final MetadataFilter filter) throws SQLException {
         final List<Object[]> ret = new ArrayList<>();
 
-        for (final Schema localSchema : connectionInfo.getSchemas(catalogName, null)) {
-            for (final Table localTable : localSchema.list(connectionInfo, null)) {
+        for (final Schema localSchema : connectionInfo.getSchemas(catalogName, filter.getSchemaPattern())) {
+            for (final Table localTable : localSchema.list(connectionInfo, filter.getTablePattern())) {
                 for (final Index index : localTable.getIndexes()) {
                     for (final Field indexField : index.getFields()) {
                         final Object[] row = new Object[fields.length];
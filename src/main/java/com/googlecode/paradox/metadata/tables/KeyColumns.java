@@ -12,6 +12,7 @@ package com.googlecode.paradox.metadata.tables;
 
 import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.metadata.*;
+import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.Constants;
 
@@ -22,7 +23,7 @@ import java.util.List;
 /**
  * Key columns.
  *
- * @version 1.3
+ * @version 1.5
  * @since 1.6.0
  */
 public class KeyColumns implements Table {
@@ -93,10 +94,25 @@ public class KeyColumns implements Table {
 
     @Override
     public int getRowCount() {
+        return getRowCount(MetadataFilter.ALL);
+    }
+
+    @Override
+    public int getRowCount(final Context context) {
+        return getRowCount(MetadataFilter.of(context));
+    }
+
+    /**
+     * Gets the row count of the tables accepted by the filter.
+     *
+     * @param filter the schema and table name filter.
+     * @return the row count.
+     */
+    private int getRowCount(final MetadataFilter filter) {
         try {
             int sum = 0;
-            for (final Schema localSchema : connectionInfo.getSchemas(catalogName, null)) {
-                for (final Table localTable : localSchema.list(connectionInfo, null)) {
+            for (final Schema localSchema : connectionInfo.getSchemas(catalogName, filter.getSchemaPattern())) {
+                for (final Table localTable : localSchema.list(connectionInfo, filter.getTablePattern())) {
                     Index index = localTable.getPrimaryKeyIndex();
                     if (index == null) {
                         continue;
@@ -114,10 +130,27 @@ public class KeyColumns implements Table {
 
     @Override
     public List<Object[]> load(final Field[] fields) throws SQLException {
+        return load(fields, MetadataFilter.ALL);
+    }
+
+    @Override
+    public List<Object[]> load(final Field[] fields, final Context context) throws SQLException {
+        return load(fields, MetadataFilter.of(context));
+    }
+
+    /**
+     * Loads the rows of the tables accepted by the filter.
+     *
+     * @param fields the fields to load.
+     * @param filter the schema and table name filter.
+     * @return the rows.
+     * @throws SQLException in case of failures.
+     */
+    private List<Object[]> load(final Field[] fields, final MetadataFilter filter) throws SQLException {
         final List<Object[]> ret = new ArrayList<>();
 
-        for (final Schema localSchema : connectionInfo.getSchemas(catalogName, null)) {
-            for (final Table localTable : localSchema.list(connectionInfo, null)) {
+        for (final Schema localSchema : connectionInfo.getSchemas(catalogName, filter.getSchemaPattern())) {
+            for (final Table localTable : localSchema.list(connectionInfo, filter.getTablePattern())) {
                 Index index = localTable.getPrimaryKeyIndex();
                 if (index == null) {
                     continue;
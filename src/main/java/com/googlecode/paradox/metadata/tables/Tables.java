@@ -12,6 +12,7 @@ package com.googlecode.paradox.metadata.tables;
 
 import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.metadata.*;
+import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.Constants;
 
@@ -22,7 +23,7 @@ import java.util.List;
 /**
  * Tables.
  *
- * @version 1.2
+ * @version 1.5
  * @since 1.6.0
  */
 public class Tables implements Table {
@@ -108,10 +109,25 @@ public class Tables implements Table {
 
     @Override
     public int getRowCount() {
+        return getRowCount(MetadataFilter.ALL);
+    }
+
+    @Override
+    public int getRowCount(final Context context) {
+        return getRowCount(MetadataFilter.of(context));
+    }
+
+    /**
+     * Gets the row count of the tables accepted by the filter.
+     *
+     * @param filter the schema and table name filter.
+     * @return the row count.
+     */
+    private int getRowCount(final MetadataFilter filter) {
         try {
             int sum = 0;
-            for (final Schema localSchema : connectionInfo.getSchemas(catalogName, null)) {
-                sum += localSchema.list(connectionInfo, null).size();
+            for (final Schema localSchema : connectionInfo.getSchemas(catalogName, filter.getSchemaPattern())) {
+                sum += localSchema.list(connectionInfo, filter.getTablePattern()).size();
             }
 
             return sum;
@@ -122,10 +138,27 @@ public class Tables implements Table {
 
     @Override
     public List<Object[]> load(final Field[] fields) throws SQLException {
+        return load(fields, MetadataFilter.ALL);
+    }
+
+    @Override
+    public List<Object[]> load(final Field[] fields, final Context context) throws SQLException {
+        return load(fields, MetadataFilter.of(context));
+    }
+
+    /**
+     * Loads the rows of the tables accepted by the filter.
+     *
+     * @param fields the fields to load.
+     * @param filter the schema and table name filter.
+     * @return the rows.
+     * @throws SQLException in case of failures.
+     */
+    private List<Object[]> load(final Field[] fields, final MetadataFilter filter) throws SQLException {
         final List<Object[]> ret = new ArrayList<>();
 
-        for (final Schema localSchema : connectionInfo.getSchemas(catalogName, null)) {
-            for (final Table table : localSchema.list(connectionInfo, null)) {
+        for (final Schema localSchema : connectionInfo.getSchemas(catalogName, filter.getSchemaPattern())) {
+            for (final Table table : localSchema.list(connectionInfo, filter.getTablePattern())) {
                 final Object[] row = new Object[fields.length];
                 for (int i = 0; i < fields.length; i++) {
                     final Field field = fields[i];
@@ -146,7 +179,8 @@ public class Tables implements Table {
                         value = description(table.isEncrypted());
                     } else if (this.writeProtected.equals(field)) {
                         value = description(table.isWriteProtected());
-                    } else if (this.count.equals(field) && table.getCharset() != null) {
+                    } else if (this.count.equals(field) && table.type() != TableType.VIEW) {
+                        // Only from the table headers: the views are not executed.
                         value = table.getRowCount();
                     } else if (this.blockSize.equals(field)) {
                         value = table.getBlockSizeBytes();
@@ -35,7 +35,7 @@ import java.sql.SQLException;
 /**
  * Parses a SQL statement.
  *
- * @version 1.13
+ * @version 1.14
  * @since 1.0
  */
 @SuppressWarnings("java:S1448")
@@ -862,6 +862,8 @@ public final class SQLParser {
             } else if (isToken(TokenType.CHARACTER)) {
                 in.addField(new ValueNode(token.getValue(), token.getPosition(), ParadoxType.VARCHAR));
                 this.expect(TokenType.CHARACTER);
+            } else if (isToken(TokenType.QUESTION_MARK)) {
+                in.addField(this.parseParameter());
             } else {
                 throw new ParadoxSyntaxErrorException(SyntaxError.UNEXPECTED_TOKEN, getPosition());
             }
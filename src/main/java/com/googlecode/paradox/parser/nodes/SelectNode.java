@@ -14,13 +14,14 @@ import com.googlecode.paradox.parser.ScannerPosition;
 import com.googlecode.paradox.planner.nodes.FieldNode;
 import com.googlecode.paradox.planner.sorting.OrderType;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Stores a select node.
  *
- * @version 1.4
+ * @version 1.5
  * @since 1.0
  */
 public final class SelectNode extends StatementNode {
@@ -45,6 +46,10 @@ public final class SelectNode extends StatementNode {
      * The tables in from token.
      */
     private final List<TableNode> tables = new ArrayList<>();
+    /**
+     * The files of the views inlined in this statement.
+     */
+    private final List<File> viewFiles = new ArrayList<>();
     /**
      * The conditions list.
      */
@@ -89,6 +94,15 @@ public final class SelectNode extends StatementNode {
         this.tables.add(table);
     }
 
+    /**
+     * Gets the files of the views inlined in this statement.
+     *
+     * @return the files of the views inlined in this statement.
+     */
+    public List<File> getViewFiles() {
+        return this.viewFiles;
+    }
+
     /**
      * Gets the condition list.
      *
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.data.CatalogCache;
+import com.googlecode.paradox.data.ChangeMonitor;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * The modification time and size of a file list at some moment, used to detect file changes.
+ * <p>
+ * Files in {@link ChangeMonitor monitored} directories are checked by change sequence, without reading the file
+ * state. Other files modified within the {@link CatalogCache#RACY_INTERVAL racy interval} before the stamp was taken
+ * are never valid, since a write in the same modification time stamp and with the same size can't be detected.
+ *
+ * @version 1.3
+ * @since 1.6.1
+ */
+final class FileStamp {
+
+    /**
+     * The files.
+     */
+    private final File[] files;
+
+    /**
+     * File modification times.
+     */
+    private final long[] modified;
+
+    /**
+     * File sizes.
+     */
+    private final long[] sizes;
+
+    /**
+     * The directory monitor of each file (<code>null</code> if not monitored).
+     */
+    private final ChangeMonitor[] monitors;
+
+    /**
+     * The change sequence before the file state was read.
+     */
+    private final long sequence;
+
+    /**
+     * If a not monitored file was modified within the racy interval before the stamp was taken.
+     */
+    private final boolean racy;
+
+    /**
+     * Creates a new instance with the current file state.
+     *
+     * @param files the files.
+     */
+    FileStamp(final Collection<File> files) {
+        this(files, ChangeMonitor.sequence(), System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a new instance with the current file state, checked against changes since an earlier moment.
+     * <p>
+     * Used when the files were read before their list was known: files modified after that moment are racy.
+     *
+     * @param files    the files.
+     * @param sequence the change sequence at that moment.
+     * @param time     the time of that moment.
+     */
+    FileStamp(final Collection<File> files, final long sequence, final long time) {
+        this.sequence = sequence;
+        this.files = files.stream().map(File::getAbsoluteFile).distinct().toArray(File[]::new);
+        this.modified = new long[this.files.length];
+        this.sizes = new long[this.files.length];
+        this.monitors = new ChangeMonitor[this.files.length];
+
+        boolean racyFiles = false;
+        for (int i = 0; i < this.files.length; i++) {
+            this.modified[i] = this.files[i].lastModified();
+            this.sizes[i] = this.files[i].length();
+            this.monitors[i] = ChangeMonitor.getMonitor(this.files[i].getParentFile());
+            if ((this.monitors[i] == null || !this.monitors[i].isActive())
+                    && time - this.modified[i] < CatalogCache.RACY_INTERVAL) {
+                racyFiles = true;
+            }
+        }
+
+        this.racy = racyFiles;
+    }
+
+    /**
+     * Check if the files are unchanged.
+     *
+     * @return <code>true</code> if the files are unchanged.
+     */
+    boolean isValid() {
+        if (racy) {
+            return false;
+        }
+
+        for (int i = 0; i < files.length; i++) {
+            if (monitors[i] != null && monitors[i].isActive()) {
+                if (monitors[i].isChanged(files[i].getName(), sequence)) {
+                    return false;
+                }
+            } else if (files[i].lastModified() != modified[i] || files[i].length() != sizes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if a file was modified within the racy interval before the stamp was taken. These stamps are never valid.
+     *
+     * @return <code>true</code> if a file was modified within the racy interval.
+     */
+    boolean isRacy() {
+        return racy;
+    }
+
+    /**
+     * Check if the file, or a file in the directory, is in this file list.
+     *
+     * @param file the file or directory to check.
+     * @return <code>true</code> if the file is in this file list.
+     */
+    boolean references(final File file) {
+        final File absolute = file.getAbsoluteFile();
+        for (final File current : files) {
+            if (current.equals(absolute) || absolute.equals(current.getParentFile())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.data.ChangeMonitor;
+import com.googlecode.paradox.planner.plan.Plan;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe execution plan cache, bounded by entry count with least recently used eviction.
+ * <p>
+ * Plans are keyed by connection URL, catalog, schema and SQL. A cached plan is discarded when any of the files it
+ * reads from has changed since the plan was created. The file state is taken before planning, through
+ * {@link #lookup(String, String, String, String)}, and plans of files modified within the
+ * {@link com.googlecode.paradox.data.CatalogCache#RACY_INTERVAL racy interval} are not stored.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public final class PlanCache {
+
+    /**
+     * Default maximum entry count.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 0x400;
+
+    /**
+     * The cache entries.
+     */
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Access clock used to find the least recently used entries.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Lock used to serialize evictions.
+     */
+    private final Object evictionLock = new Object();
+
+    /**
+     * Cache hits.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Cache misses.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Entries evicted by size.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Entries discarded by file changes.
+     */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Maximum entry count.
+     */
+    private volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Gets a cached plan.
+     *
+     * @param url     the connection URL.
+     * @param catalog the current catalog.
+     * @param schema  the current schema.
+     * @param sql     the SQL.
+     * @return the cached plan or <code>null</code> if there is no valid plan cached.
+     */
+    @SuppressWarnings("java:S1452")
+    public Plan<?, ?> get(final String url, final String catalog, final String schema, final String sql) {
+        return get(new Key(url, catalog, schema, sql));
+    }
+
+    /**
+     * Looks up a plan.
+     * <p>
+     * On misses, the file state moment is taken before planning, so changes made while planning discard the stored
+     * plan.
+     *
+     * @param url     the connection URL.
+     * @param catalog the current catalog.
+     * @param schema  the current schema.
+     * @param sql     the SQL.
+     * @return the lookup result.
+     */
+    public Lookup lookup(final String url, final String catalog, final String schema, final String sql) {
+        final Key key = new Key(url, catalog, schema, sql);
+        final long sequence = ChangeMonitor.sequence();
+        final long time = System.currentTimeMillis();
+        return new Lookup(this, key, get(key), sequence, time);
+    }
+
+    /**
+     * Gets a cached plan.
+     *
+     * @param key the plan key.
+     * @return the cached plan or <code>null</code> if there is no valid plan cached.
+     */
+    private Plan<?, ?> get(final Key key) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            final Plan<?, ?> plan = entry.plan.get();
+            if (plan != null && entry.isValid()) {
+                entry.lastAccess = clock.incrementAndGet();
+                hits.increment();
+                return plan;
+            }
+
+            if (entries.remove(key, entry) && plan != null) {
+                invalidations.increment();
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores a plan in cache.
+     *
+     * @param url     the connection URL.
+     * @param catalog the current catalog.
+     * @param schema  the current schema.
+     * @param sql     the SQL.
+     * @param plan    the plan to store.
+     */
+    public void put(final String url, final String catalog, final String schema, final String sql,
+                    final Plan<?, ?> plan) {
+        put(new Key(url, catalog, schema, sql), plan, new FileStamp(plan.getSourceFiles()));
+    }
+
+    /**
+     * Stores a plan in cache.
+     *
+     * @param key   the plan key.
+     * @param plan  the plan to store.
+     * @param stamp the state of the files read by the plan.
+     */
+    private void put(final Key key, final Plan<?, ?> plan, final FileStamp stamp) {
+        final int max = maximumSize;
+
+        // Racy plans are never valid.
+        if (max <= 0 || stamp.isRacy()) {
+            return;
+        }
+
+        final Entry entry = new Entry(plan, stamp);
+        entry.lastAccess = clock.incrementAndGet();
+        entries.put(key, entry);
+
+        if (entries.size() > max) {
+            evict(max);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries.
+     * <p>
+     * Evicts a little more than necessary, so the sort cost is not paid on every new entry.
+     *
+     * @param max the maximum entry count.
+     */
+    private void evict(final int max) {
+        synchronized (evictionLock) {
+            final int target = max - (max >> 3);
+            if (entries.size() <= max) {
+                return;
+            }
+
+            final List<Map.Entry<Key, Entry>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+            int size = entries.size();
+            for (final Map.Entry<Key, Entry> candidate : candidates) {
+                if (size <= target) {
+                    break;
+                }
+
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    evictions.increment();
+                    size--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards all plans that read from the file.
+     *
+     * @param file the changed file.
+     */
+    public void invalidate(final File file) {
+        entries.entrySet().removeIf((Map.Entry<Key, Entry> entry) -> {
+            if (entry.getValue().references(file)) {
+                invalidations.increment();
+                return true;
+            }
+
+            return false;
+        });
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the current entry count.
+     *
+     * @return the current entry count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximum entry count.
+     *
+     * @return the maximum entry count.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum entry count. Zero disables the cache.
+     *
+     * @param maximumSize the maximum entry count.
+     */
+    public void setMaximumSize(final int maximumSize) {
+        this.maximumSize = Math.max(0, maximumSize);
+        if (this.maximumSize == 0) {
+            clear();
+        } else if (entries.size() > this.maximumSize) {
+            evict(this.maximumSize);
+        }
+    }
+
+    /**
+     * Gets the hit count.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the miss count.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the count of entries evicted by size.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the count of entries discarded by file changes.
+     *
+     * @return the invalidation count.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        invalidations.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, hits=%d, misses=%d, evictions=%d, invalidations=%d", size(),
+                getHitCount(), getMissCount(), getEvictionCount(), getInvalidationCount());
+    }
+
+    /**
+     * A plan lookup.
+     */
+    public static final class Lookup {
+
+        /**
+         * The cache.
+         */
+        private final PlanCache cache;
+
+        /**
+         * The plan key.
+         */
+        private final Key key;
+
+        /**
+         * The cached plan or <code>null</code> on misses.
+         */
+        private final Plan<?, ?> plan;
+
+        /**
+         * The change sequence before planning.
+         */
+        private final long sequence;
+
+        /**
+         * The time before planning.
+         */
+        private final long time;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cache    the cache.
+         * @param key      the plan key.
+         * @param plan     the cached plan.
+         * @param sequence the change sequence before planning.
+         * @param time     the time before planning.
+         */
+        Lookup(final PlanCache cache, final Key key, final Plan<?, ?> plan, final long sequence, final long time) {
+            this.cache = cache;
+            this.key = key;
+            this.plan = plan;
+            this.sequence = sequence;
+            this.time = time;
+        }
+
+        /**
+         * Gets the cached plan.
+         *
+         * @return the cached plan or <code>null</code> if the plan is not cached.
+         */
+        @SuppressWarnings("java:S1452")
+        public Plan<?, ?> getPlan() {
+            return plan;
+        }
+
+        /**
+         * Stores the created plan.
+         *
+         * @param created the created plan.
+         */
+        public void store(final Plan<?, ?> created) {
+            cache.put(key, created, new FileStamp(created.getSourceFiles(), sequence, time));
+        }
+    }
+
+    /**
+     * Cache key.
+     */
+    private static final class Key {
+
+        /**
+         * The connection URL.
+         */
+        private final String url;
+
+        /**
+         * The catalog name.
+         */
+        private final String catalog;
+
+        /**
+         * The schema name.
+         */
+        private final String schema;
+
+        /**
+         * The SQL.
+         */
+        private final String sql;
+
+        /**
+         * Pre calculated hash.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param url     the connection URL.
+         * @param catalog the catalog name.
+         * @param schema  the schema name.
+         * @param sql     the SQL.
+         */
+        Key(final String url, final String catalog, final String schema, final String sql) {
+            this.url = url;
+            this.catalog = catalog;
+            this.schema = schema;
+            this.sql = sql;
+            this.hash = Objects.hash(url, catalog, schema, sql);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return hash == key.hash && Objects.equals(sql, key.sql) && Objects.equals(schema, key.schema)
+                    && Objects.equals(catalog, key.catalog) && Objects.equals(url, key.url);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * The cached plan, released on memory pressure.
+         */
+        private final SoftReference<Plan<?, ?>> plan;
+
+        /**
+         * State of the files read by the plan when the plan was created.
+         */
+        private final FileStamp stamp;
+
+        /**
+         * Last access clock value.
+         */
+        private volatile long lastAccess;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param plan  the plan to store.
+         * @param stamp the state of the files read by the plan.
+         */
+        Entry(final Plan<?, ?> plan, final FileStamp stamp) {
+            this.plan = new SoftReference<>(plan);
+            this.stamp = stamp;
+        }
+
+        /**
+         * Check if the plan files are unchanged.
+         *
+         * @return <code>true</code> if the plan files are unchanged.
+         */
+        boolean isValid() {
+            return stamp.isValid();
+        }
+
+        /**
+         * Check if the plan reads from the file.
+         *
+         * @param file the file to check.
+         * @return <code>true</code> if the plan reads from the file.
+         */
+        boolean references(final File file) {
+            return stamp.references(file);
+        }
+    }
+}
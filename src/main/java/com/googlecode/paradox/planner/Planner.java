@@ -23,7 +23,7 @@ import java.sql.SQLException;
 /**
  * Factory to create a SQL execution plan.
  *
- * @version 1.9
+ * @version 1.10
  * @since 1.1
  */
 public final class Planner {
@@ -49,6 +49,8 @@ public final class Planner {
         Plan<?, ?> ret;
         try {
             if (statement instanceof SelectNode) {
+                // Plan the simple views together with the statement.
+                ViewInliner.inline(connectionInfo, (SelectNode) statement);
                 ret = new SelectPlan(connectionInfo, (SelectNode) statement);
             } else {
                 throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.OPERATION_NOT_SUPPORTED);
@@ -0,0 +1,572 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.planner.context.SelectContext;
+import com.googlecode.paradox.planner.plan.SelectPlan;
+import com.googlecode.paradox.results.ParadoxType;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe query result cache, bounded by an estimated memory budget with least recently used eviction.
+ * <p>
+ * Results are keyed by plan, parameter values and the connection settings that change values (charset, locale, time
+ * zone and BCD rounding). A cached result is discarded when any of the table files (.DB and .MB) has changed size or
+ * modification time since the query was executed. Results of files modified just before the execution are not
+ * stored, since a later write in the same modification time can't be detected. Only {@link SelectPlan#isCacheable() cacheable} plans are stored.
+ * <p>
+ * Rows are copied when stored and when served, so changes made by callers never reach other results.
+ *
+ * @version 1.3
+ * @since 1.6.1
+ */
+public final class ResultCache {
+
+    /**
+     * Default memory budget in bytes.
+     */
+    public static final long DEFAULT_MAXIMUM_MEMORY = 0x4000000L;
+
+    /**
+     * Estimated size of each object reference and header.
+     */
+    private static final int OBJECT_SIZE = 16;
+
+    /**
+     * The cache entries.
+     */
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Access clock used to find the least recently used entries.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Estimated memory used by entries.
+     */
+    private final AtomicLong memory = new AtomicLong();
+
+    /**
+     * Lock used to serialize evictions.
+     */
+    private final Object evictionLock = new Object();
+
+    /**
+     * Cache hits.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Cache misses.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Entries evicted by memory budget.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Entries discarded by file changes.
+     */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Memory budget in bytes.
+     */
+    private volatile long maximumMemory = DEFAULT_MAXIMUM_MEMORY;
+
+    /**
+     * Looks up a result.
+     * <p>
+     * On misses, the file state is taken before the execution, so changes made while executing discard the stored
+     * result.
+     *
+     * @param plan    the plan to execute.
+     * @param context the execution context.
+     * @return the lookup result.
+     */
+    public Lookup lookup(final SelectPlan plan, final SelectContext context) {
+        final Key key = new Key(plan, context);
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.stamp.isValid()) {
+                entry.lastAccess = clock.incrementAndGet();
+                hits.increment();
+
+                if (entry.columnTypes != null) {
+                    context.setColumnTypes(entry.columnTypes.clone());
+                }
+
+                return new Lookup(this, key, copy(entry.rows), null);
+            }
+
+            if (remove(key, entry)) {
+                invalidations.increment();
+            }
+        }
+
+        misses.increment();
+        return new Lookup(this, key, null, new FileStamp(plan.getSourceFiles()));
+    }
+
+    /**
+     * Stores a result.
+     *
+     * @param key     the result key.
+     * @param stamp   the file state before the execution.
+     * @param rows    the result rows.
+     * @param context the execution context.
+     */
+    private void put(final Key key, final FileStamp stamp, final List<Object[]> rows, final SelectContext context) {
+        final long max = maximumMemory;
+        final long size = estimateSize(rows);
+
+        // Large results would evict everything else and racy results are never valid.
+        if (size > (max >> 2) || stamp.isRacy()) {
+            return;
+        }
+
+        ParadoxType[] columnTypes = context.getColumnTypes();
+        if (columnTypes != null) {
+            columnTypes = columnTypes.clone();
+        }
+
+        final Entry entry = new Entry(copy(rows), columnTypes, stamp, size);
+        entry.lastAccess = clock.incrementAndGet();
+
+        final Entry old = entries.put(key, entry);
+        if (old != null) {
+            memory.addAndGet(-old.size);
+        }
+
+        if (memory.addAndGet(size) > max) {
+            evict(max);
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key   the entry key.
+     * @param entry the entry to remove.
+     * @return <code>true</code> if the entry was removed.
+     */
+    private boolean remove(final Key key, final Entry entry) {
+        if (entries.remove(key, entry)) {
+            memory.addAndGet(-entry.size);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Evicts the results of changed files and then the least recently used entries.
+     * <p>
+     * Evicts a little more than necessary, so the sort cost is not paid on every new entry.
+     *
+     * @param max the memory budget.
+     */
+    private void evict(final long max) {
+        synchronized (evictionLock) {
+            if (memory.get() <= max) {
+                return;
+            }
+
+            // Results of replaced plans are never looked up again.
+            for (final Map.Entry<Key, Entry> entry : entries.entrySet()) {
+                if (!entry.getValue().stamp.isValid() && remove(entry.getKey(), entry.getValue())) {
+                    invalidations.increment();
+                }
+            }
+
+            final long target = max - (max >> 3);
+            final List<Map.Entry<Key, Entry>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+            for (final Map.Entry<Key, Entry> candidate : candidates) {
+                if (memory.get() <= target) {
+                    break;
+                }
+
+                if (remove(candidate.getKey(), candidate.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the rows and their mutable values.
+     *
+     * @param rows the rows to copy.
+     * @return the read only copy.
+     */
+    private static List<Object[]> copy(final List<Object[]> rows) {
+        final List<Object[]> copy = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            final Object[] values = row.clone();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof byte[]) {
+                    values[i] = ((byte[]) values[i]).clone();
+                } else if (values[i] instanceof Date) {
+                    values[i] = ((Date) values[i]).clone();
+                }
+            }
+
+            copy.add(values);
+        }
+
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Estimates the memory used by the rows.
+     *
+     * @param rows the rows.
+     * @return the estimated size in bytes.
+     */
+    static long estimateSize(final List<Object[]> rows) {
+        long size = OBJECT_SIZE * 4L;
+        for (final Object[] row : rows) {
+            size += OBJECT_SIZE + 4L * row.length;
+            for (final Object value : row) {
+                size += estimateSize(value);
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the memory used by a value.
+     *
+     * @param value the value.
+     * @return the estimated size in bytes.
+     */
+    private static long estimateSize(final Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return OBJECT_SIZE * 2L + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return OBJECT_SIZE + (long) ((byte[]) value).length;
+        } else if (value instanceof BigDecimal) {
+            return OBJECT_SIZE * 4L;
+        }
+
+        return OBJECT_SIZE * 2L;
+    }
+
+    /**
+     * Discards all results that read from the file.
+     *
+     * @param file the changed file.
+     */
+    public void invalidate(final File file) {
+        for (final Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().stamp.references(file) && remove(entry.getKey(), entry.getValue())) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (final Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the current entry count.
+     *
+     * @return the current entry count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the estimated memory used by the entries.
+     *
+     * @return the estimated memory used in bytes.
+     */
+    public long getMemoryUsage() {
+        return memory.get();
+    }
+
+    /**
+     * Gets the memory budget.
+     *
+     * @return the memory budget in bytes.
+     */
+    public long getMaximumMemory() {
+        return maximumMemory;
+    }
+
+    /**
+     * Sets the memory budget. Zero disables the cache.
+     *
+     * @param maximumMemory the memory budget in bytes.
+     */
+    public void setMaximumMemory(final long maximumMemory) {
+        this.maximumMemory = Math.max(0, maximumMemory);
+        if (this.maximumMemory == 0) {
+            clear();
+        } else if (memory.get() > this.maximumMemory) {
+            evict(this.maximumMemory);
+        }
+    }
+
+    /**
+     * Gets the hit count.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the miss count.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the count of entries evicted by memory budget.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the count of entries discarded by file changes.
+     *
+     * @return the invalidation count.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        invalidations.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, memory=%d, hits=%d, misses=%d, evictions=%d, invalidations=%d", size(),
+                getMemoryUsage(), getHitCount(), getMissCount(), getEvictionCount(), getInvalidationCount());
+    }
+
+    /**
+     * A result lookup.
+     */
+    public static final class Lookup {
+
+        /**
+         * The cache.
+         */
+        private final ResultCache cache;
+
+        /**
+         * The result key.
+         */
+        private final Key key;
+
+        /**
+         * The cached rows or <code>null</code> on misses.
+         */
+        private final List<Object[]> rows;
+
+        /**
+         * The file state before the execution, on misses.
+         */
+        private final FileStamp stamp;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cache the cache.
+         * @param key   the result key.
+         * @param rows  the cached rows.
+         * @param stamp the file state before the execution.
+         */
+        Lookup(final ResultCache cache, final Key key, final List<Object[]> rows, final FileStamp stamp) {
+            this.cache = cache;
+            this.key = key;
+            this.rows = rows;
+            this.stamp = stamp;
+        }
+
+        /**
+         * Gets the cached rows.
+         *
+         * @return the cached rows (read only) or <code>null</code> if the result is not cached.
+         */
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        /**
+         * Stores the execution result.
+         *
+         * @param values  the result rows.
+         * @param context the execution context.
+         */
+        public void store(final List<Object[]> values, final SelectContext context) {
+            if (stamp != null && cache.maximumMemory > 0) {
+                cache.put(key, stamp, values, context);
+            }
+        }
+    }
+
+    /**
+     * Cache key.
+     */
+    private static final class Key {
+
+        /**
+         * The plan.
+         */
+        private final SelectPlan plan;
+
+        /**
+         * The parameter values.
+         */
+        private final Object[] parameters;
+
+        /**
+         * The parameter types.
+         */
+        private final ParadoxType[] parameterTypes;
+
+        /**
+         * The connection settings that change values.
+         */
+        private final List<Object> settings;
+
+        /**
+         * The max rows.
+         */
+        private final int maxRows;
+
+        /**
+         * Pre calculated hash.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param plan    the plan.
+         * @param context the execution context.
+         */
+        Key(final SelectPlan plan, final SelectContext context) {
+            final ConnectionInfo connectionInfo = context.getConnectionInfo();
+            this.plan = plan;
+            this.parameters = context.getParameters() == null ? null : context.getParameters().clone();
+            this.parameterTypes = context.getParameterTypes() == null ? null : context.getParameterTypes().clone();
+            this.settings = Arrays.asList(connectionInfo.getCharset(), connectionInfo.getLocale(),
+                    connectionInfo.getTimeZone(), connectionInfo.isBcdRounding());
+            this.maxRows = context.getMaxRows();
+            this.hash = System.identityHashCode(plan) * 31 + Objects.hash(Arrays.deepHashCode(parameters),
+                    Arrays.hashCode(parameterTypes), settings, maxRows);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return hash == key.hash && plan == key.plan && maxRows == key.maxRows
+                    && Arrays.deepEquals(parameters, key.parameters)
+                    && Arrays.equals(parameterTypes, key.parameterTypes) && settings.equals(key.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * The result rows.
+         */
+        private final List<Object[]> rows;
+
+        /**
+         * The result column types.
+         */
+        private final ParadoxType[] columnTypes;
+
+        /**
+         * State of the table files before the execution.
+         */
+        private final FileStamp stamp;
+
+        /**
+         * Estimated memory size.
+         */
+        private final long size;
+
+        /**
+         * Last access clock value.
+         */
+        private volatile long lastAccess;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param rows        the result rows.
+         * @param columnTypes the result column types.
+         * @param stamp       the table files state.
+         * @param size        the estimated memory size.
+         */
+        Entry(final List<Object[]> rows, final ParadoxType[] columnTypes, final FileStamp stamp, final long size) {
+            this.rows = rows;
+            this.columnTypes = columnTypes;
+            this.stamp = stamp;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.planner.plan.SelectPlan;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe store of materialized view results, bounded by an estimated memory budget with least recently used
+ * eviction.
+ * <p>
+ * The view rows are stored by column, keyed by view definition, source files and the connection settings that change
+ * values (charset, locale, time zone and BCD rounding). A materialized result is refreshed on the next access when
+ * any of the source files (the view file and the table files) has changed size or modification time since the view
+ * was executed. Results of old view definitions are discarded when the view file changes.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public final class ViewCache {
+
+    /**
+     * Default memory budget in bytes.
+     */
+    public static final long DEFAULT_MAXIMUM_MEMORY = 0x4000000L;
+
+    /**
+     * The materialized results.
+     */
+    private final Map<Key, Materialized> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Access clock used to find the least recently used entries.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Estimated memory used by entries.
+     */
+    private final AtomicLong memory = new AtomicLong();
+
+    /**
+     * Lock used to serialize evictions.
+     */
+    private final Object evictionLock = new Object();
+
+    /**
+     * Materialized result reuses.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * View executions.
+     */
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * Entries evicted by memory budget.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Memory budget in bytes.
+     */
+    private volatile long maximumMemory = DEFAULT_MAXIMUM_MEMORY;
+
+    /**
+     * Gets the materialized view result, executing the view if the result is missing or outdated.
+     * <p>
+     * The file state is taken before the execution, so changes made while executing refresh the result again. Results
+     * larger than a quarter of the memory budget or with source files modified just before the execution are not
+     * stored.
+     *
+     * @param definition     the view definition.
+     * @param plan           the view plan.
+     * @param sourceFiles    the view source files.
+     * @param connectionInfo the connection information.
+     * @return the materialized result.
+     * @throws SQLException in case of failures.
+     */
+    public Materialized load(final String definition, final SelectPlan plan, final List<File> sourceFiles,
+                             final ConnectionInfo connectionInfo) throws SQLException {
+        final Key key = new Key(definition, sourceFiles, connectionInfo);
+        final Materialized current = entries.get(key);
+        if (current != null && current.stamp.isValid()) {
+            current.lastAccess = clock.incrementAndGet();
+            hits.increment();
+            return current;
+        }
+
+        final FileStamp stamp = new FileStamp(sourceFiles);
+        final List<Object[]> rows = plan.execute(plan.createContext(connectionInfo, null, null));
+        final Materialized materialized = new Materialized(rows, plan.getColumns().size(), stamp,
+                ResultCache.estimateSize(rows));
+        materialized.lastAccess = clock.incrementAndGet();
+        refreshes.increment();
+
+        // Also drops the results of old view definitions and changed tables.
+        removeOutdated();
+
+        final long max = maximumMemory;
+        if (materialized.size <= (max >> 2) && !stamp.isRacy() && entries.putIfAbsent(key, materialized) == null
+                && memory.addAndGet(materialized.size) > max) {
+            evict(max);
+        }
+
+        return materialized;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key   the entry key.
+     * @param entry the entry to remove.
+     * @return <code>true</code> if the entry was removed.
+     */
+    private boolean remove(final Key key, final Materialized entry) {
+        if (entries.remove(key, entry)) {
+            memory.addAndGet(-entry.size);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes the results with changed source files. The results of old view definitions are never looked up again.
+     */
+    private void removeOutdated() {
+        for (final Map.Entry<Key, Materialized> entry : entries.entrySet()) {
+            if (!entry.getValue().stamp.isValid()) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Evicts the outdated results and then the least recently used entries.
+     * <p>
+     * Evicts a little more than necessary, so the sort cost is not paid on every new entry.
+     *
+     * @param max the memory budget.
+     */
+    private void evict(final long max) {
+        synchronized (evictionLock) {
+            if (memory.get() <= max) {
+                return;
+            }
+
+            removeOutdated();
+
+            final long target = max - (max >> 3);
+            final List<Map.Entry<Key, Materialized>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+            for (final Map.Entry<Key, Materialized> candidate : candidates) {
+                if (memory.get() <= target) {
+                    break;
+                }
+
+                if (remove(candidate.getKey(), candidate.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards all results that read from the file.
+     *
+     * @param file the changed file.
+     */
+    public void invalidate(final File file) {
+        for (final Map.Entry<Key, Materialized> entry : entries.entrySet()) {
+            if (entry.getValue().stamp.references(file)) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (final Map.Entry<Key, Materialized> entry : entries.entrySet()) {
+            remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the current entry count.
+     *
+     * @return the current entry count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the estimated memory used by the entries.
+     *
+     * @return the estimated memory used in bytes.
+     */
+    public long getMemoryUsage() {
+        return memory.get();
+    }
+
+    /**
+     * Gets the memory budget.
+     *
+     * @return the memory budget in bytes.
+     */
+    public long getMaximumMemory() {
+        return maximumMemory;
+    }
+
+    /**
+     * Sets the memory budget. Zero disables the cache.
+     *
+     * @param maximumMemory the memory budget in bytes.
+     */
+    public void setMaximumMemory(final long maximumMemory) {
+        this.maximumMemory = Math.max(0, maximumMemory);
+        if (this.maximumMemory == 0) {
+            clear();
+        } else if (memory.get() > this.maximumMemory) {
+            evict(this.maximumMemory);
+        }
+    }
+
+    /**
+     * Gets the count of materialized results reused.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the count of view executions.
+     *
+     * @return the refresh count.
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Gets the count of entries evicted by memory budget.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        refreshes.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, memory=%d, hits=%d, refreshes=%d, evictions=%d", size(), getMemoryUsage(),
+                getHitCount(), getRefreshCount(), getEvictionCount());
+    }
+
+    /**
+     * A materialized view result, stored by column.
+     */
+    public static final class Materialized {
+
+        /**
+         * The column values.
+         */
+        private final Object[][] columns;
+
+        /**
+         * The row count.
+         */
+        private final int rowCount;
+
+        /**
+         * State of the source files before the execution.
+         */
+        private final FileStamp stamp;
+
+        /**
+         * Estimated memory used.
+         */
+        private final long size;
+
+        /**
+         * Last access clock value.
+         */
+        private volatile long lastAccess;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param rows        the view rows.
+         * @param columnCount the view column count.
+         * @param stamp       state of the source files before the execution.
+         * @param size        estimated memory used.
+         */
+        private Materialized(final List<Object[]> rows, final int columnCount, final FileStamp stamp,
+                             final long size) {
+            this.rowCount = rows.size();
+            this.stamp = stamp;
+            this.size = size;
+            this.columns = new Object[columnCount][rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                final Object[] values = rows.get(row);
+                for (int column = 0; column < columnCount; column++) {
+                    columns[column][row] = values[column];
+                }
+            }
+        }
+
+        /**
+         * Gets the row count.
+         *
+         * @return the row count.
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Gets the rows with only the selected columns.
+         *
+         * @param columnIndexes the column index for each value in the rows.
+         * @return the rows.
+         */
+        public List<Object[]> getRows(final int[] columnIndexes) {
+            final List<Object[]> rows = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                final Object[] values = new Object[columnIndexes.length];
+                for (int i = 0; i < columnIndexes.length; i++) {
+                    values[i] = columns[columnIndexes[i]][row];
+                }
+
+                rows.add(values);
+            }
+
+            return rows;
+        }
+    }
+
+    /**
+     * Cache key.
+     */
+    private static final class Key {
+
+        /**
+         * The view definition.
+         */
+        private final String definition;
+
+        /**
+         * The view source files.
+         */
+        private final List<File> sourceFiles;
+
+        /**
+         * The connection settings that change values.
+         */
+        private final List<Object> settings;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param definition     the view definition.
+         * @param sourceFiles    the view source files.
+         * @param connectionInfo the connection information.
+         */
+        Key(final String definition, final List<File> sourceFiles, final ConnectionInfo connectionInfo) {
+            this.definition = definition;
+            this.sourceFiles = sourceFiles;
+            this.settings = Arrays.asList(connectionInfo.getCharset(), connectionInfo.getLocale(),
+                    connectionInfo.getTimeZone(), connectionInfo.isBcdRounding());
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return definition.equals(key.definition) && sourceFiles.equals(key.sourceFiles)
+                    && settings.equals(key.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(definition, sourceFiles, settings);
+        }
+    }
+}
@@ -0,0 +1,700 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.exceptions.InternalException;
+import com.googlecode.paradox.metadata.Schema;
+import com.googlecode.paradox.metadata.Table;
+import com.googlecode.paradox.metadata.View;
+import com.googlecode.paradox.parser.SQLParser;
+import com.googlecode.paradox.parser.nodes.*;
+import com.googlecode.paradox.planner.nodes.FieldNode;
+import com.googlecode.paradox.planner.nodes.FunctionNode;
+import com.googlecode.paradox.planner.nodes.PlanTableNode;
+import com.googlecode.paradox.planner.nodes.comparable.AbstractComparableNode;
+import com.googlecode.paradox.planner.nodes.comparable.BetweenNode;
+import com.googlecode.paradox.planner.nodes.comparable.InNode;
+import com.googlecode.paradox.planner.nodes.join.ANDNode;
+import com.googlecode.paradox.planner.plan.SelectPlan;
+import com.googlecode.paradox.results.Column;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the view references in a SELECT statement by the view tables and conditions, so the view and the query
+ * conditions are planned together and only the columns used are read from the view tables.
+ * <p>
+ * Only simple views are inlined: no DISTINCT, GROUP BY, aggregate functions, LIMIT or OFFSET, only inner or cross
+ * joins and only table fields in the SELECT list. The view must be referenced as an inner or cross join in a query
+ * without right or full joins. Views with ORDER BY are inlined only when they are the only table of a query without
+ * ordering and grouping. Materialized views are never inlined. Any ambiguity keeps the view reference unchanged.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public final class ViewInliner {
+
+    /**
+     * Maximum nesting level of inlined views.
+     */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * Separator between the view alias and the view table alias.
+     */
+    private static final char SEPARATOR = '$';
+
+    /**
+     * Utility class, not for use.
+     */
+    private ViewInliner() {
+        // Unused.
+    }
+
+    /**
+     * Inlines the views referenced in a SELECT statement.
+     *
+     * @param connectionInfo the connection information.
+     * @param select         the SELECT statement to change.
+     */
+    public static void inline(final ConnectionInfo connectionInfo, final SelectNode select) {
+        inline(connectionInfo, select, 0);
+    }
+
+    /**
+     * Inlines the views referenced in a SELECT statement.
+     *
+     * @param connectionInfo the connection information.
+     * @param select         the SELECT statement to change.
+     * @param depth          the view nesting level.
+     */
+    private static void inline(final ConnectionInfo connectionInfo, final SelectNode select, final int depth) {
+        if (depth >= MAX_DEPTH || select.getTables().stream().anyMatch(ViewInliner::isOuterJoin)) {
+            return;
+        }
+
+        int index = 0;
+        while (index < select.getTables().size()) {
+            final TableNode reference = select.getTables().get(index);
+            int count = 0;
+            if (!(reference instanceof JoinNode) || isInnerJoin(reference)) {
+                final Table table = findTable(connectionInfo, reference);
+                if (table instanceof View && !((View) table).isMaterialized()) {
+                    count = inlineView(connectionInfo, select, index, (View) table, depth);
+                }
+            }
+
+            index += Math.max(1, count);
+        }
+    }
+
+    /**
+     * Inlines one view reference.
+     *
+     * @param connectionInfo the connection information.
+     * @param select         the SELECT statement to change.
+     * @param index          the view reference index.
+     * @param view           the view to inline.
+     * @param depth          the view nesting level.
+     * @return the count of tables inlined or zero if the view is not inlined.
+     */
+    @SuppressWarnings("java:S1166")
+    private static int inlineView(final ConnectionInfo connectionInfo, final SelectNode select, final int index,
+                                  final View view, final int depth) {
+        final SelectNode definition = parse(view);
+        final SelectNode planned = parse(view);
+        if (definition == null || planned == null) {
+            return 0;
+        }
+
+        inline(connectionInfo, definition, depth + 1);
+        inline(connectionInfo, planned, depth + 1);
+        if (!isSimple(definition, select)) {
+            return 0;
+        }
+
+        final SelectPlan plan;
+        try {
+            plan = new SelectPlan(connectionInfo, planned);
+        } catch (final SQLException | InternalException e) {
+            // The view errors are reported when the view is used.
+            return 0;
+        }
+
+        final Inlining inlining = new Inlining(connectionInfo, select, index, definition, plan);
+        if (!inlining.prepare()) {
+            return 0;
+        }
+
+        inlining.apply();
+
+        // The plan must be invalidated when a view inlined changes.
+        select.getViewFiles().addAll(definition.getViewFiles());
+        if (view.getFile() != null) {
+            select.getViewFiles().add(view.getFile());
+        }
+
+        return definition.getTables().size();
+    }
+
+    /**
+     * Parses the view definition.
+     *
+     * @param view the view.
+     * @return the view SELECT statement or <code>null</code> if not valid.
+     */
+    @SuppressWarnings("java:S1166")
+    private static SelectNode parse(final View view) {
+        try {
+            final StatementNode statement = new SQLParser(view.getQuery()).parse();
+            if (statement instanceof SelectNode) {
+                return (SelectNode) statement;
+            }
+        } catch (final SQLException e) {
+            // The view errors are reported when the view is used.
+        }
+
+        return null;
+    }
+
+    /**
+     * Check if the view definition can be inlined in the statement.
+     *
+     * @param definition the view definition.
+     * @param select     the statement referencing the view.
+     * @return <code>true</code> if the view definition can be inlined.
+     */
+    private static boolean isSimple(final SelectNode definition, final SelectNode select) {
+        if (definition.isDistinct() || !definition.getGroups().isEmpty() || definition.getLimit() != null
+                || definition.getOffset() != null || definition.getParameterCount() > 0
+                || hasGrouping(definition.getFields())
+                || definition.getTables().stream().skip(1).anyMatch(table -> !isInnerJoin(table))) {
+            return false;
+        }
+
+        if (!definition.getOrder().isEmpty()) {
+            // The view order is kept only when it is the query order.
+            return select.getTables().size() == 1 && select.getOrder().isEmpty() && select.getGroups().isEmpty()
+                    && !hasGrouping(select.getFields())
+                    && definition.getOrder().stream().allMatch(ViewInliner::isField);
+        }
+
+        return true;
+    }
+
+    /**
+     * Check for aggregate functions.
+     *
+     * @param fields the SELECT fields.
+     * @return <code>true</code> if there is any aggregate function.
+     */
+    private static boolean hasGrouping(final List<SQLNode> fields) {
+        return fields.stream().anyMatch(field -> field instanceof FunctionNode && ((FunctionNode) field).isGrouping());
+    }
+
+    /**
+     * Check for inner or cross joins.
+     *
+     * @param table the table reference.
+     * @return <code>true</code> if the table is an inner or cross join.
+     */
+    private static boolean isInnerJoin(final TableNode table) {
+        if (table instanceof JoinNode) {
+            final JoinType type = ((JoinNode) table).getJoinType();
+            return type == JoinType.INNER || type == JoinType.CROSS;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check for right or full joins.
+     *
+     * @param table the table reference.
+     * @return <code>true</code> if the table is a right or full join.
+     */
+    private static boolean isOuterJoin(final TableNode table) {
+        if (table instanceof JoinNode) {
+            final JoinType type = ((JoinNode) table).getJoinType();
+            return type == JoinType.RIGHT || type == JoinType.FULL;
+        }
+
+        return false;
+    }
+
+    /**
+     * Check for a table field reference.
+     *
+     * @param node the node to check.
+     * @return <code>true</code> if the node is a table field reference.
+     */
+    private static boolean isField(final SQLNode node) {
+        return node != null && node.getClass() == FieldNode.class;
+    }
+
+    /**
+     * Finds a referenced table.
+     *
+     * @param connectionInfo the connection information.
+     * @param reference      the table reference.
+     * @return the table or <code>null</code> if not found.
+     */
+    @SuppressWarnings("java:S1166")
+    private static Table findTable(final ConnectionInfo connectionInfo, final TableNode reference) {
+        try {
+            final Schema schema;
+            if (reference.getSchemaName() == null) {
+                schema = connectionInfo.getCurrentSchema();
+            } else {
+                schema = connectionInfo.getSchema(connectionInfo.getCatalog(), reference.getSchemaName());
+            }
+
+            if (schema != null) {
+                return schema.findTable(connectionInfo, reference.getName());
+            }
+        } catch (final SQLException e) {
+            // The errors are reported by the planner.
+        }
+
+        return null;
+    }
+
+    /**
+     * Check if a name refers to a table reference.
+     *
+     * @param reference the table reference.
+     * @param name      the name to check.
+     * @return <code>true</code> if the name refers to the table reference.
+     */
+    private static boolean isThis(final TableNode reference, final String name) {
+        return name.equalsIgnoreCase(reference.getName()) || name.equalsIgnoreCase(reference.getAlias());
+    }
+
+    /**
+     * Check if a table has a field.
+     *
+     * @param table the table.
+     * @param name  the field name.
+     * @return <code>true</code> if the table has the field.
+     */
+    private static boolean hasField(final Table table, final String name) {
+        return Arrays.stream(table.getFields()).anyMatch(field -> field.getName().equalsIgnoreCase(name));
+    }
+
+    /**
+     * Gets the field references in a node.
+     *
+     * @param node   the node.
+     * @param fields the list to add the field references.
+     */
+    private static void collect(final SQLNode node, final List<FieldNode> fields) {
+        if (node instanceof FunctionNode) {
+            ((FunctionNode) node).getParameters().forEach(parameter -> collect(parameter, fields));
+        } else if (isField(node)) {
+            fields.add((FieldNode) node);
+        } else if (node instanceof AbstractConditionalNode) {
+            final AbstractConditionalNode conditional = (AbstractConditionalNode) node;
+            collect(conditional.getField(), fields);
+            conditional.getChildren().forEach(child -> collect(child, fields));
+            if (node instanceof AbstractComparableNode) {
+                collect(((AbstractComparableNode) node).getLast(), fields);
+            }
+
+            if (node instanceof BetweenNode) {
+                collect(((BetweenNode) node).getFirst(), fields);
+            } else if (node instanceof InNode) {
+                ((InNode) node).getValues().forEach(value -> collect(value, fields));
+            }
+        }
+    }
+
+    /**
+     * Adds a condition to the statement WHERE clause.
+     *
+     * @param select    the statement.
+     * @param condition the condition to add.
+     */
+    private static void addCondition(final SelectNode select, final AbstractConditionalNode condition) {
+        final AbstractConditionalNode current = select.getCondition();
+        if (condition == null) {
+            return;
+        } else if (current == null) {
+            select.setCondition(condition);
+        } else if (current instanceof ANDNode) {
+            current.addChild(condition);
+        } else {
+            final ANDNode andNode = new ANDNode(current, null);
+            andNode.addChild(condition);
+            select.setCondition(andNode);
+        }
+    }
+
+    /**
+     * One view reference inlining.
+     */
+    private static final class Inlining {
+
+        /**
+         * The connection information.
+         */
+        private final ConnectionInfo connectionInfo;
+
+        /**
+         * The statement referencing the view.
+         */
+        private final SelectNode select;
+
+        /**
+         * The view reference index.
+         */
+        private final int index;
+
+        /**
+         * The view reference.
+         */
+        private final TableNode reference;
+
+        /**
+         * The view definition to inline.
+         */
+        private final SelectNode definition;
+
+        /**
+         * The view tables.
+         */
+        private final List<PlanTableNode> tables;
+
+        /**
+         * The view columns.
+         */
+        private final List<Column> columns;
+
+        /**
+         * The new view table aliases.
+         */
+        private final String[] aliases;
+
+        /**
+         * The new table and field name of the field references.
+         */
+        private final Map<FieldNode, String[]> references = new IdentityHashMap<>();
+
+        /**
+         * The tables of the statement, by reference index.
+         */
+        private final Map<Integer, Table> statementTables = new HashMap<>();
+
+        /**
+         * Creates a new instance.
+         *
+         * @param connectionInfo the connection information.
+         * @param select         the statement referencing the view.
+         * @param index          the view reference index.
+         * @param definition     the view definition to inline.
+         * @param plan           the view plan.
+         */
+        Inlining(final ConnectionInfo connectionInfo, final SelectNode select, final int index,
+                 final SelectNode definition, final SelectPlan plan) {
+            this.connectionInfo = connectionInfo;
+            this.select = select;
+            this.index = index;
+            this.reference = select.getTables().get(index);
+            this.definition = definition;
+            this.tables = plan.getTables();
+            this.columns = plan.getColumns().stream().filter(column -> !column.isHidden())
+                    .collect(Collectors.toList());
+
+            final String referenceName = Optional.ofNullable(reference.getAlias()).orElse(reference.getName());
+            this.aliases = definition.getTables().stream()
+                    .map(table -> referenceName + SEPARATOR + Optional.ofNullable(table.getAlias())
+                            .orElse(table.getName()))
+                    .toArray(String[]::new);
+        }
+
+        /**
+         * Resolves the field references.
+         *
+         * @return <code>true</code> if the view can be inlined.
+         */
+        boolean prepare() {
+            if (tables.size() != aliases.length || !checkColumns() || !checkTables()) {
+                return false;
+            }
+
+            // View field references.
+            final List<FieldNode> viewFields = new ArrayList<>();
+            collect(definition.getCondition(), viewFields);
+            definition.getTables().stream().filter(JoinNode.class::isInstance)
+                    .forEach(table -> collect(((JoinNode) table).getCondition(), viewFields));
+            definition.getOrder().forEach(field -> collect(field, viewFields));
+            for (final FieldNode field : viewFields) {
+                final int table = findViewTable(field);
+                if (table == -1) {
+                    return false;
+                }
+
+                references.put(field, new String[]{aliases[table], field.getName()});
+            }
+
+            // Statement field references.
+            final List<FieldNode> fields = new ArrayList<>();
+            select.getFields().forEach(field -> collect(field, fields));
+            collect(select.getCondition(), fields);
+            select.getTables().stream().filter(JoinNode.class::isInstance)
+                    .forEach(table -> collect(((JoinNode) table).getCondition(), fields));
+            select.getGroups().forEach(field -> collect(field, fields));
+            select.getOrder().forEach(field -> collect(field, fields));
+
+            return fields.stream().allMatch(this::resolve) && select.getFields().stream()
+                    .filter(AsteriskNode.class::isInstance)
+                    .allMatch(field -> checkAsterisk((AsteriskNode) field));
+        }
+
+        /**
+         * Replaces the view reference.
+         */
+        void apply() {
+            // Keep the column names.
+            for (final SQLNode field : select.getFields()) {
+                field.setAlias(field.getAlias());
+            }
+
+            references.forEach((field, target) -> field.setReference(target[0], target[1]));
+
+            final List<SQLNode> fields = new ArrayList<>();
+            for (final SQLNode field : select.getFields()) {
+                if (field instanceof AsteriskNode) {
+                    expand((AsteriskNode) field, fields);
+                } else {
+                    fields.add(field);
+                }
+            }
+
+            select.getFields().clear();
+            select.getFields().addAll(fields);
+
+            final List<TableNode> viewTables = definition.getTables();
+            for (int i = 0; i < aliases.length; i++) {
+                viewTables.get(i).setAlias(aliases[i]);
+            }
+
+            final TableNode first = viewTables.get(0);
+            if (reference instanceof JoinNode) {
+                // The join condition can use any view table, so it is moved to WHERE clause.
+                final JoinNode join = (JoinNode) reference;
+                viewTables.set(0, new JoinNode(first.getSchemaName(), first.getName(), aliases[0],
+                        join.getJoinType(), join.getPosition()));
+                addCondition(select, join.getCondition());
+            }
+
+            select.getTables().remove(index);
+            select.getTables().addAll(index, viewTables);
+            addCondition(select, definition.getCondition());
+
+            select.getOrder().addAll(definition.getOrder());
+            select.getOrderTypes().addAll(definition.getOrderTypes());
+        }
+
+        /**
+         * Check if all view columns are table fields.
+         *
+         * @return <code>true</code> if all view columns are table fields.
+         */
+        private boolean checkColumns() {
+            return columns.stream().allMatch(column -> column.getFunction() == null && column.getField() != null
+                    && findTable(column) != -1);
+        }
+
+        /**
+         * Check for table name conflicts between the view and the statement.
+         *
+         * @return <code>true</code> if there are no conflicts.
+         */
+        private boolean checkTables() {
+            final List<Table> all = new ArrayList<>();
+            tables.forEach(table -> all.add(table.getTable()));
+            for (int i = 0; i < select.getTables().size(); i++) {
+                if (i != index) {
+                    final TableNode node = select.getTables().get(i);
+                    final Table table = ViewInliner.findTable(connectionInfo, node);
+                    if (table == null || conflicts(node)) {
+                        return false;
+                    }
+
+                    statementTables.put(i, table);
+                    all.add(table);
+                }
+            }
+
+            // The same table twice is not supported.
+            final Set<String> names = new HashSet<>();
+            return all.stream().allMatch(table -> names.add(
+                    String.format("%s.%s", table.getSchemaName(), table.getName()).toUpperCase(Locale.ROOT)));
+        }
+
+        /**
+         * Check if a statement table reference can be confused with a view table.
+         *
+         * @param node the statement table reference.
+         * @return <code>true</code> if the names conflict.
+         */
+        private boolean conflicts(final TableNode node) {
+            for (int i = 0; i < tables.size(); i++) {
+                if (isThis(node, tables.get(i).getTable().getName()) || isThis(node, aliases[i])) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Finds the view table of a view column.
+         *
+         * @param column the view column.
+         * @return the view table index or -1 if not found.
+         */
+        private int findTable(final Column column) {
+            for (int i = 0; i < tables.size(); i++) {
+                if (tables.get(i).getTable() == column.getField().getTable()) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Finds the view table of a field reference in the view definition.
+         *
+         * @param field the field reference.
+         * @return the view table index or -1 if not found or ambiguous.
+         */
+        private int findViewTable(final FieldNode field) {
+            int found = -1;
+            for (int i = 0; i < tables.size(); i++) {
+                final PlanTableNode table = tables.get(i);
+                if (table.isThis(field.getTableName()) && hasField(table.getTable(), field.getName())) {
+                    if (found != -1) {
+                        return -1;
+                    }
+
+                    found = i;
+                }
+            }
+
+            return found;
+        }
+
+        /**
+         * Finds a view column by name.
+         *
+         * @param name the column name.
+         * @return the view column or <code>null</code> if not found or ambiguous.
+         */
+        private Column findColumn(final String name) {
+            final List<Column> found = columns.stream().filter(column -> column.getName().equalsIgnoreCase(name))
+                    .collect(Collectors.toList());
+            if (found.size() == 1) {
+                return found.get(0);
+            }
+
+            return null;
+        }
+
+        /**
+         * Resolves a field reference of the statement.
+         *
+         * @param field the field reference.
+         * @return <code>true</code> if resolved without ambiguity.
+         */
+        private boolean resolve(final FieldNode field) {
+            final String tableName = field.getTableName();
+            if (tableName != null && isThis(reference, tableName)) {
+                return addReference(field, findColumn(field.getName()));
+            } else if (tableName != null) {
+                return statementTables.entrySet().stream().anyMatch(entry ->
+                        isThis(select.getTables().get(entry.getKey()), tableName));
+            }
+
+            final boolean other = statementTables.values().stream()
+                    .anyMatch(table -> hasField(table, field.getName()));
+            final Column column = findColumn(field.getName());
+            if (column != null) {
+                return !other && addReference(field, column);
+            }
+
+            // Not a view column, but can not change to a view table field.
+            return columns.stream().noneMatch(c -> c.getName().equalsIgnoreCase(field.getName()))
+                    && tables.stream().noneMatch(table -> hasField(table.getTable(), field.getName()));
+        }
+
+        /**
+         * Changes a field reference to a view table field.
+         *
+         * @param field  the field reference.
+         * @param column the view column.
+         * @return <code>true</code> if the column was found.
+         */
+        private boolean addReference(final FieldNode field, final Column column) {
+            if (column == null) {
+                return false;
+            }
+
+            references.put(field, new String[]{aliases[findTable(column)], column.getField().getName()});
+            return true;
+        }
+
+        /**
+         * Check the asterisk table reference.
+         *
+         * @param field the asterisk field.
+         * @return <code>true</code> if the table reference is valid.
+         */
+        private boolean checkAsterisk(final AsteriskNode field) {
+            return field.getTableName() == null || isThis(reference, field.getTableName())
+                    || statementTables.keySet().stream()
+                    .anyMatch(i -> isThis(select.getTables().get(i), field.getTableName()));
+        }
+
+        /**
+         * Expands the asterisk to the view columns.
+         *
+         * @param field  the asterisk field.
+         * @param fields the list to add the fields.
+         */
+        private void expand(final AsteriskNode field, final List<SQLNode> fields) {
+            if (field.getTableName() != null && !isThis(reference, field.getTableName())) {
+                fields.add(field);
+                return;
+            }
+
+            final List<TableNode> statement = select.getTables();
+            for (int i = 0; i < statement.size(); i++) {
+                if (i == index) {
+                    for (final Column column : columns) {
+                        final FieldNode node = new FieldNode(aliases[findTable(column)],
+                                column.getField().getName(), field.getPosition());
+                        node.setAlias(column.getName());
+                        fields.add(node);
+                    }
+                } else if (field.getTableName() == null) {
+                    final TableNode table = statement.get(i);
+                    fields.add(new AsteriskNode(Optional.ofNullable(table.getAlias()).orElse(table.getName()),
+                            field.getPosition()));
+                }
+            }
+        }
+    }
+}
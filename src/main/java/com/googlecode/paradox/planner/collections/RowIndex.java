@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner.collections;
+
+import com.googlecode.paradox.rowset.ValuesComparator;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Table rows indexed by column value, used to find the rows that can be equal to a value without reading all rows.
+ * <p>
+ * Only values of the same Java type are compared by hash, since {@link ValuesComparator#equals} compares them
+ * without conversion. Rows with values of other types are always returned, so the result is a superset of the equal
+ * rows, in table order, and the caller must still evaluate the condition. Not thread safe.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+public final class RowIndex {
+
+    /**
+     * Types compared by hash lookup.
+     */
+    private static final Set<Class<?>> HASHED_TYPES = new HashSet<>(Arrays.asList(Boolean.class, Byte.class,
+            BigDecimal.class, Integer.class, Long.class, Time.class, Timestamp.class, Date.class, String.class));
+
+    /**
+     * The table rows.
+     */
+    private final List<Object[]> rows;
+
+    /**
+     * The column indexes, by column position.
+     */
+    private final Map<Integer, ColumnIndex> indexes = new HashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param rows the table rows.
+     */
+    public RowIndex(final Collection<Object[]> rows) {
+        if (rows instanceof List) {
+            this.rows = (List<Object[]>) rows;
+        } else {
+            this.rows = new ArrayList<>(rows);
+        }
+    }
+
+    /**
+     * Gets all rows.
+     *
+     * @return all rows.
+     */
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    /**
+     * Finds the rows that can have the column equal to the value. The column index is built on first use.
+     *
+     * @param column the column position in rows.
+     * @param value  the value to find.
+     * @return the rows that can be equal, in table order.
+     */
+    public List<Object[]> find(final int column, final Object value) {
+        if (value == null) {
+            // Null never matches.
+            return Collections.emptyList();
+        }
+
+        return indexes.computeIfAbsent(column, this::createIndex).find(value);
+    }
+
+    /**
+     * Creates a column index.
+     *
+     * @param column the column position in rows.
+     * @return the column index.
+     */
+    private ColumnIndex createIndex(final int column) {
+        final ColumnIndex index = new ColumnIndex();
+        for (int i = 0; i < rows.size(); i++) {
+            final Object value = rows.get(i)[column];
+            if (value != null) {
+                index.add(value, i);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Gets the hash key of a value.
+     *
+     * @param value the value.
+     * @return the hash key.
+     */
+    private static Object key(final Object value) {
+        if (value instanceof BigDecimal) {
+            // Ignore the scale as in numeric comparison.
+            final BigDecimal decimal = (BigDecimal) value;
+            if (decimal.signum() == 0) {
+                return BigDecimal.ZERO;
+            }
+
+            return decimal.stripTrailingZeros();
+        }
+
+        return value;
+    }
+
+    /**
+     * Rows of a column by value type.
+     */
+    private final class ColumnIndex {
+
+        /**
+         * The row positions by value type.
+         */
+        private final Map<Class<?>, List<Integer>> positions = new HashMap<>();
+
+        /**
+         * The row positions by hash key, for hashed types.
+         */
+        private final Map<Object, List<Integer>> keys = new HashMap<>();
+
+        /**
+         * Adds a row value.
+         *
+         * @param value    the row value.
+         * @param position the row position.
+         */
+        void add(final Object value, final int position) {
+            positions.computeIfAbsent(value.getClass(), type -> new ArrayList<>()).add(position);
+            if (HASHED_TYPES.contains(value.getClass())) {
+                keys.computeIfAbsent(key(value), key -> new ArrayList<>()).add(position);
+            }
+        }
+
+        /**
+         * Finds the rows that can be equal to the value.
+         *
+         * @param value the value to find.
+         * @return the rows that can be equal, in table order.
+         */
+        List<Object[]> find(final Object value) {
+            final List<List<Integer>> found = new ArrayList<>();
+            for (final Map.Entry<Class<?>, List<Integer>> entry : positions.entrySet()) {
+                if (entry.getKey() != value.getClass() || !HASHED_TYPES.contains(entry.getKey())) {
+                    // Values compared with conversions.
+                    found.add(entry.getValue());
+                } else {
+                    final List<Integer> equal = keys.get(key(value));
+                    if (equal != null) {
+                        found.add(equal);
+                    }
+                }
+            }
+
+            if (found.isEmpty()) {
+                return Collections.emptyList();
+            } else if (found.size() == 1) {
+                final List<Integer> list = found.get(0);
+                final List<Object[]> ret = new ArrayList<>(list.size());
+                list.forEach(position -> ret.add(rows.get(position)));
+                return ret;
+            }
+
+            // Keep the table order.
+            final BitSet bits = new BitSet(rows.size());
+            found.forEach(list -> list.forEach(bits::set));
+            final List<Object[]> ret = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                ret.add(rows.get(i));
+            }
+
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.googlecode.paradox.planner.collections;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.rowset.ValuesComparator;
+import com.googlecode.paradox.rowset.ValuesConverter;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * A set of values converted to a single Java type, used to test value membership in constant time.
+ * <p>
+ * Values that can not be converted to the set type keeps the {@link ValuesComparator#equals} semantics and are
+ * compared one by one, as well as the values checked of other types. The set is not changed after creation and can
+ * be read by many threads.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public final class TypedValueSet {
+
+    /**
+     * Types supported by hash lookup.
+     */
+    private static final Set<Class<?>> SUPPORTED_TYPES = new HashSet<>(Arrays.asList(Boolean.class, Byte.class,
+            Double.class, BigDecimal.class, Integer.class, Long.class, Time.class, Timestamp.class, Date.class,
+            String.class));
+
+    /**
+     * The set value type.
+     */
+    private final Class<?> type;
+
+    /**
+     * The converted values.
+     */
+    private final Set<Object> keys = new HashSet<>();
+
+    /**
+     * Values that can not be converted to the set type.
+     */
+    private final List<Object> others = new ArrayList<>();
+
+    /**
+     * All values, to compare with values of other types.
+     */
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param type           the value type to use in set.
+     * @param values         the set values.
+     * @param connectionInfo the connection information.
+     */
+    public TypedValueSet(final Class<?> type, final Collection<?> values, final ConnectionInfo connectionInfo) {
+        this.type = type;
+
+        final boolean supported = SUPPORTED_TYPES.contains(type);
+        for (final Object value : values) {
+            if (value == null) {
+                // Null never matches.
+                continue;
+            }
+
+            this.values.add(value);
+            if (supported && (value.getClass() == type || value instanceof String)) {
+                final Object key = convert(value, type, connectionInfo);
+                if (key != null) {
+                    keys.add(key);
+                }
+            } else {
+                others.add(value);
+            }
+        }
+    }
+
+    /**
+     * Converts a value to the set type in the same way of {@link ValuesComparator#equals}.
+     *
+     * @param value          the value to convert.
+     * @param type           the set type.
+     * @param connectionInfo the connection information.
+     * @return the converted value or <code>null</code> if it is not possible to convert.
+     */
+    @SuppressWarnings({"java:S1142", "java:S3776", "java:S1541"})
+    private static Object convert(final Object value, final Class<?> type, final ConnectionInfo connectionInfo) {
+        if (type == Boolean.class) {
+            return ValuesConverter.getBoolean(value, connectionInfo);
+        } else if (type == Byte.class) {
+            return ValuesConverter.getByte(value, connectionInfo);
+        } else if (type == Double.class) {
+            final Double ret = ValuesConverter.getDouble(value, connectionInfo);
+            if (ret == null || ret.isNaN()) {
+                return null;
+            } else if (ret == 0) {
+                // Same key for positive and negative zero.
+                return 0D;
+            }
+
+            return ret;
+        } else if (type == BigDecimal.class) {
+            final BigDecimal ret = ValuesConverter.getBigDecimal(value, connectionInfo);
+            if (ret == null) {
+                return null;
+            } else if (ret.signum() == 0) {
+                return BigDecimal.ZERO;
+            }
+
+            // Ignore the scale as in numeric comparison.
+            return ret.stripTrailingZeros();
+        } else if (type == Integer.class) {
+            return ValuesConverter.getInteger(value, connectionInfo);
+        } else if (type == Long.class) {
+            return ValuesConverter.getLong(value, connectionInfo);
+        } else if (type == Time.class) {
+            return ValuesConverter.getTime(value, connectionInfo);
+        } else if (type == Timestamp.class) {
+            return ValuesConverter.getTimestamp(value, connectionInfo);
+        } else if (type == Date.class) {
+            return ValuesConverter.getDate(value, connectionInfo);
+        }
+
+        return ValuesConverter.getString(value, connectionInfo);
+    }
+
+    /**
+     * Gets the set value type.
+     *
+     * @return the set value type.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Check if the value is in this set.
+     *
+     * @param value          the value to check.
+     * @param connectionInfo the connection information.
+     * @return <code>true</code> if the value is in this set.
+     */
+    public boolean contains(final Object value, final ConnectionInfo connectionInfo) {
+        if (value == null) {
+            return false;
+        } else if (value.getClass() != type) {
+            return contains(values, value, connectionInfo);
+        } else if (!keys.isEmpty() && keys.contains(convert(value, type, connectionInfo))) {
+            return true;
+        }
+
+        return contains(others, value, connectionInfo);
+    }
+
+    /**
+     * Check if the value is equal to one of the values in list.
+     *
+     * @param list           the values to compare.
+     * @param value          the value to check.
+     * @param connectionInfo the connection information.
+     * @return <code>true</code> if the value is in list.
+     */
+    private static boolean contains(final List<Object> list, final Object value,
+                                    final ConnectionInfo connectionInfo) {
+        for (final Object other : list) {
+            if (ValuesComparator.equals(value, other, connectionInfo)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
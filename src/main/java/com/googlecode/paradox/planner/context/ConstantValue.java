@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner.context;
+
+import com.googlecode.paradox.results.ParadoxType;
+
+import java.sql.SQLException;
+
+/**
+ * The value of a constant function in one execution, evaluated before reading the rows.
+ * <p>
+ * An evaluation error is reported only when the value is used, as if the function were evaluated with the rows.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+public final class ConstantValue {
+
+    /**
+     * The function value.
+     */
+    private final Object value;
+
+    /**
+     * The function value type.
+     */
+    private final ParadoxType type;
+
+    /**
+     * The evaluation error.
+     */
+    private final SQLException error;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param value the function value.
+     * @param type  the function value type.
+     */
+    public ConstantValue(final Object value, final ParadoxType type) {
+        this.value = value;
+        this.type = type;
+        this.error = null;
+    }
+
+    /**
+     * Creates a new instance for an evaluation error.
+     *
+     * @param error the evaluation error.
+     */
+    public ConstantValue(final SQLException error) {
+        this.value = null;
+        this.type = null;
+        this.error = error;
+    }
+
+    /**
+     * Gets the function value.
+     *
+     * @return the function value.
+     * @throws SQLException in case of evaluation error.
+     */
+    public Object getValue() throws SQLException {
+        if (error != null) {
+            throw error;
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets the function value type.
+     *
+     * @return the function value type or <code>null</code> if unknown.
+     */
+    public ParadoxType getType() {
+        return type;
+    }
+}
@@ -13,18 +13,23 @@ package com.googlecode.paradox.planner.context;
 import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.exceptions.ParadoxException;
 import com.googlecode.paradox.exceptions.ParadoxNotSupportedException;
+import com.googlecode.paradox.exceptions.ParadoxTimeoutException;
+import com.googlecode.paradox.planner.collections.TypedValueSet;
+import com.googlecode.paradox.planner.nodes.FunctionNode;
 import com.googlecode.paradox.results.ParadoxType;
 import com.googlecode.paradox.utils.FunctionalUtils;
 
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.IdentityHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.function.Predicate;
 
 /**
  * The planer execution context.
  *
- * @version 1.0
+ * @version 1.8
  * @since 1.6.0
  */
 public class Context {
@@ -32,7 +37,12 @@ public class Context {
     /**
      * If this statement was cancelled.
      */
-    protected boolean cancelled;
+    protected volatile boolean cancelled;
+
+    /**
+     * The query timeout in seconds, if this execution was cancelled by timeout.
+     */
+    private volatile int timeoutSeconds;
 
     /**
      * The connection information.
@@ -49,6 +59,21 @@ public class Context {
      */
     private final ParadoxType[] parameterTypes;
 
+    /**
+     * Values of the constant functions in this execution, by constant function index.
+     */
+    private ConstantValue[] constantValues = new ConstantValue[0];
+
+    /**
+     * The IN value sets of this execution, by IN node index.
+     */
+    private TypedValueSet[] valueSets = new TypedValueSet[0];
+
+    /**
+     * Values of the common expressions already evaluated in the current row, one by thread.
+     */
+    private final ThreadLocal<RowValues> rowValues = ThreadLocal.withInitial(RowValues::new);
+
     /**
      * Creates a new execution context.
      *
@@ -90,6 +115,60 @@ public class Context {
         return parameterTypes;
     }
 
+    /**
+     * Gets the values of the constant functions in this execution, by constant function index. The values are read
+     * only.
+     *
+     * @return the values of the constant functions.
+     */
+    public ConstantValue[] getConstantValues() {
+        return constantValues;
+    }
+
+    /**
+     * Sets the values of the constant functions in this execution, evaluated before reading the rows.
+     *
+     * @param constantValues the values of the constant functions, by constant function index.
+     */
+    public void setConstantValues(final ConstantValue[] constantValues) {
+        this.constantValues = constantValues;
+    }
+
+    /**
+     * Gets the IN value sets of this execution, by IN node index. The sets are read only.
+     *
+     * @return the IN value sets.
+     */
+    public TypedValueSet[] getValueSets() {
+        return valueSets;
+    }
+
+    /**
+     * Sets the IN value sets of this execution, built before reading the rows.
+     *
+     * @param valueSets the IN value sets, by IN node index.
+     */
+    public void setValueSets(final TypedValueSet[] valueSets) {
+        this.valueSets = valueSets;
+    }
+
+    /**
+     * Gets the values of the common expressions already evaluated in the row.
+     *
+     * @param row the current row.
+     * @return the values of the common expressions.
+     */
+    public Map<FunctionNode, Object> getRowValues(final Object[] row) {
+        final RowValues current = rowValues.get();
+        if (row != current.row) {
+            // Values are valid only in the same row.
+            current.values.clear();
+            current.row = row;
+        }
+
+        return current.values;
+    }
+
     /**
      * Gets the current locale to use in execution.
      *
@@ -109,6 +188,16 @@ public class Context {
         throw new ParadoxNotSupportedException(ParadoxNotSupportedException.Error.CANCEL_NOT_SUPPORTED);
     }
 
+    /**
+     * Cancel this execution because the query timeout expired.
+     *
+     * @param seconds the query timeout in seconds.
+     */
+    public void timeout(final int seconds) {
+        this.timeoutSeconds = seconds;
+        this.cancelled = true;
+    }
+
     /**
      * Creates a predicate to use in stream API for cancel request.
      *
@@ -127,9 +216,29 @@ public class Context {
      */
     public boolean checkCancelState() throws SQLException {
         if (cancelled) {
+            if (timeoutSeconds > 0) {
+                throw new ParadoxTimeoutException(timeoutSeconds);
+            }
+
             throw new ParadoxException(ParadoxException.Error.OPERATION_CANCELLED);
         }
 
         return true;
     }
+
+    /**
+     * The common expressions values in a row.
+     */
+    private static final class RowValues {
+
+        /**
+         * The expression values.
+         */
+        private final Map<FunctionNode, Object> values = new IdentityHashMap<>();
+
+        /**
+         * The row of the values.
+         */
+        private Object[] row;
+    }
 }
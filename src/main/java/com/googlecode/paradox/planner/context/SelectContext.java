@@ -11,12 +11,17 @@
 package com.googlecode.paradox.planner.context;
 
 import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.metadata.MetadataFilter;
+import com.googlecode.paradox.planner.collections.RowIndex;
+import com.googlecode.paradox.planner.nodes.PlanTableNode;
 import com.googlecode.paradox.results.ParadoxType;
 
+import java.util.Map;
+
 /**
  * The SELECT execution context.
  *
- * @version 1.0
+ * @version 1.4
  * @since 1.6.0
  */
 public class SelectContext extends Context {
@@ -26,6 +31,21 @@ public class SelectContext extends Context {
      */
     private int maxRows;
 
+    /**
+     * The result types of the SELECT columns in this execution.
+     */
+    private ParadoxType[] columnTypes;
+
+    /**
+     * Table data shared by the executions of a batch, or <code>null</code> to read the tables in every execution.
+     */
+    private Map<PlanTableNode, RowIndex> sharedTableData;
+
+    /**
+     * The schema and table patterns pushed down to the system tables (<code>null</code> for none).
+     */
+    private MetadataFilter metadataFilter;
+
     /**
      * Creates a new SELECT context.
      *
@@ -63,4 +83,60 @@ public class SelectContext extends Context {
     public void setMaxRows(int maxRows) {
         this.maxRows = maxRows;
     }
+
+    /**
+     * Gets the result types of the SELECT columns in this execution. A <code>null</code> type means the plan column
+     * type.
+     *
+     * @return the result types of the SELECT columns.
+     */
+    public ParadoxType[] getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * Sets the result types of the SELECT columns in this execution.
+     *
+     * @param columnTypes the result types of the SELECT columns.
+     */
+    public void setColumnTypes(final ParadoxType[] columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+
+    /**
+     * Gets the schema and table patterns pushed down to the system tables.
+     *
+     * @return the metadata filter or <code>null</code> for none.
+     */
+    public MetadataFilter getMetadataFilter() {
+        return metadataFilter;
+    }
+
+    /**
+     * Sets the schema and table patterns pushed down to the system tables.
+     *
+     * @param metadataFilter the metadata filter or <code>null</code> for none.
+     */
+    public void setMetadataFilter(final MetadataFilter metadataFilter) {
+        this.metadataFilter = metadataFilter;
+    }
+
+    /**
+     * Gets the table data shared by the executions of a batch.
+     *
+     * @return the shared table data or <code>null</code> if there is no batch.
+     */
+    public Map<PlanTableNode, RowIndex> getSharedTableData() {
+        return sharedTableData;
+    }
+
+    /**
+     * Sets the table data shared by the executions of a batch. Each table is read once and every execution reads
+     * only the rows that can match its parameter key, if any.
+     *
+     * @param sharedTableData the shared table data.
+     */
+    public void setSharedTableData(final Map<PlanTableNode, RowIndex> sharedTableData) {
+        this.sharedTableData = sharedTableData;
+    }
 }
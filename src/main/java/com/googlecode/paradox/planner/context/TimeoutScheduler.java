@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner.context;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels the executions that exceed the query timeout. All statements share one daemon thread.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+public final class TimeoutScheduler {
+
+    /**
+     * Utility class, not for use.
+     */
+    private TimeoutScheduler() {
+        // Not used.
+    }
+
+    /**
+     * Schedules the execution cancel.
+     *
+     * @param context the execution context.
+     * @param seconds the query timeout in seconds (zero means no timeout).
+     * @return the scheduled cancel, to be cancelled when the execution ends, or <code>null</code> if there is no
+     * timeout.
+     */
+    public static ScheduledFuture<?> schedule(final Context context, final int seconds) {
+        if (seconds <= 0) {
+            return null;
+        }
+
+        return Holder.EXECUTOR.schedule(() -> context.timeout(seconds), seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Lazy creates the scheduler thread.
+     */
+    private static final class Holder {
+
+        /**
+         * The scheduler.
+         */
+        private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+        /**
+         * Utility class, not for use.
+         */
+        private Holder() {
+            // Not used.
+        }
+
+        /**
+         * Creates the scheduler.
+         *
+         * @return the scheduler.
+         */
+        private static ScheduledThreadPoolExecutor createExecutor() {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, (Runnable runnable) -> {
+                final Thread thread = new Thread(runnable, "paradox-query-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // Finished executions must not keep their contexts in memory until the timeout.
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
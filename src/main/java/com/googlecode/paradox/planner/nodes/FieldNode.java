@@ -21,7 +21,7 @@ import java.util.Set;
 /**
  * Stores the field values.
  *
- * @version 1.6
+ * @version 1.7
  * @since 1.0
  */
 public class FieldNode extends SQLNode {
@@ -29,7 +29,7 @@ public class FieldNode extends SQLNode {
     /**
      * This field table name.
      */
-    protected final String tableName;
+    protected String tableName;
 
     /**
      * Field index used in filter values.
@@ -62,6 +62,17 @@ public class FieldNode extends SQLNode {
         return this.tableName;
     }
 
+    /**
+     * Changes the field reference, keeping the field alias.
+     *
+     * @param tableName the new table name.
+     * @param name      the new field name.
+     */
+    public void setReference(final String tableName, final String name) {
+        this.tableName = tableName;
+        this.name = name;
+    }
+
     /**
      * {@inheritDoc}.
      */
@@ -15,10 +15,13 @@ import com.googlecode.paradox.exceptions.SyntaxError;
 import com.googlecode.paradox.function.AbstractFunction;
 import com.googlecode.paradox.function.FunctionFactory;
 import com.googlecode.paradox.function.aggregate.CountFunction;
+import com.googlecode.paradox.function.aggregate.MaxFunction;
+import com.googlecode.paradox.function.aggregate.MinFunction;
 import com.googlecode.paradox.parser.ScannerPosition;
 import com.googlecode.paradox.parser.nodes.AsteriskNode;
 import com.googlecode.paradox.parser.nodes.SQLNode;
 import com.googlecode.paradox.planner.FieldValueUtils;
+import com.googlecode.paradox.planner.context.ConstantValue;
 import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.results.Column;
 import com.googlecode.paradox.results.ParadoxType;
@@ -26,12 +29,11 @@ import com.googlecode.paradox.results.ParadoxType;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Stores a function node.
  *
- * @version 1.5
+ * @version 1.12
  * @since 1.6.0
  */
 public class FunctionNode extends FieldNode {
@@ -51,6 +53,37 @@ public class FunctionNode extends FieldNode {
      */
     private FieldNode[] fields;
 
+    /**
+     * If this function result is constant in one execution.
+     */
+    private boolean constant;
+
+    /**
+     * The constant value index in the execution context.
+     */
+    private int constantIndex = -1;
+
+    /**
+     * The node that evaluates this expression once by row for all the equal nodes in plan.
+     */
+    private FunctionNode commonExpression;
+
+    /**
+     * The grouping functions in this function (including itself).
+     */
+    private volatile List<FunctionNode> groupingNodes;
+
+    /**
+     * The parameter indexes that can not be null.
+     */
+    private volatile int[] requiredParameters;
+
+    /**
+     * The parameter evaluation frames, one by thread.
+     */
+    private final ThreadLocal<EvaluationFrame> frames =
+            ThreadLocal.withInitial(() -> new EvaluationFrame(parameters.size()));
+
     /**
      * Creates a new instance.
      *
@@ -91,6 +124,61 @@ public class FunctionNode extends FieldNode {
 
         // Lets the function validade the parameters statically.
         this.function.validate(this.parameters);
+
+        this.groupingNodes = null;
+        this.constant = isConstantFunction();
+    }
+
+    /**
+     * Check if this function can be evaluated only once by execution: a non volatile function with only values,
+     * parameters or other constant functions as parameters.
+     *
+     * @return <code>true</code> if this function can be evaluated only once by execution.
+     */
+    private boolean isConstantFunction() {
+        if (function.isVolatile() || function.isGrouping()) {
+            return false;
+        }
+
+        for (final SQLNode node : parameters) {
+            if (!(node instanceof ValueNode) && !(node instanceof ParameterNode)
+                    && !(node instanceof FunctionNode && ((FunctionNode) node).isConstant())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the parameter indexes that can not be null.
+     *
+     * @return the parameter indexes that can not be null.
+     */
+    private int[] getRequiredParameters() {
+        if (requiredParameters == null) {
+            final Column[] columns = function.getColumns();
+            int count = 0;
+            final int[] indexes = new int[columns.length];
+            for (final Column column : columns) {
+                if (column.getColumnType() == AbstractFunction.IN && !column.isNullable()) {
+                    indexes[count++] = column.getIndex() - 1;
+                }
+            }
+
+            requiredParameters = Arrays.copyOf(indexes, count);
+        }
+
+        return requiredParameters;
+    }
+
+    /**
+     * Gets if this function result is constant in one execution.
+     *
+     * @return <code>true</code> if this function result is constant in one execution.
+     */
+    public boolean isConstant() {
+        return constant;
     }
 
     /**
@@ -144,6 +232,7 @@ public class FunctionNode extends FieldNode {
      */
     public void addParameter(final SQLNode parameter) {
         this.parameters.add(parameter);
+        this.groupingNodes = null;
     }
 
     @Override
@@ -165,7 +254,7 @@ public class FunctionNode extends FieldNode {
     }
 
     /**
-     * The returned value type.
+     * The returned value type known before the execution.
      *
      * @return the returned value type.
      */
@@ -173,6 +262,48 @@ public class FunctionNode extends FieldNode {
         return function.getFieldType();
     }
 
+    /**
+     * The returned value type of the last evaluation in the current thread.
+     *
+     * @param context the execution context.
+     * @return the returned value type.
+     */
+    public ParadoxType getType(final Context context) {
+        if (!function.isDynamicType()) {
+            return function.getFieldType();
+        }
+
+        final FunctionNode node;
+        if (commonExpression != null) {
+            node = commonExpression;
+        } else {
+            node = this;
+        }
+
+        final ConstantValue constantValue = node.getConstantValue(context);
+        final ParadoxType type;
+        if (constantValue != null) {
+            type = constantValue.getType();
+        } else {
+            type = node.frames.get().type;
+        }
+
+        if (type == null) {
+            return function.getFieldType();
+        }
+
+        return type;
+    }
+
+    /**
+     * Gets if the returned value type depends on the parameter values.
+     *
+     * @return <code>true</code> if the returned value type depends on the parameter values.
+     */
+    public boolean isDynamicType() {
+        return function.isDynamicType();
+    }
+
     /**
      * Gets the function alias name.
      *
@@ -199,10 +330,100 @@ public class FunctionNode extends FieldNode {
      */
     public Object execute(final Context context, final Object[] row, final List<Column> loadedColumns)
             throws SQLException {
-        final Object[] values = new Object[parameters.size()];
-        final ParadoxType[] types = new ParadoxType[parameters.size()];
+        if (commonExpression != null) {
+            return evaluateCommon(context, row, loadedColumns);
+        } else if (!constant) {
+            return evaluate(context, row, loadedColumns);
+        }
 
-        for (int i = 0; i < parameters.size(); i++) {
+        // Constant values are evaluated only once by execution.
+        final ConstantValue constantValue = getConstantValue(context);
+        if (constantValue != null) {
+            return constantValue.getValue();
+        }
+
+        // Not evaluated in this execution.
+        return evaluate(context, row, loadedColumns);
+    }
+
+    /**
+     * Sets the constant value index in the execution context.
+     *
+     * @param constantIndex the constant value index.
+     */
+    public void setConstantIndex(final int constantIndex) {
+        this.constantIndex = constantIndex;
+    }
+
+    /**
+     * Gets the constant value of this function in the execution.
+     *
+     * @param context the execution context.
+     * @return the constant value or <code>null</code> if not evaluated in the execution.
+     */
+    private ConstantValue getConstantValue(final Context context) {
+        final ConstantValue[] constantValues = context.getConstantValues();
+        if (constantIndex >= 0 && constantIndex < constantValues.length) {
+            return constantValues[constantIndex];
+        }
+
+        return null;
+    }
+
+    /**
+     * Evaluates this constant function once for an execution, before reading the rows. The constant functions in
+     * parameters must be evaluated first.
+     *
+     * @param context the execution context.
+     * @return the constant value.
+     */
+    public ConstantValue evaluateConstant(final Context context) {
+        try {
+            final Object value = evaluate(context, null, Collections.emptyList());
+            return new ConstantValue(value, frames.get().type);
+        } catch (final SQLException e) {
+            // Reported only if used.
+            return new ConstantValue(e);
+        }
+    }
+
+    /**
+     * Evaluates the common expression once by row.
+     *
+     * @param context       the execution context.
+     * @param row           the current row values.
+     * @param loadedColumns the list of loaded columns.
+     * @return The function processed value.
+     * @throws SQLException in case of failures.
+     */
+    private Object evaluateCommon(final Context context, final Object[] row, final List<Column> loadedColumns)
+            throws SQLException {
+        final Map<FunctionNode, Object> rowValues = context.getRowValues(row);
+        Object value = rowValues.get(commonExpression);
+        if (value == null && !rowValues.containsKey(commonExpression)) {
+            value = commonExpression.evaluate(context, row, loadedColumns);
+            rowValues.put(commonExpression, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Evaluates the function parameters and execute the function.
+     *
+     * @param context       the execution context.
+     * @param row           the current row values.
+     * @param loadedColumns the list of loaded columns.
+     * @return The function processed value.
+     * @throws SQLException in case of failures.
+     */
+    private Object evaluate(final Context context, final Object[] row, final List<Column> loadedColumns)
+            throws SQLException {
+        final EvaluationFrame frame = frames.get();
+        final Object[] values = frame.values;
+        final ParadoxType[] types = frame.types;
+
+        for (int i = 0; i < values.length; i++) {
             SQLNode param = parameters.get(i);
             types[i] = ParadoxType.NULL;
 
@@ -222,7 +443,7 @@ public class FunctionNode extends FieldNode {
                     types[i] = loadedColumns.get(index).getType();
                 } else {
                     values[i] = functionNode.execute(context, row, loadedColumns);
-                    types[i] = functionNode.getType();
+                    types[i] = functionNode.getType(context);
                 }
             } else if (param instanceof AsteriskNode) {
                 values[i] = param;
@@ -234,10 +455,14 @@ public class FunctionNode extends FieldNode {
         }
 
         // Validate null parameter values.
-        if (Stream.of(function.getColumns())
-                .filter(c -> c.getColumnType() == AbstractFunction.IN && !c.isNullable())
-                .anyMatch(c -> values[c.getIndex() - 1] == null)) {
-            return null;
+        for (final int index : getRequiredParameters()) {
+            if (values[index] == null) {
+                return null;
+            }
+        }
+
+        if (function.isDynamicType()) {
+            frame.type = function.getFieldType(values, types);
         }
 
         // If no problems found, execute the procedure.
@@ -276,18 +501,50 @@ public class FunctionNode extends FieldNode {
      * @return the list of grouping node.
      */
     public List<FunctionNode> getGroupingNodes() {
-        final List<FunctionNode> ret = new ArrayList<>();
-        if (function.isGrouping()) {
-            ret.add(this);
+        if (groupingNodes == null) {
+            final List<FunctionNode> ret = new ArrayList<>();
+            if (function.isGrouping()) {
+                ret.add(this);
+            }
+
+            for (final SQLNode node : parameters) {
+                if (node instanceof FunctionNode) {
+                    ret.addAll(((FunctionNode) node).getGroupingNodes());
+                }
+            }
+
+            groupingNodes = Collections.unmodifiableList(ret);
+        }
+
+        return groupingNodes;
+    }
+
+    /**
+     * Gets if this function and all functions in its parameters are deterministic.
+     *
+     * @return <code>true</code> if this function is deterministic.
+     */
+    public boolean isDeterministic() {
+        if (!function.isDeterministic()) {
+            return false;
         }
 
         for (final SQLNode node : parameters) {
-            if (node instanceof FunctionNode) {
-                ret.addAll(((FunctionNode) node).getGroupingNodes());
+            if (node instanceof FunctionNode && !((FunctionNode) node).isDeterministic()) {
+                return false;
             }
         }
 
-        return ret;
+        return true;
+    }
+
+    /**
+     * Sets the node that evaluates this expression for all the equal nodes in plan.
+     *
+     * @param commonExpression the node that evaluates this expression.
+     */
+    public void setCommonExpression(final FunctionNode commonExpression) {
+        this.commonExpression = commonExpression;
     }
 
     /**
@@ -299,6 +556,24 @@ public class FunctionNode extends FieldNode {
         return function instanceof CountFunction;
     }
 
+    /**
+     * Check if this function is MIN.
+     *
+     * @return <code>true</code> if this function is MIN.
+     */
+    public boolean isMin() {
+        return function instanceof MinFunction;
+    }
+
+    /**
+     * Check if this function is MAX.
+     *
+     * @return <code>true</code> if this function is MAX.
+     */
+    public boolean isMax() {
+        return function instanceof MaxFunction;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -315,6 +590,38 @@ public class FunctionNode extends FieldNode {
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), parameters, function);
+        // Must be consistent with equals: the alias is not part of the expression.
+        return Objects.hash(parameters, function);
+    }
+
+    /**
+     * Function parameters values, reused in each function evaluation.
+     */
+    private static final class EvaluationFrame {
+
+        /**
+         * The parameter values.
+         */
+        private final Object[] values;
+
+        /**
+         * The parameter types.
+         */
+        private final ParadoxType[] types;
+
+        /**
+         * The returned value type of the last evaluation.
+         */
+        private ParadoxType type;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param size the parameter count.
+         */
+        private EvaluationFrame(final int size) {
+            this.values = new Object[size];
+            this.types = new ParadoxType[size];
+        }
     }
 }
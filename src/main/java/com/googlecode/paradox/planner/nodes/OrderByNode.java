@@ -11,11 +11,13 @@
 package com.googlecode.paradox.planner.nodes;
 
 import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.exceptions.InternalException;
 import com.googlecode.paradox.exceptions.ParadoxException;
 import com.googlecode.paradox.exceptions.ParadoxSyntaxErrorException;
 import com.googlecode.paradox.exceptions.SyntaxError;
 import com.googlecode.paradox.metadata.paradox.ParadoxTable;
 import com.googlecode.paradox.parser.nodes.SelectNode;
+import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.planner.plan.SelectUtils;
 import com.googlecode.paradox.planner.sorting.OrderByComparator;
 import com.googlecode.paradox.planner.sorting.OrderType;
@@ -30,7 +32,7 @@ import java.util.stream.Stream;
 /**
  * Stores one order by field information.
  *
- * @version 1.5
+ * @version 1.6
  * @since 1.6.0
  */
 public class OrderByNode {
@@ -106,13 +108,13 @@ public class OrderByNode {
     /**
      * Process the stream with the order by.
      *
-     * @param stream         the stream to process.
-     * @param selectColumns  the SELECT columns.
-     * @param connectionInfo the connection information.
+     * @param context       the execution context.
+     * @param stream        the stream to process.
+     * @param selectColumns the SELECT columns.
      * @return the processes stream.
      */
-    public Stream<Object[]> processStream(final Stream<Object[]> stream, final List<Column> selectColumns,
-                                          final ConnectionInfo connectionInfo) {
+    public Stream<Object[]> processStream(final Context context, final Stream<Object[]> stream,
+                                          final List<Column> selectColumns) {
         if (this.columns.isEmpty()) {
             // Nothing to do here, there are no order by fields.
             return stream;
@@ -135,7 +137,8 @@ public class OrderByNode {
         Comparator<Object[]> comparator = null;
         for (int i = 0; i < mapColumns.length; i++) {
             final int index = mapColumns[i];
-            final OrderByComparator orderByComparator = new OrderByComparator(index, this.types.get(i), connectionInfo);
+            final OrderByComparator orderByComparator = new OrderByComparator(index, this.types.get(i),
+                    context.getConnectionInfo());
             if (comparator == null) {
                 comparator = orderByComparator;
             } else {
@@ -143,7 +146,17 @@ public class OrderByNode {
             }
         }
 
-        return stream.sorted(Objects.requireNonNull(comparator));
+        // Check the cancel state while sorting too.
+        final Comparator<Object[]> sortComparator = Objects.requireNonNull(comparator);
+        return stream.sorted((Object[] o1, Object[] o2) -> {
+            try {
+                context.checkCancelState();
+            } catch (final SQLException e) {
+                throw new InternalException(e);
+            }
+
+            return sortComparator.compare(o1, o2);
+        });
     }
 
     /**
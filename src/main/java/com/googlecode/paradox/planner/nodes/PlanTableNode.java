@@ -18,18 +18,22 @@ import com.googlecode.paradox.metadata.Schema;
 import com.googlecode.paradox.metadata.Table;
 import com.googlecode.paradox.parser.nodes.*;
 import com.googlecode.paradox.planner.collections.FixedValueCollection;
+import com.googlecode.paradox.planner.collections.RowIndex;
+import com.googlecode.paradox.planner.context.SelectContext;
 import com.googlecode.paradox.results.Column;
 
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Stores the execution plan table node.
  *
- * @version 1.6
+ * @version 1.11
  * @since 1.1
  */
 public final class PlanTableNode {
@@ -57,6 +61,16 @@ public final class PlanTableNode {
      */
     private final Set<Column> columns = new HashSet<>();
 
+    /**
+     * Position in the loaded rows of the column compared to the key parameter (-1 if there is no key).
+     */
+    private int keyIndex = -1;
+
+    /**
+     * The parameter the key column must be equal to, in batch executions.
+     */
+    private ParameterNode keyParameter;
+
     /**
      * Creates a new instance.
      *
@@ -116,15 +130,50 @@ public final class PlanTableNode {
     /**
      * Loads the table data.
      *
+     * @param context the execution context.
      * @return the table data.
-     * @throws SQLException in case of failures.
+     * @throws SQLException in case of failures or execution cancelled.
      */
-    public Collection<Object[]> load() throws SQLException {
+    public Collection<Object[]> load(final SelectContext context) throws SQLException {
         if (this.columns.isEmpty()) {
-            return new FixedValueCollection<>(this.table.getRowCount(), new Object[0]);
+            return new FixedValueCollection<>(this.table.getRowCount(context), new Object[0]);
+        }
+
+        final Map<PlanTableNode, RowIndex> shared = context.getSharedTableData();
+        if (shared != null) {
+            RowIndex data = shared.get(this);
+            if (data == null) {
+                data = new RowIndex(table.load(this.columns.stream().map(Column::getField).toArray(Field[]::new),
+                        context));
+                shared.put(this, data);
+            }
+
+            if (keyParameter != null) {
+                // Only the rows that can match this parameter set.
+                return data.find(keyIndex, keyParameter.getValue(context.getParameters()));
+            }
+
+            return data.getRows();
+        }
+
+        return table.load(this.columns.stream().map(Column::getField).toArray(Field[]::new), context);
+    }
+
+    /**
+     * Creates a stream to load the table data on demand.
+     *
+     * @param context the execution context.
+     * @return the table data stream.
+     * @throws SQLException in case of failures.
+     */
+    public Stream<Object[]> stream(final SelectContext context) throws SQLException {
+        if (context.getSharedTableData() != null) {
+            return load(context).stream();
+        } else if (this.columns.isEmpty()) {
+            return new FixedValueCollection<>(this.table.getRowCount(context), new Object[0]).stream();
         }
 
-        return table.load(this.columns.stream().map(Column::getField).toArray(Field[]::new));
+        return table.stream(this.columns.stream().map(Column::getField).toArray(Field[]::new), context);
     }
 
     /**
@@ -136,6 +185,17 @@ public final class PlanTableNode {
         return columns;
     }
 
+    /**
+     * Sets the key used to find the rows in batch executions. The rows are still filtered by the table conditions.
+     *
+     * @param keyIndex     the key column position in the loaded rows.
+     * @param keyParameter the parameter the key column must be equal to.
+     */
+    public void setKey(final int keyIndex, final ParameterNode keyParameter) {
+        this.keyIndex = keyIndex;
+        this.keyParameter = keyParameter;
+    }
+
     /**
      * Gets the plan alias.
      *
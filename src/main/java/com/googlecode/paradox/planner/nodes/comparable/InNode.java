@@ -12,20 +12,27 @@ package com.googlecode.paradox.planner.nodes.comparable;
 
 import com.googlecode.paradox.parser.ScannerPosition;
 import com.googlecode.paradox.planner.FieldValueUtils;
+import com.googlecode.paradox.planner.collections.TypedValueSet;
 import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.planner.nodes.FieldNode;
-import com.googlecode.paradox.planner.nodes.ValueNode;
+import com.googlecode.paradox.planner.nodes.FunctionNode;
+import com.googlecode.paradox.planner.nodes.ParameterNode;
 import com.googlecode.paradox.results.Column;
-import com.googlecode.paradox.rowset.ValuesComparator;
+import com.googlecode.paradox.results.ParadoxType;
 
+import java.sql.Array;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Stores the IN node.
+ * <p>
+ * The values are stored in a hash set, built once by execution before reading the rows, with the expected type of
+ * the field values. The set is kept in the execution context, because this node is shared by all executions of a
+ * cached plan.
  *
- * @version 1.5
+ * @version 1.8
  * @since 1.6.0
  */
 public final class InNode extends AbstractComparableNode {
@@ -33,7 +40,12 @@ public final class InNode extends AbstractComparableNode {
     /**
      * The list of values in expression.
      */
-    private final List<ValueNode> values = new ArrayList<>();
+    private final List<FieldNode> values = new ArrayList<>();
+
+    /**
+     * The value set index in the execution context.
+     */
+    private int valueSetIndex = -1;
 
     /**
      * Create a new instance.
@@ -50,7 +62,7 @@ public final class InNode extends AbstractComparableNode {
      *
      * @param value the new value to add.
      */
-    public void addField(final ValueNode value) {
+    public void addField(final FieldNode value) {
         values.add(value);
     }
 
@@ -59,24 +71,130 @@ public final class InNode extends AbstractComparableNode {
      *
      * @return the value list in this node.
      */
-    public List<ValueNode> getValues() {
+    public List<FieldNode> getValues() {
         return values;
     }
 
+    /**
+     * Sets the value set index in the execution context.
+     *
+     * @param valueSetIndex the value set index.
+     */
+    public void setValueSetIndex(final int valueSetIndex) {
+        this.valueSetIndex = valueSetIndex;
+    }
+
     @Override
     public boolean evaluate(final Context context, final Object[] row, final List<Column> columnsLoaded)
             throws SQLException {
 
         final Object value1 = FieldValueUtils.getValue(context, row, field, columnsLoaded);
+        if (value1 == null) {
+            return false;
+        }
+
+        final TypedValueSet[] valueSets = context.getValueSets();
+        final TypedValueSet set;
+        if (valueSetIndex >= 0 && valueSetIndex < valueSets.length) {
+            set = valueSets[valueSetIndex];
+        } else {
+            // Not built in this execution.
+            set = createValueSet(context, columnsLoaded);
+        }
 
-        for (final ValueNode value : values) {
-            final Object value2 = value.getName();
-            if (ValuesComparator.equals(value1, value2, context.getConnectionInfo())) {
-                return true;
+        return set.contains(value1, context.getConnectionInfo());
+    }
+
+    /**
+     * Creates the value set of an execution.
+     *
+     * @param context       the execution context.
+     * @param columnsLoaded the loaded columns.
+     * @return the value set.
+     * @throws SQLException in case of parameter read failures.
+     */
+    public TypedValueSet createValueSet(final Context context, final List<Column> columnsLoaded)
+            throws SQLException {
+        return new TypedValueSet(getValueType(context, columnsLoaded), getValues(context),
+                context.getConnectionInfo());
+    }
+
+    /**
+     * Gets the expected type of the field values. Values of other types are still compared, one by one.
+     *
+     * @param context       the execution context.
+     * @param columnsLoaded the loaded columns.
+     * @return the expected type of the field values.
+     */
+    private Class<?> getValueType(final Context context, final List<Column> columnsLoaded) {
+        Class<?> ret = Object.class;
+        if (field instanceof ParameterNode) {
+            final Object value = ((ParameterNode) field).getValue(context.getParameters());
+            if (value != null) {
+                ret = value.getClass();
+            }
+        } else if (field instanceof FunctionNode) {
+            final FunctionNode function = (FunctionNode) field;
+            if (!function.isDynamicType() && function.getType() != null) {
+                ret = function.getType().getJavaClass();
+            }
+        } else if (field.getIndex() == -1) {
+            // Not a table field.
+            ret = String.class;
+        } else if (field.getIndex() < columnsLoaded.size()) {
+            final ParadoxType type = columnsLoaded.get(field.getIndex()).getType();
+            if (type == ParadoxType.LONG) {
+                // Long fields are read as long values.
+                ret = Long.class;
+            } else if (type != null) {
+                ret = type.getJavaClass();
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the values to compare, expanding array parameters.
+     *
+     * @param context the execution context.
+     * @return the values to compare.
+     * @throws SQLException in case of parameter read failures.
+     */
+    private List<Object> getValues(final Context context) throws SQLException {
+        final List<Object> ret = new ArrayList<>(values.size());
+        for (final FieldNode value : values) {
+            if (value instanceof ParameterNode) {
+                addParameterValue(ret, ((ParameterNode) value).getValue(context.getParameters()));
+            } else {
+                ret.add(value.getName());
             }
         }
 
-        return false;
+        return ret;
+    }
+
+    /**
+     * Adds a parameter value to the value list. Array values are added element by element.
+     *
+     * @param list  the value list.
+     * @param value the parameter value.
+     * @throws SQLException in case of array read failures.
+     */
+    private static void addParameterValue(final List<Object> list, final Object value) throws SQLException {
+        Object current = value;
+        if (current instanceof Array) {
+            current = ((Array) current).getArray();
+        }
+
+        if (current != null && current.getClass().isArray() && !(current instanceof byte[])) {
+            final int length = java.lang.reflect.Array.getLength(current);
+            for (int i = 0; i < length; i++) {
+                list.add(java.lang.reflect.Array.get(current, i));
+            }
+        } else {
+            list.add(current);
+        }
     }
 
     @Override
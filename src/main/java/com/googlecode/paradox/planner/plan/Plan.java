@@ -14,13 +14,16 @@ import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.planner.context.Context;
 import com.googlecode.paradox.results.ParadoxType;
 
+import java.io.File;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Used to creates and execute SQL plans.
  *
  * @param <T> the return type.
- * @version 1.8
+ * @version 1.9
  * @since 1.1
  */
 public interface Plan<T, C extends Context> {
@@ -29,8 +32,11 @@ public interface Plan<T, C extends Context> {
 
     /**
      * Optimize the statement. This step is optional for most planing.
+     *
+     * @throws SQLException in case of invalid column references.
      */
-    default void optimize() {
+    @SuppressWarnings("java:S1130")
+    default void optimize() throws SQLException {
         // Do nothing.
     }
 
@@ -50,4 +56,13 @@ public interface Plan<T, C extends Context> {
      * @return the parameters count.
      */
     int getParameterCount();
+
+    /**
+     * Gets the files this plan reads from, used to detect data changes.
+     *
+     * @return the files this plan reads from.
+     */
+    default List<File> getSourceFiles() {
+        return Collections.emptyList();
+    }
 }
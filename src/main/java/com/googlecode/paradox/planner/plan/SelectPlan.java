@@ -14,19 +14,28 @@ import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.exceptions.*;
 import com.googlecode.paradox.metadata.Field;
 import com.googlecode.paradox.metadata.Table;
+import com.googlecode.paradox.metadata.View;
+import com.googlecode.paradox.metadata.paradox.ParadoxTable;
 import com.googlecode.paradox.parser.nodes.*;
 import com.googlecode.paradox.planner.FieldValueUtils;
+import com.googlecode.paradox.planner.collections.TypedValueSet;
+import com.googlecode.paradox.planner.context.ConstantValue;
 import com.googlecode.paradox.planner.context.SelectContext;
 import com.googlecode.paradox.planner.nodes.*;
+import com.googlecode.paradox.planner.nodes.comparable.EqualsNode;
+import com.googlecode.paradox.planner.nodes.comparable.InNode;
 import com.googlecode.paradox.planner.nodes.join.ANDNode;
 import com.googlecode.paradox.planner.nodes.join.ORNode;
 import com.googlecode.paradox.results.Column;
 import com.googlecode.paradox.results.ParadoxType;
+import com.googlecode.paradox.rowset.ValuesConverter;
 import com.googlecode.paradox.utils.FunctionalUtils;
 
+import java.io.File;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.googlecode.paradox.utils.FunctionalUtils.functionWrapper;
@@ -35,12 +44,19 @@ import static com.googlecode.paradox.utils.FunctionalUtils.predicateWrapper;
 /**
  * Creates a SELECT plan for execution.
  *
- * @version 1.18
+ * @version 1.33
  * @since 1.1
  */
 @SuppressWarnings({"java:S1448", "java:S1200"})
 public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
 
+    /**
+     * Primary key types stored in numeric order, for MIN and MAX from the key endpoints.
+     */
+    private static final Set<ParadoxType> NUMERIC_KEY_TYPES = EnumSet.of(ParadoxType.INTEGER, ParadoxType.LONG,
+            ParadoxType.CURRENCY, ParadoxType.NUMBER, ParadoxType.NUMERIC, ParadoxType.DECIMAL,
+            ParadoxType.AUTO_INCREMENT, ParadoxType.BCD);
+
     /**
      * The columns in this plan to show in result set.
      */
@@ -56,6 +72,11 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
      */
     private final List<PlanTableNode> tables;
 
+    /**
+     * The files of the views inlined in this plan.
+     */
+    private final List<File> viewFiles;
+
     /**
      * If this result needs to be distinct.
      */
@@ -91,6 +112,41 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
      */
     private final Integer offset;
 
+    /**
+     * The columns loaded after each table join, in row order. Resolved once in plan optimization.
+     */
+    private final List<List<Column>> loadedColumns = new ArrayList<>();
+
+    /**
+     * The SELECT columns position in the loaded rows (-1 if not loaded from tables).
+     */
+    private int[] mapColumns;
+
+    /**
+     * The SELECT columns processed by functions with the result type defined in execution.
+     */
+    private int[] dynamicTypeColumns;
+
+    /**
+     * The IN nodes in conditions, by value set index.
+     */
+    private final List<InNode> inNodes = new ArrayList<>();
+
+    /**
+     * The constant functions, by constant value index. The parameters of a function come after it.
+     */
+    private final List<FunctionNode> constants = new ArrayList<>();
+
+    /**
+     * If the plan results depend only on the table files and parameters.
+     */
+    private boolean cacheable;
+
+    /**
+     * If the result comes from the table header and the primary key endpoints, without reading the table rows.
+     */
+    private boolean headerOnly;
+
     /**
      * Creates a SELECT plan.
      *
@@ -109,6 +165,7 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
         this.tables = statement.getTables().stream()
                 .map(functionWrapper(table -> new PlanTableNode(connectionInfo, table)))
                 .collect(Collectors.toList());
+        this.viewFiles = new ArrayList<>(statement.getViewFiles());
 
         this.columns = parseColumns(statement);
         this.groupBy = new GroupByNode(statement, this.tables, this.columns);
@@ -143,7 +200,7 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
     }
 
     @Override
-    public void optimize() {
+    public void optimize() throws SQLException {
         if (optimizeConditions(condition)) {
             condition = null;
         }
@@ -155,6 +212,352 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
         for (final PlanTableNode table : this.tables) {
             table.setConditionalJoin(SelectUtils.joinClauses(table.getConditionalJoin()));
         }
+
+        processCommonExpressions();
+        resolveIndexes();
+        resolveValueSets();
+        resolveConstants();
+        resolveBatchKey();
+        this.cacheable = checkCacheable();
+        this.headerOnly = checkHeaderOnly();
+    }
+
+    /**
+     * Check if the result comes only from the table header: unfiltered COUNT(*) on tables and views, and MIN or MAX of
+     * the first primary key field.
+     *
+     * @return <code>true</code> if the table rows are not needed.
+     */
+    @SuppressWarnings("java:S1067")
+    private boolean checkHeaderOnly() {
+        if (this.tables.size() != 1 || this.condition != null || this.tables.get(0).getConditionalJoin() != null
+                || !this.groupBy.getColumns().isEmpty() || !this.orderBy.getColumns().isEmpty()
+                || this.offset != null) {
+            return false;
+        }
+
+        final Table table = this.tables.get(0).getTable();
+        return this.columns.stream().allMatch(column ->
+                isCountAll(column) && (table instanceof ParadoxTable || table instanceof View)
+                        || isKeyEndpoint(column, table));
+    }
+
+    /**
+     * Check for MIN or MAX of the first primary key field. The rows of a table with primary key are stored in key
+     * order.
+     *
+     * @param column the column to check.
+     * @param table  the column table.
+     * @return <code>true</code> if the column is MIN or MAX of the first primary key field.
+     */
+    @SuppressWarnings("java:S1067")
+    private static boolean isKeyEndpoint(final Column column, final Table table) {
+        final FunctionNode function = column.getFunction();
+        if (!(table instanceof ParadoxTable) || function == null || !(function.isMin() || function.isMax())
+                || function.getParameters().size() != 1 || ((ParadoxTable) table).getPrimaryFieldCount() == 0
+                || table.getPrimaryKeyIndex() == null || table.getFields().length == 0) {
+            return false;
+        }
+
+        final SQLNode parameter = function.getParameters().get(0);
+        final Field key = table.getFields()[0];
+        return parameter.getClass() == FieldNode.class && key.getName().equalsIgnoreCase(parameter.getName())
+                && NUMERIC_KEY_TYPES.contains(key.getType());
+    }
+
+    /**
+     * Computes the result from the table header and the primary key endpoints.
+     * <p>
+     * Blank keys are stored before the others, so a blank endpoint key is not the MIN or MAX value. In this case the
+     * table is scanned. An empty table results in one row, with zero counts and null endpoints.
+     *
+     * @param context the execution context.
+     * @return the result rows or <code>null</code> if the table must be scanned.
+     * @throws SQLException in case of failures.
+     */
+    private List<Object[]> executeHeaderOnly(final SelectContext context) throws SQLException {
+        context.setColumnTypes(new ParadoxType[this.columns.size()]);
+
+        final Table table = this.tables.get(0).getTable();
+        if (limit != null && limit == 0) {
+            return Collections.emptyList();
+        }
+
+        final int rowCount = table.getRowCount(context);
+        List<Object[]> endpoints = null;
+        final Object[] row = new Object[this.columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            final FunctionNode function = this.columns.get(i).getFunction();
+            if (function.isCount()) {
+                row[i] = rowCount;
+            } else if (rowCount == 0) {
+                // No rows: MIN and MAX are null.
+                row[i] = null;
+            } else {
+                if (endpoints == null) {
+                    endpoints = ((ParadoxTable) table).loadEndpoints(new Field[]{table.getFields()[0]});
+                }
+
+                Object value = null;
+                if (!endpoints.isEmpty()) {
+                    value = endpoints.get(function.isMax() ? 1 : 0)[0];
+                }
+
+                if (value == null) {
+                    return null;
+                }
+
+                row[i] = ValuesConverter.getBigDecimal(value, context.getConnectionInfo());
+            }
+        }
+
+        return Collections.singletonList(row);
+    }
+
+    /**
+     * Check if the plan results depend only on the table files and parameters.
+     *
+     * @return <code>true</code> if the plan results can be reused.
+     */
+    private boolean checkCacheable() {
+        if (this.tables.isEmpty()
+                || !this.tables.stream().map(PlanTableNode::getTable).allMatch(Table::isCacheable)) {
+            return false;
+        }
+
+        final List<FunctionNode> functions = new ArrayList<>();
+        for (final Column column : this.columns) {
+            SelectUtils.getFunctionNodes(column.getFunction(), functions);
+        }
+
+        SelectUtils.getFunctionNodes(this.condition, functions);
+        for (final PlanTableNode table : this.tables) {
+            SelectUtils.getFunctionNodes(table.getConditionalJoin(), functions);
+        }
+
+        return functions.stream().allMatch(FunctionNode::isDeterministic);
+    }
+
+    /**
+     * Gets if the plan results depend only on the table files and parameters, so they can be reused until the files
+     * change.
+     *
+     * @return <code>true</code> if the plan results can be reused.
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Gets if the plan is answered from the table headers and key endpoints, without a table scan.
+     *
+     * @return <code>true</code> if the plan does not scan the table.
+     */
+    public boolean isHeaderOnly() {
+        return headerOnly;
+    }
+
+    /**
+     * Finds a column of the first table compared to a parameter by equality, so the batch executions read only the
+     * rows that can match each parameter set.
+     */
+    private void resolveBatchKey() {
+        if (this.tables.isEmpty()) {
+            return;
+        }
+
+        final PlanTableNode table = this.tables.get(0);
+        final AbstractConditionalNode conditions = table.getConditionalJoin();
+        if (conditions == null
+                || (table.getJoinType() != JoinType.INNER && table.getJoinType() != JoinType.CROSS)) {
+            return;
+        }
+
+        final List<SQLNode> nodes = new ArrayList<>();
+        if (conditions instanceof ANDNode) {
+            nodes.addAll(conditions.getChildren());
+        } else {
+            nodes.add(conditions);
+        }
+
+        for (final SQLNode node : nodes) {
+            if (node instanceof EqualsNode) {
+                final EqualsNode equals = (EqualsNode) node;
+                if (setBatchKey(table, equals.getField(), equals.getLast())
+                        || setBatchKey(table, equals.getLast(), equals.getField())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the table key if the nodes are a column of the table and a parameter.
+     *
+     * @param table     the first table.
+     * @param field     the column node.
+     * @param parameter the parameter node.
+     * @return <code>true</code> if the key was set.
+     */
+    private static boolean setBatchKey(final PlanTableNode table, final FieldNode field, final FieldNode parameter) {
+        // Only the columns loaded from the table itself.
+        if (field != null && field.getClass() == FieldNode.class && parameter instanceof ParameterNode
+                && field.getIndex() >= 0 && field.getIndex() < table.getColumns().size()) {
+            table.setKey(field.getIndex(), (ParameterNode) parameter);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Resolves the column indexes in the loaded rows, so the plan nodes are not changed by the executions.
+     *
+     * @throws SQLException in case of columns not found.
+     */
+    private void resolveIndexes() throws SQLException {
+        final List<Column> columnsLoaded = new ArrayList<>();
+        for (final PlanTableNode table : this.tables) {
+            columnsLoaded.addAll(table.getColumns());
+
+            final List<Column> current = Collections.unmodifiableList(new ArrayList<>(columnsLoaded));
+            if (table.getConditionalJoin() != null) {
+                // Only the columns already joined are available here.
+                table.getConditionalJoin().setFieldIndexes(current, this.tables);
+            }
+
+            this.loadedColumns.add(current);
+        }
+
+        final List<Column> allColumns = getColumnsLoaded();
+        processIndexes(allColumns);
+        processFunctionIndexes(allColumns);
+        this.mapColumns = mapColumnIndexes(allColumns);
+        this.dynamicTypeColumns = mapDynamicTypeColumns();
+    }
+
+    /**
+     * Numbers the IN nodes, so each execution builds their value sets before reading the rows.
+     */
+    private void resolveValueSets() {
+        this.inNodes.clear();
+        SelectUtils.getInNodes(this.condition, this.inNodes);
+        for (final PlanTableNode table : this.tables) {
+            SelectUtils.getInNodes(table.getConditionalJoin(), this.inNodes);
+        }
+
+        for (int i = 0; i < this.inNodes.size(); i++) {
+            this.inNodes.get(i).setValueSetIndex(i);
+        }
+    }
+
+    /**
+     * Builds the IN value sets of an execution. The sets are only read while the rows are processed, even in
+     * parallel.
+     *
+     * @param context the execution context.
+     * @throws SQLException in case of parameter read failures.
+     */
+    private void createValueSets(final SelectContext context) throws SQLException {
+        final List<Column> columnsLoaded = getColumnsLoaded();
+        final TypedValueSet[] valueSets = new TypedValueSet[this.inNodes.size()];
+        for (int i = 0; i < valueSets.length; i++) {
+            valueSets[i] = this.inNodes.get(i).createValueSet(context, columnsLoaded);
+        }
+
+        context.setValueSets(valueSets);
+    }
+
+    /**
+     * Numbers the constant functions, so each execution evaluates them before reading the rows.
+     */
+    private void resolveConstants() {
+        final List<FunctionNode> functions = new ArrayList<>();
+        final List<Column> allColumns = new ArrayList<>(this.columns);
+        allColumns.addAll(this.groupBy.getColumns());
+        allColumns.addAll(this.orderBy.getColumns());
+        for (final Column column : allColumns) {
+            SelectUtils.getFunctionNodes(column.getFunction(), functions);
+        }
+
+        SelectUtils.getFunctionNodes(this.condition, functions);
+        for (final PlanTableNode table : this.tables) {
+            SelectUtils.getFunctionNodes(table.getConditionalJoin(), functions);
+        }
+
+        this.constants.clear();
+        for (final FunctionNode function : functions) {
+            if (function.isConstant() && this.constants.stream().noneMatch(node -> node == function)) {
+                function.setConstantIndex(this.constants.size());
+                this.constants.add(function);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the constant functions of an execution. The values are only read while the rows are processed, even
+     * in parallel.
+     *
+     * @param context the execution context.
+     */
+    private void createConstantValues(final SelectContext context) {
+        final ConstantValue[] constantValues = new ConstantValue[this.constants.size()];
+        context.setConstantValues(constantValues);
+
+        // Parameters first.
+        for (int i = constantValues.length - 1; i >= 0; i--) {
+            constantValues[i] = this.constants.get(i).evaluateConstant(context);
+        }
+    }
+
+    /**
+     * Gets all the columns loaded from tables, in row order.
+     *
+     * @return all the columns loaded from tables.
+     */
+    private List<Column> getColumnsLoaded() {
+        if (this.loadedColumns.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return this.loadedColumns.get(this.loadedColumns.size() - 1);
+    }
+
+    /**
+     * Finds the equal expressions used in SELECT, WHERE, GROUP BY and ORDER BY to evaluate them only once by row.
+     */
+    private void processCommonExpressions() {
+        final List<FunctionNode> functions = new ArrayList<>();
+        for (final Column column : this.columns) {
+            // Second pass functions are processed over the grouped rows.
+            if (column.getFunction() != null && !column.getFunction().isSecondPass()) {
+                SelectUtils.getFunctionNodes(column.getFunction(), functions);
+            }
+        }
+
+        SelectUtils.getFunctionNodes(this.condition, functions);
+
+        // Only the conditions evaluated over the same rows as SELECT.
+        if (this.tables.size() == 1) {
+            SelectUtils.getFunctionNodes(this.tables.get(0).getConditionalJoin(), functions);
+        }
+
+        final Map<FunctionNode, List<FunctionNode>> expressions = new HashMap<>();
+        for (final FunctionNode function : functions) {
+            if (!function.isGrouping() && !function.isConstant() && function.isDeterministic()) {
+                final List<FunctionNode> nodes = expressions.computeIfAbsent(function, k -> new ArrayList<>());
+                if (nodes.stream().noneMatch(node -> node == function)) {
+                    nodes.add(function);
+                }
+            }
+        }
+
+        for (final List<FunctionNode> nodes : expressions.values()) {
+            if (nodes.size() > 1) {
+                final FunctionNode commonExpression = nodes.get(0);
+                nodes.forEach(node -> node.setCommonExpression(commonExpression));
+            }
+        }
     }
 
     @Override
@@ -186,7 +589,11 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
 
         // Sets the column indexes.
         for (int i = 0; i < ret.size(); i++) {
-            ret.get(i).setIndex(i);
+            final Column column = ret.get(i);
+            column.setIndex(i);
+            if (column.getFunction() != null) {
+                column.getFunction().setIndex(i);
+            }
         }
 
         return ret;
@@ -343,25 +750,34 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
         // Can't do anything without fields defined.
         if (this.columns.isEmpty()) {
             return Collections.emptyList();
+        } else if (this.headerOnly) {
+            final List<Object[]> rows = executeHeaderOnly(context);
+            if (rows != null) {
+                return rows;
+            }
         }
 
-        final List<Column> columnsLoaded = new ArrayList<>();
+        context.setColumnTypes(new ParadoxType[this.columns.size()]);
+        createConstantValues(context);
+        createValueSets(context);
+
         Collection<Object[]> rawData = Collections.emptyList();
+        AbstractConditionalNode firstCondition = null;
 
         for (int tableIndex = 0; tableIndex < this.tables.size(); tableIndex++) {
             PlanTableNode table = this.tables.get(tableIndex);
             context.checkCancelState();
 
-            final Collection<Object[]> tableData = table.load();
-            columnsLoaded.addAll(table.getColumns());
-
-            if (table.getConditionalJoin() != null) {
-                table.getConditionalJoin().setFieldIndexes(columnsLoaded, this.tables);
-            }
+            final Collection<Object[]> tableData = table.load(context);
+            final List<Column> columnsLoaded = this.loadedColumns.get(tableIndex);
 
             // First table?
             if (tableIndex == 0) {
-                if (table.getConditionalJoin() != null) {
+                if (table.getConditionalJoin() != null && this.tables.size() == 1 && !canDoFastCount()) {
+                    // Filter with the other row processing to share the common expressions values.
+                    firstCondition = table.getConditionalJoin();
+                    rawData = tableData;
+                } else if (table.getConditionalJoin() != null) {
                     rawData = tableData.stream()
                             .filter(context.getCancelPredicate())
                             .filter(predicateWrapper(tableRow ->
@@ -397,19 +813,75 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
             return Collections.singletonList(row);
         }
 
-        processIndexes(columnsLoaded);
-        processFunctionIndexes(columnsLoaded);
+        return filter(context, rawData.stream(), firstCondition, getColumnsLoaded())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Execute the plan reading the rows on demand when the rows can be processed one by one (only one table, without
+     * grouping and ordering). Otherwise, the rows are fully processed before return.
+     * <p>
+     * The stream must be closed to release the table files.
+     *
+     * @param context the execution context.
+     * @return the row values stream.
+     * @throws SQLException in case of failures.
+     */
+    public Stream<Object[]> executeStream(final SelectContext context) throws SQLException {
+        if (!canStream(context)) {
+            return execute(context).stream();
+        }
+
+        context.checkCancelState();
+        context.setColumnTypes(new ParadoxType[this.columns.size()]);
+        createConstantValues(context);
+        createValueSets(context);
+
+        final PlanTableNode table = this.tables.get(0);
+        return filter(context, table.stream(context), table.getConditionalJoin(), getColumnsLoaded());
+    }
 
-        // Process parameter types.
-        columns.stream()
-                .filter(column -> column.getParameter() != null)
-                .forEach(column -> column.setType(
-                        context.getParameterTypes()[column.getParameter().getParameterIndex()]));
+    /**
+     * Check if the rows can be processed on demand.
+     *
+     * @param context the execution context.
+     * @return <code>true</code> if the rows can be processed on demand.
+     */
+    @SuppressWarnings("java:S1067")
+    private boolean canStream(final SelectContext context) {
+        return this.tables.size() == 1 && !this.groupBy.isGroupBy() && this.orderBy.getColumns().isEmpty()
+                && !canDoFastCount() && !context.getConnectionInfo().isParallel();
+    }
 
-        // Find column indexes.
-        final int[] mapColumns = mapColumnIndexes(columnsLoaded);
+    /**
+     * Creates the result set columns of one execution. The plan columns are not changed, so the plan can be shared.
+     *
+     * @param context the execution context.
+     * @return the result set columns.
+     */
+    public List<Column> getResultColumns(final SelectContext context) {
+        final List<Column> ret = this.columns.stream().map(Column::new).collect(Collectors.toList());
+        updateColumnTypes(context, ret);
+        return ret;
+    }
 
-        return filter(context, rawData, mapColumns, columnsLoaded);
+    /**
+     * Update the result set columns type with the parameter types and function types of the execution.
+     *
+     * @param context       the execution context.
+     * @param resultColumns the result set columns created by {@link #getResultColumns(SelectContext)}.
+     */
+    public void updateColumnTypes(final SelectContext context, final List<Column> resultColumns) {
+        final ParadoxType[] columnTypes = context.getColumnTypes();
+        for (int i = 0; i < resultColumns.size(); i++) {
+            final Column column = resultColumns.get(i);
+            if (column.getParameter() != null && context.getParameterTypes() != null) {
+                column.setType(context.getParameterTypes()[column.getParameter().getParameterIndex()]);
+            } else if (columnTypes != null && columnTypes[i] != null) {
+                // The function may change the result type in execution based on parameters values.
+                column.setType(columnTypes[i]);
+            }
+        }
     }
 
     /**
@@ -421,11 +893,17 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
     private boolean canDoFastCount() {
         // If only count function in columns and conditions is processed by tables (condition is null).
         // Group by is not allowed too (no columns set).
-        if (!this.groupBy.getColumns().isEmpty() || this.columns.size() != 1) {
-            return false;
-        }
+        return this.condition == null && this.groupBy.getColumns().isEmpty() && this.columns.size() == 1
+                && isCountAll(this.columns.get(0));
+    }
 
-        final Column column = this.columns.get(0);
+    /**
+     * Check if the column is a row count.
+     *
+     * @param column the column to check.
+     * @return <code>true</code> if the column is a row count.
+     */
+    private static boolean isCountAll(final Column column) {
         if (column.getFunction() == null || !column.getFunction().isCount()) {
             return false;
         }
@@ -457,24 +935,24 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
         }
     }
 
-    private int[] mapColumnIndexes(final List<Column> loadedColumns) {
-        final int[] mapColumns = new int[this.columns.size()];
-        Arrays.fill(mapColumns, -1);
+    private int[] mapColumnIndexes(final List<Column> columnsLoaded) {
+        final int[] ret = new int[this.columns.size()];
+        Arrays.fill(ret, -1);
         for (int i = 0; i < this.columns.size(); i++) {
             final Column column = this.columns.get(i);
-            for (int loop = 0; loop < loadedColumns.size(); loop++) {
-                if (loadedColumns.get(loop).getField().equals(column.getField())) {
-                    mapColumns[i] = loop;
+            for (int loop = 0; loop < columnsLoaded.size(); loop++) {
+                if (columnsLoaded.get(loop).getField().equals(column.getField())) {
+                    ret[i] = loop;
                     break;
                 }
             }
         }
 
-        return mapColumns;
+        return ret;
     }
 
-    private Object[] mapRow(final SelectContext context, final Object[] tableRow, final int[] mapColumns,
-                            final List<Column> columnsLoaded) throws SQLException {
+    private Object[] mapRow(final SelectContext context, final Object[] tableRow, final List<Column> columnsLoaded)
+            throws SQLException {
 
         final Object[] finalRow = new Object[mapColumns.length];
         for (int i = 0; i < mapColumns.length; i++) {
@@ -494,8 +972,6 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
                 } else if (!this.columns.get(i).isSecondPass()) {
                     // A function processed value.
                     finalRow[i] = functionNode.execute(context, tableRow, columnsLoaded);
-                    // The function may change the result type in execution based on parameters values.
-                    this.columns.get(i).setType(functionNode.getType());
                 }
             }
         }
@@ -503,11 +979,47 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
         return finalRow;
     }
 
-    private List<Object[]> filter(final SelectContext context, final Collection<Object[]> rowValues,
-                                  final int[] mapColumns, final List<Column> columnsLoaded) {
+    /**
+     * Finds the SELECT columns processed by functions with the result type defined in execution.
+     *
+     * @return the column indexes.
+     */
+    private int[] mapDynamicTypeColumns() {
+        return IntStream.range(0, this.columns.size()).filter((int i) -> {
+            final Column column = this.columns.get(i);
+            return mapColumns[i] == -1 && column.getParameter() == null && column.getFunction() != null
+                    && !column.isSecondPass() && column.getFunction().isDynamicType();
+        }).toArray();
+    }
+
+    /**
+     * Updates the execution column types with the function types of the last row evaluated in the current thread.
+     *
+     * @param context the execution context.
+     */
+    private void updateFunctionTypes(final SelectContext context) {
+        for (final int index : dynamicTypeColumns) {
+            context.getColumnTypes()[index] = this.columns.get(index).getFunction().getType(context);
+        }
+    }
+
+    private Stream<Object[]> filter(final SelectContext context, final Stream<Object[]> rowValues,
+                                    final AbstractConditionalNode firstCondition,
+                                    final List<Column> columnsLoaded) throws SQLException {
+
+        final boolean parallel = context.getConnectionInfo().isParallel();
+        Stream<Object[]> stream = rowValues;
+        if (parallel) {
+            stream = stream.parallel();
+        }
 
-        Stream<Object[]> stream = rowValues.stream()
-                .filter(context.getCancelPredicate());
+        stream = stream.filter(context.getCancelPredicate());
+
+        if (firstCondition != null) {
+            stream = stream.filter(predicateWrapper((Object[] tableRow) ->
+                    firstCondition.evaluate(context, tableRow, columnsLoaded)
+            ));
+        }
 
         if (condition != null) {
             stream = stream.filter(predicateWrapper((Object[] tableRow) ->
@@ -515,15 +1027,39 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
             ));
         }
 
-        stream = stream.map(functionWrapper((Object[] tableRow) ->
-                mapRow(context, tableRow, mapColumns, columnsLoaded)
-        ));
+        if (parallel) {
+            // Only filter and projection runs in parallel. The collected rows keeps the scan order.
+            final List<Object[]> tableRows = stream.collect(Collectors.toList());
+            final List<Object[]> rows = tableRows.parallelStream()
+                    .map(functionWrapper((Object[] tableRow) -> mapRow(context, tableRow, columnsLoaded)))
+                    .collect(Collectors.toList());
+
+            if (!tableRows.isEmpty() && dynamicTypeColumns.length > 0) {
+                // The function types of the last row, as in sequential processing.
+                final Object[] lastRow = tableRows.get(tableRows.size() - 1);
+                for (final int index : dynamicTypeColumns) {
+                    this.columns.get(index).getFunction().execute(context, lastRow, columnsLoaded);
+                }
+
+                updateFunctionTypes(context);
+            }
+
+            stream = rows.stream();
+        } else if (dynamicTypeColumns.length > 0) {
+            stream = stream.map(functionWrapper((Object[] tableRow) -> {
+                final Object[] row = mapRow(context, tableRow, columnsLoaded);
+                updateFunctionTypes(context);
+                return row;
+            }));
+        } else {
+            stream = stream.map(functionWrapper((Object[] tableRow) -> mapRow(context, tableRow, columnsLoaded)));
+        }
 
         // Group by.
         stream = this.groupBy.processStream(context, stream, this.columns);
 
         // Order by.
-        stream = this.orderBy.processStream(stream, this.columns, context.getConnectionInfo());
+        stream = this.orderBy.processStream(context, stream, this.columns);
 
         // Distinct
         if (distinct) {
@@ -543,7 +1079,7 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
             stream = stream.limit(context.getMaxRows());
         }
 
-        return stream.collect(Collectors.toList());
+        return stream;
     }
 
     /**
@@ -573,6 +1109,12 @@ public final class SelectPlan implements Plan<List<Object[]>, SelectContext> {
         return tables;
     }
 
+    @Override
+    public List<File> getSourceFiles() {
+        return Stream.concat(tables.stream().map(PlanTableNode::getTable).map(Table::getSourceFiles)
+                .flatMap(List::stream), viewFiles.stream()).distinct().collect(Collectors.toList());
+    }
+
     /**
      * Gets the group by node.
      *
@@ -16,6 +16,9 @@ import com.googlecode.paradox.parser.nodes.AbstractConditionalNode;
 import com.googlecode.paradox.parser.nodes.AsteriskNode;
 import com.googlecode.paradox.parser.nodes.SQLNode;
 import com.googlecode.paradox.planner.nodes.*;
+import com.googlecode.paradox.planner.nodes.comparable.AbstractComparableNode;
+import com.googlecode.paradox.planner.nodes.comparable.BetweenNode;
+import com.googlecode.paradox.planner.nodes.comparable.InNode;
 import com.googlecode.paradox.planner.nodes.join.ANDNode;
 import com.googlecode.paradox.planner.nodes.join.AbstractJoinNode;
 import com.googlecode.paradox.results.Column;
@@ -26,7 +29,7 @@ import java.util.stream.Collectors;
 /**
  * Utility class to reduce Select Plan complexity.
  *
- * @version 1.0
+ * @version 1.2
  * @since 1.6.0
  */
 public final class SelectUtils {
@@ -61,6 +64,52 @@ public final class SelectUtils {
         return function.getGroupingNodes();
     }
 
+    /**
+     * Gets all the function nodes in a node, including the nested ones.
+     *
+     * @param node      the node to search.
+     * @param functions the list to add the found functions.
+     */
+    public static void getFunctionNodes(final SQLNode node, final List<FunctionNode> functions) {
+        if (node instanceof FunctionNode) {
+            final FunctionNode functionNode = (FunctionNode) node;
+            functions.add(functionNode);
+            for (final SQLNode parameter : functionNode.getParameters()) {
+                getFunctionNodes(parameter, functions);
+            }
+        } else if (node instanceof AbstractConditionalNode) {
+            final AbstractConditionalNode conditionalNode = (AbstractConditionalNode) node;
+            getFunctionNodes(conditionalNode.getField(), functions);
+            if (node instanceof BetweenNode) {
+                getFunctionNodes(((BetweenNode) node).getFirst(), functions);
+            }
+
+            if (node instanceof AbstractComparableNode) {
+                getFunctionNodes(((AbstractComparableNode) node).getLast(), functions);
+            }
+
+            for (final SQLNode child : conditionalNode.getChildren()) {
+                getFunctionNodes(child, functions);
+            }
+        }
+    }
+
+    /**
+     * Gets all the IN nodes in a condition, including the nested ones.
+     *
+     * @param node  the condition to search.
+     * @param nodes the list to add the found IN nodes.
+     */
+    public static void getInNodes(final SQLNode node, final List<InNode> nodes) {
+        if (node instanceof InNode) {
+            nodes.add((InNode) node);
+        } else if (node instanceof AbstractConditionalNode) {
+            for (final SQLNode child : ((AbstractConditionalNode) node).getChildren()) {
+                getInNodes(child, nodes);
+            }
+        }
+    }
+
     public static Set<Column> getConditionalFields(final PlanTableNode table, final AbstractConditionalNode condition) {
         if (condition != null) {
             return condition.getClauseFields().stream()
@@ -24,7 +24,7 @@ import java.util.Objects;
 /**
  * Column values from a ResultSet.
  *
- * @version 1.10
+ * @version 1.11
  * @see ParadoxResultSet
  * @since 1.0
  */
@@ -94,6 +94,27 @@ public final class Column {
         this.precision = field.getPrecision();
     }
 
+    /**
+     * Creates a copy of a column.
+     *
+     * @param column the column to copy.
+     */
+    public Column(final Column column) {
+        this.nullable = column.nullable;
+        this.field = column.field;
+        this.index = column.index;
+        this.name = column.name;
+        this.precision = column.precision;
+        this.size = column.size;
+        this.type = column.type;
+        this.remarks = column.remarks;
+        this.columnType = column.columnType;
+        this.hidden = column.hidden;
+        this.value = column.value;
+        this.function = column.function;
+        this.parameter = column.parameter;
+    }
+
     /**
      * Creates a new instance.
      *
@@ -197,10 +218,6 @@ public final class Column {
      */
     public void setIndex(final int index) {
         this.index = index;
-
-        if (this.function != null) {
-            this.function.setIndex(index);
-        }
     }
 
     /**
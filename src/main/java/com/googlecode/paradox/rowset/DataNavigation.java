@@ -15,12 +15,13 @@ import com.googlecode.paradox.results.Column;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Data navigation facility.
  *
- * @version 1.1
+ * @version 1.3
  * @since 1.6.0
  */
 public class DataNavigation implements AutoCloseable {
@@ -41,7 +42,7 @@ public class DataNavigation implements AutoCloseable {
      */
     private int fetchDirection = ResultSet.FETCH_FORWARD;
     /**
-     * The column mapping.
+     * The row slot by column index (-1 for invalid columns).
      */
     private final int[] columns;
 
@@ -52,21 +53,52 @@ public class DataNavigation implements AutoCloseable {
      * @param values  the value list.
      */
     public DataNavigation(final List<Column> columns, final List<? extends Object[]> values) {
-        this.columns = columns.stream().mapToInt(Column::getIndex).toArray();
+        this.columns = mapColumns(columns);
         this.values = values;
     }
 
+    /**
+     * Creates the column index to row slot mapping.
+     *
+     * @param columns the column list.
+     * @return the row slot by column index.
+     */
+    private static int[] mapColumns(final List<Column> columns) {
+        final int max = columns.stream().mapToInt(Column::getIndex).max().orElse(-1);
+        final int[] ret = new int[Math.max(max + 1, 0)];
+        Arrays.fill(ret, -1);
+
+        for (int loop = 0; loop < columns.size(); loop++) {
+            final int index = columns.get(loop).getIndex();
+
+            // First column wins.
+            if (index >= 0 && ret[index] == -1) {
+                ret[index] = loop;
+            }
+        }
+
+        return ret;
+    }
+
     public Object getColumnValue(final int columnIndex) throws SQLException {
         verifyStatus();
         verifyRow();
 
+        return getColumnValue(currentRow, columnIndex);
+    }
+
+    /**
+     * Gets the column value in a row.
+     *
+     * @param row         the row values.
+     * @param columnIndex the column index.
+     * @return the column value.
+     * @throws SQLException in case of invalid column.
+     */
+    protected Object getColumnValue(final Object[] row, final int columnIndex) throws SQLException {
         int currentIndex = -1;
-        for (int loop = 0; loop < this.columns.length; loop++) {
-            final int column = this.columns[loop];
-            if (column == columnIndex) {
-                currentIndex = loop;
-                break;
-            }
+        if (columnIndex >= 0 && columnIndex < this.columns.length) {
+            currentIndex = this.columns[columnIndex];
         }
 
         // Found a column?
@@ -74,7 +106,7 @@ public class DataNavigation implements AutoCloseable {
             throw new ParadoxException(ParadoxException.Error.INVALID_COLUMN_INDEX, columnIndex);
         }
 
-        this.lastValue = currentRow[currentIndex];
+        this.lastValue = row[currentIndex];
         return this.lastValue;
     }
 
@@ -93,6 +125,15 @@ public class DataNavigation implements AutoCloseable {
         this.fetchDirection = fetchDirection;
     }
 
+    /**
+     * Sets the amount of rows to fetch at once.
+     *
+     * @param fetchSize the amount of rows to fetch.
+     */
+    public void setFetchSize(final int fetchSize) {
+        // All rows are already loaded.
+    }
+
     public Object getLastValue() throws SQLException {
         verifyStatus();
         return lastValue;
@@ -234,7 +275,7 @@ public class DataNavigation implements AutoCloseable {
         }
     }
 
-    private void verifyStatus() throws SQLException {
+    protected void verifyStatus() throws SQLException {
         if (this.closed) {
             throw new ParadoxException(ParadoxException.Error.RESULT_SET_CLOSED);
         }
@@ -248,7 +289,7 @@ public class DataNavigation implements AutoCloseable {
         }
     }
 
-    public boolean next() {
+    public boolean next() throws SQLException {
         if (fetchDirection == ResultSet.FETCH_FORWARD) {
             return moveNext();
         } else {
@@ -256,7 +297,7 @@ public class DataNavigation implements AutoCloseable {
         }
     }
 
-    public boolean previous() {
+    public boolean previous() throws SQLException {
         if (fetchDirection == ResultSet.FETCH_FORWARD) {
             return movePrevious();
         } else {
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.rowset;
+
+import com.googlecode.paradox.exceptions.InternalException;
+import com.googlecode.paradox.exceptions.ParadoxException;
+import com.googlecode.paradox.results.Column;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Forward only data navigation, reading the rows on demand from a stream.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+public class StreamDataNavigation extends DataNavigation {
+
+    /**
+     * The row stream.
+     */
+    private final Stream<Object[]> stream;
+
+    /**
+     * The row stream iterator.
+     */
+    private final Iterator<Object[]> iterator;
+
+    /**
+     * The rows fetched and not read yet.
+     */
+    private final ArrayDeque<Object[]> buffer = new ArrayDeque<>();
+
+    /**
+     * The amount of rows to fetch at once.
+     */
+    private int fetchSize;
+
+    /**
+     * The current row.
+     */
+    private Object[] currentRow;
+
+    /**
+     * The current row number (zero if before first).
+     */
+    private int row;
+
+    /**
+     * If the cursor is after the last row.
+     */
+    private boolean afterLast;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param columns   the column list.
+     * @param stream    the row stream.
+     * @param fetchSize the amount of rows to fetch at once.
+     * @throws SQLException in case of failures in first fetch.
+     */
+    public StreamDataNavigation(final List<Column> columns, final Stream<Object[]> stream, final int fetchSize)
+            throws SQLException {
+        super(columns, Collections.emptyList());
+        this.stream = stream;
+        this.iterator = stream.iterator();
+        this.fetchSize = Math.max(fetchSize, 1);
+
+        try {
+            fetch();
+        } catch (final SQLException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Fetch the next rows from stream.
+     *
+     * @return <code>true</code> if there are rows to read.
+     * @throws SQLException in case of failures.
+     */
+    private boolean fetch() throws SQLException {
+        try {
+            for (int i = 0; i < fetchSize && iterator.hasNext(); i++) {
+                buffer.add(iterator.next());
+            }
+        } catch (@SuppressWarnings("java:S1166") final InternalException e) {
+            throw e.getCause();
+        }
+
+        return !buffer.isEmpty();
+    }
+
+    /**
+     * Check if there are more rows to read.
+     *
+     * @return <code>true</code> if there are more rows to read.
+     * @throws SQLException in case of failures.
+     */
+    private boolean hasNext() throws SQLException {
+        return !buffer.isEmpty() || fetch();
+    }
+
+    @Override
+    public Object getColumnValue(final int columnIndex) throws SQLException {
+        verifyStatus();
+
+        if (row == 0) {
+            throw new ParadoxException(ParadoxException.Error.USE_NEXT_FIRST);
+        } else if (currentRow == null) {
+            throw new ParadoxException(ParadoxException.Error.NO_MORE_ROWS);
+        }
+
+        return getColumnValue(currentRow, columnIndex);
+    }
+
+    @Override
+    public void setFetchDirection(final int fetchDirection) throws SQLException {
+        verifyStatus();
+
+        if (fetchDirection != ResultSet.FETCH_FORWARD) {
+            throw new ParadoxException(ParadoxException.Error.INVALID_FETCH_DIRECTION, fetchDirection);
+        }
+    }
+
+    @Override
+    public void setFetchSize(final int fetchSize) {
+        if (fetchSize > 0) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    @Override
+    public boolean absolute(final int row) throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public boolean relative(final int rows) throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        throw new ParadoxException(ParadoxException.Error.FORWARD_ONLY);
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        verifyStatus();
+
+        return afterLast || (row == 0 && !hasNext());
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        verifyStatus();
+
+        return row == 0;
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        verifyStatus();
+
+        if (currentRow == null) {
+            return 0;
+        }
+
+        return row;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        verifyStatus();
+
+        return row == 1 && currentRow != null;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        verifyStatus();
+
+        return currentRow != null && !hasNext();
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        verifyStatus();
+
+        if (!afterLast && hasNext()) {
+            currentRow = buffer.poll();
+            row++;
+            return true;
+        }
+
+        currentRow = null;
+        afterLast = true;
+        return false;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        this.buffer.clear();
+        this.currentRow = null;
+        this.stream.close();
+    }
+
+    @Override
+    public String toString() {
+        return "forward only current row: " + row;
+    }
+}
@@ -25,7 +25,7 @@ import java.util.function.Predicate;
 /**
  * Utility class to use with functional programming, mostly in Java Stream API.
  *
- * @version 1.1
+ * @version 1.2
  * @since 1.6.0
  */
 public final class FunctionalUtils {
@@ -121,9 +121,15 @@ public final class FunctionalUtils {
                 return true;
             } else {
                 // Do grouping.
-                Arrays.stream(indexes).forEach((int index) ->
+                Arrays.stream(indexes).forEach((int index) -> {
+                    if (current[index] == null) {
+                        // The group first rows can have null function values.
+                        current[index] = value[index];
+                    } else {
                         ((IGroupingContext<?>) current[index]).process((IGroupingContext) value[index],
-                                connectionInfo));
+                                connectionInfo);
+                    }
+                });
             }
 
             return false;
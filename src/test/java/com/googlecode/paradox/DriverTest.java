@@ -22,7 +22,7 @@ import java.util.Properties;
 /**
  * Unit test for {@link Driver}.
  *
- * @version 1.1
+ * @version 1.6
  * @since 1.3
  */
 public final class DriverTest {
@@ -89,7 +89,7 @@ public final class DriverTest {
     @Test
     public void testNullProperty() {
         final Driver driver = new Driver();
-        Assert.assertEquals("Invalid property info.", 7, driver.getPropertyInfo(null, null).length);
+        Assert.assertEquals("Invalid property info.", 15, driver.getPropertyInfo(null, null).length);
     }
 
     /**
@@ -98,7 +98,7 @@ public final class DriverTest {
     @Test
     public void testNullPropertyInfo() {
         final Driver driver = new Driver();
-        Assert.assertEquals("Invalid property size", 7,
+        Assert.assertEquals("Invalid property size", 15,
                 driver.getPropertyInfo("jdbc:paradox:target/test-classes/", null).length);
     }
 
@@ -109,14 +109,22 @@ public final class DriverTest {
     public void testPropertyInfo() {
         final Driver driver = new Driver();
         final DriverPropertyInfo[] info = driver.getPropertyInfo("jdbc:paradox:target/test-classes/", new Properties());
-        Assert.assertEquals("Invalid info length.", 7, info.length);
+        Assert.assertEquals("Invalid info length.", 15, info.length);
         Assert.assertEquals("Invalid info name.", ConnectionInfo.BCD_ROUNDING_KEY, info[0].name);
-        Assert.assertEquals("Invalid info name.", ConnectionInfo.CHARSET_KEY, info[1].name);
-        Assert.assertEquals("Invalid info name.", ConnectionInfo.ENABLE_CATALOG_KEY, info[2].name);
-        Assert.assertEquals("Invalid info name.", ConnectionInfo.LOCALE_KEY, info[3].name);
-        Assert.assertEquals("Invalid info name.", "password", info[4].name);
-        Assert.assertEquals("Invalid info name.", ConnectionInfo.TIMEZONE_KEY, info[5].name);
-        Assert.assertEquals("Invalid info name.", ConnectionInfo.USER_KEY, info[6].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.CATALOG_SNAPSHOT_KEY, info[1].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.CHANGE_MONITOR_KEY, info[2].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.CHANGE_MONITOR_INTERVAL_KEY, info[3].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.CHARSET_KEY, info[4].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.ENABLE_CATALOG_KEY, info[5].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.LOCALE_KEY, info[6].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.PARALLEL_KEY, info[7].name);
+        Assert.assertEquals("Invalid info name.", "password", info[8].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.RESULT_CACHE_KEY, info[9].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.TIMEZONE_KEY, info[10].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.USER_KEY, info[11].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.WARM_UP_KEY, info[12].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.WARM_UP_TABLES_KEY, info[13].name);
+        Assert.assertEquals("Invalid info name.", ConnectionInfo.WARM_UP_THREADS_KEY, info[14].name);
     }
 
     /**
@@ -18,14 +18,17 @@ import org.junit.Test;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Unit test for connection.
  *
- * @version 1.1
+ * @version 1.3
  * @since 1.6.0
  */
 @SuppressWarnings({"java:S2115", "java:S1192"})
@@ -299,4 +302,80 @@ public class ParadoxConnectionTest {
         Assert.assertThrows("Invalid connection in root", ParadoxConnectionException.class,
                 () -> DriverManager.getConnection("jdbc:paradox:/"));
     }
+
+    /**
+     * Test for asynchronous query.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testExecuteQueryAsync() throws Exception {
+        try (final Connection conn = DriverManager.getConnection(CONNECTION_STRING)) {
+            final ParadoxConnection paradoxConnection = conn.unwrap(ParadoxConnection.class);
+
+            final CompletableFuture<ResultSet> nj = paradoxConnection.executeQueryAsync(
+                    "select count(*) from geog.tblAC where State = ?", "NJ");
+            final CompletableFuture<ResultSet> ny = paradoxConnection.executeQueryAsync(Runnable::run,
+                    "select count(*) from geog.tblAC where State = ?", "NY");
+
+            try (final ResultSet rs = nj.get()) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", 5, rs.getInt(1));
+            }
+
+            try (final ResultSet rs = ny.get()) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", 6, rs.getInt(1));
+            }
+
+            Assert.assertThrows("Invalid result", SQLException.class,
+                    () -> paradoxConnection.executeQueryAsync("select * from geog.notfound"));
+        }
+    }
+
+    /**
+     * Test for asynchronous query cancel.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testExecuteQueryAsyncCancel() throws SQLException {
+        try (final Connection conn = DriverManager.getConnection(CONNECTION_STRING)) {
+            final ParadoxConnection paradoxConnection = conn.unwrap(ParadoxConnection.class);
+
+            final Runnable[] task = new Runnable[1];
+            final CompletableFuture<ResultSet> future = paradoxConnection.executeQueryAsync(
+                    (Runnable runnable) -> task[0] = runnable, "select * from geog.tblAC");
+            Assert.assertTrue("Invalid state", future.cancel(true));
+
+            // The query is not executed after cancel.
+            task[0].run();
+            Assert.assertTrue("Invalid state", future.isCancelled());
+        }
+    }
+
+    /**
+     * Test for asynchronous query statement release.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testExecuteQueryAsyncClose() throws Exception {
+        try (final Connection conn = DriverManager.getConnection(CONNECTION_STRING)) {
+            final ParadoxConnection paradoxConnection = conn.unwrap(ParadoxConnection.class);
+
+            final Statement statement;
+            try (final ResultSet rs = paradoxConnection.executeQueryAsync(
+                    "select count(*) from geog.tblAC where State = ?", "NJ").get()) {
+                statement = rs.getStatement();
+                Assert.assertFalse("Invalid statement state", statement.isClosed());
+            }
+
+            Assert.assertTrue("Invalid statement state", statement.isClosed());
+
+            // Invalid parameter index.
+            Assert.assertThrows("Invalid result", SQLException.class,
+                    () -> paradoxConnection.executeQueryAsync("select * from geog.tblAC", "NJ"));
+        }
+    }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit test for {@link ParadoxDataSource}.
+ *
+ * @version 1.4
+ * @since 1.6.1
+ */
+public class ParadoxDataSourceTest {
+
+    /**
+     * The connection string used in this tests.
+     */
+    private static final String CONNECTION_STRING = "jdbc:paradox:target/test-classes/";
+
+    /**
+     * Test for connection reuse.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testReuse() throws SQLException {
+        try (final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "db")) {
+            try (final Connection conn = dataSource.getConnection()) {
+                conn.setSchema("geog");
+
+                try (final Statement stmt = conn.createStatement();
+                     final ResultSet rs = stmt.executeQuery("select count(*) from tblAC where State = 'NJ'")) {
+                    Assert.assertTrue("Invalid result set state", rs.next());
+                    Assert.assertEquals("Invalid value", 5, rs.getInt(1));
+                }
+            }
+
+            Assert.assertEquals("Invalid idle count", 1, dataSource.getIdleCount());
+
+            try (final Connection conn = dataSource.getConnection()) {
+                Assert.assertEquals("Connection state not restored", "db", conn.getSchema());
+                Assert.assertEquals("Invalid idle count", 0, dataSource.getIdleCount());
+            }
+        }
+    }
+
+    /**
+     * Test for the configured properties restored on connection reuse.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testPropertiesRestored() throws SQLException {
+        try (final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "db")) {
+            dataSource.setProperty(ConnectionInfo.RESULT_CACHE_KEY, "true");
+
+            try (final Connection conn = dataSource.getConnection()) {
+                conn.setClientInfo(ConnectionInfo.RESULT_CACHE_KEY, "false");
+                conn.setClientInfo(ConnectionInfo.PARALLEL_KEY, "true");
+                conn.setHoldability(ResultSet.HOLD_CURSORS_OVER_COMMIT);
+                conn.unwrap(ParadoxConnection.class).getConnectionInfo().addWarning("Test warning");
+                Assert.assertNotNull("Invalid warnings", conn.getWarnings());
+            }
+
+            try (final Connection conn = dataSource.getConnection()) {
+                Assert.assertEquals("Invalid value", "true", conn.getClientInfo(ConnectionInfo.RESULT_CACHE_KEY));
+                Assert.assertEquals("Invalid value", "false", conn.getClientInfo(ConnectionInfo.PARALLEL_KEY));
+                Assert.assertEquals("Invalid value", ResultSet.CLOSE_CURSORS_AT_COMMIT, conn.getHoldability());
+                Assert.assertNull("Invalid warnings", conn.getWarnings());
+            }
+        }
+    }
+
+    /**
+     * Test for objects created by the connection handle.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testHandleNotExposed() throws SQLException {
+        try (final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "db")) {
+            try (final Connection conn = dataSource.getConnection()) {
+                Assert.assertSame("Invalid connection", conn, conn.unwrap(Connection.class));
+                Assert.assertTrue("Invalid connection", conn.isWrapperFor(ParadoxConnection.class));
+                Assert.assertSame("Invalid connection", conn, conn.getMetaData().getConnection());
+
+                try (final PreparedStatement stmt = conn.prepareStatement("select 1")) {
+                    Assert.assertTrue("Invalid result", stmt.execute());
+                    Assert.assertSame("Invalid result set", stmt.getResultSet(), stmt.getResultSet());
+                    Assert.assertSame("Invalid connection", conn, stmt.getConnection());
+                    Assert.assertSame("Invalid statement", stmt, stmt.getResultSet().getStatement());
+                }
+
+                // Closing the statement connection closes only the handle.
+                final Statement stmt = conn.createStatement();
+                stmt.getConnection().close();
+                Assert.assertTrue("Invalid connection state", conn.isClosed());
+            }
+
+            Assert.assertEquals("Invalid idle count", 1, dataSource.getIdleCount());
+        }
+    }
+
+    /**
+     * Test for the {@link ParadoxConnection} facade of a connection handle.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testFacade() throws Exception {
+        try (final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "geog")) {
+            final Connection conn = dataSource.getConnection();
+            final ParadoxConnection facade = conn.unwrap(ParadoxConnection.class);
+            Assert.assertSame("Invalid connection", facade, conn.unwrap(ParadoxConnection.class));
+            Assert.assertSame("Invalid connection", conn, facade.unwrap(Connection.class));
+
+            try (final ResultSet rs = facade.executeQueryAsync("select count(*) from tblAC where State = ?", "NJ")
+                    .get()) {
+                Assert.assertSame("Invalid connection", conn, rs.getStatement().getConnection());
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", 5, rs.getInt(1));
+            }
+
+            conn.close();
+            Assert.assertTrue("Invalid connection state", facade.isClosed());
+            Assert.assertThrows("Invalid connection state", SQLException.class, facade::createStatement);
+            Assert.assertThrows("Invalid connection state", SQLException.class,
+                    () -> facade.executeQueryAsync("select 1"));
+        }
+    }
+
+    /**
+     * Test for closed connection handle.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testClosedHandle() throws SQLException {
+        try (final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "db")) {
+            final Connection conn = dataSource.getConnection();
+            conn.close();
+
+            Assert.assertTrue("Invalid connection state", conn.isClosed());
+            Assert.assertThrows("Invalid connection state", SQLException.class, conn::createStatement);
+        }
+    }
+
+    /**
+     * Test for pooled connection events.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testPooledConnectionEvents() throws SQLException {
+        final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "db");
+        final PooledConnection pooled = dataSource.getPooledConnection();
+        try {
+            final int[] closed = new int[1];
+            pooled.addConnectionEventListener(new ConnectionEventListener() {
+                @Override
+                public void connectionClosed(final ConnectionEvent event) {
+                    closed[0]++;
+                }
+
+                @Override
+                public void connectionErrorOccurred(final ConnectionEvent event) {
+                    Assert.fail("Invalid connection state");
+                }
+            });
+
+            pooled.getConnection().close();
+            pooled.getConnection().close();
+            Assert.assertEquals("Invalid event count", 2, closed[0]);
+        } finally {
+            pooled.close();
+        }
+    }
+
+    /**
+     * Test for invalid URL.
+     */
+    @Test
+    public void testInvalidUrl() {
+        final ParadoxDataSource dataSource = new ParadoxDataSource("jdbc:other:db");
+        Assert.assertThrows("Invalid URL", SQLException.class, dataSource::getConnection);
+    }
+
+    /**
+     * Test for connections returned while the data source is closed.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testConcurrentClose() throws Exception {
+        for (int loop = 0; loop < 20; loop++) {
+            final ParadoxDataSource dataSource = new ParadoxDataSource(CONNECTION_STRING + "db");
+            final List<Connection> connections = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                connections.add(dataSource.getConnection());
+            }
+
+            final Thread closer = new Thread(dataSource::close);
+            closer.start();
+            for (final Connection conn : connections) {
+                conn.close();
+            }
+
+            closer.join();
+            Assert.assertEquals("Invalid idle count", 0, dataSource.getIdleCount());
+            Assert.assertThrows("Invalid data source state", SQLException.class, dataSource::getConnection);
+        }
+    }
+}
@@ -20,7 +20,7 @@ import java.sql.*;
 /**
  * Unit test for Paradox Prepared Statement.
  *
- * @version 1.1
+ * @version 1.7
  * @since 1.6.0
  */
 public class ParadoxPreparedStatementTest {
@@ -151,4 +151,247 @@ public class ParadoxPreparedStatementTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test for IN expression with parameters.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testInWithParameters() throws SQLException {
+        try (final PreparedStatement preparedStatement = conn.prepareStatement("select AreaCode from geog.tblAC " +
+                " where State = 'NJ' and AreaCode in (?, ?) order by AreaCode")) {
+            preparedStatement.setString(1, "908");
+            preparedStatement.setInt(2, 201);
+
+            try (final ResultSet rs = preparedStatement.executeQuery()) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", "201", rs.getString("AreaCode"));
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", "908", rs.getString("AreaCode"));
+                Assert.assertFalse("Invalid result set state", rs.next());
+            }
+        }
+    }
+
+    /**
+     * Test for IN expression with an array parameter.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testInWithArrayParameter() throws SQLException {
+        try (final PreparedStatement preparedStatement = conn.prepareStatement("select AreaCode from geog.tblAC " +
+                " where State = 'NJ' and AreaCode in (?) order by AreaCode")) {
+            preparedStatement.setObject(1, new Object[]{"609", "973", "000"});
+
+            try (final ResultSet rs = preparedStatement.executeQuery()) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", "609", rs.getString("AreaCode"));
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", "973", rs.getString("AreaCode"));
+                Assert.assertFalse("Invalid result set state", rs.next());
+            }
+        }
+    }
+
+    /**
+     * Test for prepared statement reuse.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testReuse() throws SQLException {
+        try (final PreparedStatement preparedStatement = conn.prepareStatement("select count(*) from geog.tblAC " +
+                " where State = ?")) {
+            final String[] states = {"NJ", "NY", "NJ"};
+            final int[] counts = {5, 6, 5};
+
+            ResultSet last = null;
+            for (int i = 0; i < states.length; i++) {
+                preparedStatement.setString(1, states[i]);
+
+                final ResultSet rs = preparedStatement.executeQuery();
+                if (last != null) {
+                    Assert.assertTrue("Invalid result set state", last.isClosed());
+                }
+
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", counts[i], rs.getInt(1));
+                Assert.assertFalse("Invalid result set state", rs.next());
+                last = rs;
+            }
+
+            preparedStatement.setString(1, "NJ");
+            try (final ResultSet rs = preparedStatement.executeQuery()) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", 5, rs.getInt(1));
+                Assert.assertFalse("Invalid result set state", rs.next());
+            }
+        }
+    }
+
+    /**
+     * Test for batch execution.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testBatch() throws SQLException {
+        try (final PreparedStatement preparedStatement = conn.prepareStatement("select AreaCode from geog.tblAC " +
+                " where State = ?")) {
+            preparedStatement.setString(1, "NJ");
+            preparedStatement.addBatch();
+            preparedStatement.setString(1, "NY");
+            preparedStatement.addBatch();
+
+            Assert.assertEquals("Invalid batch result", 2, preparedStatement.executeBatch().length);
+        }
+    }
+
+    /**
+     * Test for batch result sets reading the table once.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testBatchResults() throws SQLException {
+        try (final PreparedStatement preparedStatement = conn.prepareStatement("select AreaCode from geog.tblAC " +
+                " where State = ?", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            final String[] states = {"NJ", "NY", "NJ"};
+            final int[] counts = {5, 6, 5};
+            for (final String state : states) {
+                preparedStatement.setString(1, state);
+                preparedStatement.addBatch();
+            }
+
+            Assert.assertEquals("Invalid batch result", 3, preparedStatement.executeBatch().length);
+            for (int i = 0; i < counts.length; i++) {
+                Assert.assertTrue("Invalid result set state", preparedStatement.getMoreResults());
+                try (final ResultSet rs = preparedStatement.getResultSet()) {
+                    int count = 0;
+                    while (rs.next()) {
+                        count++;
+                    }
+
+                    Assert.assertEquals("Invalid value", counts[i], count);
+                }
+            }
+
+            Assert.assertFalse("Invalid result set state", preparedStatement.getMoreResults());
+        }
+    }
+
+    /**
+     * Test for batch results found by the parameter key, with values of other types.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testBatchKey() throws SQLException {
+        final String sql = "select AreaCode from geog.tblAC where ? = AreaCode and State = ?";
+        final Object[] codes = {"201", 201, null, "999", 201.0D};
+        final int[] counts = new int[codes.length];
+        try (final PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            for (int i = 0; i < codes.length; i++) {
+                preparedStatement.setObject(1, codes[i]);
+                preparedStatement.setString(2, "NJ");
+                try (final ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        counts[i]++;
+                    }
+                }
+            }
+        }
+
+        Assert.assertEquals("Invalid value", 1, counts[0]);
+        Assert.assertEquals("Invalid value", 1, counts[1]);
+
+        try (final PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
+            for (final Object code : codes) {
+                preparedStatement.setObject(1, code);
+                preparedStatement.setString(2, "NJ");
+                preparedStatement.addBatch();
+            }
+
+            Assert.assertEquals("Invalid batch result", codes.length, preparedStatement.executeBatch().length);
+            for (final int expected : counts) {
+                Assert.assertTrue("Invalid result set state", preparedStatement.getMoreResults());
+                try (final ResultSet rs = preparedStatement.getResultSet()) {
+                    int count = 0;
+                    while (rs.next()) {
+                        count++;
+                    }
+
+                    Assert.assertEquals("Invalid value", expected, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test for result types in concurrent executions of the same plan.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testSharedPlanTypes() throws SQLException {
+        final String sql = "select coalesce(?, ?) from geog.tblAC where State = 'NJ'";
+        try (final PreparedStatement first = conn.prepareStatement(sql);
+             final PreparedStatement second = conn.prepareStatement(sql)) {
+            first.setInt(1, 1);
+            first.setInt(2, 2);
+            second.setString(1, "a");
+            second.setString(2, "b");
+
+            try (final ResultSet rs1 = first.executeQuery(); final ResultSet rs2 = second.executeQuery()) {
+                Assert.assertEquals("Invalid type", Types.INTEGER, rs1.getMetaData().getColumnType(1));
+                Assert.assertEquals("Invalid type", Types.VARCHAR, rs2.getMetaData().getColumnType(1));
+
+                Assert.assertTrue("Invalid result set state", rs1.next());
+                Assert.assertEquals("Invalid value", 1, rs1.getInt(1));
+                Assert.assertTrue("Invalid result set state", rs2.next());
+                Assert.assertEquals("Invalid value", "a", rs2.getString(1));
+            }
+        }
+    }
+
+    /**
+     * Test for interleaved executions of the same IN expression with different parameters.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testInInterleavedExecutions() throws SQLException {
+        final String sql = "select State from geog.tblAC where State in (?)";
+        try (final PreparedStatement first = conn.prepareStatement(sql);
+             final PreparedStatement second = conn.prepareStatement(sql)) {
+            first.setString(1, "NJ");
+            second.setString(1, "NY");
+
+            int firstCount = 0;
+            int secondCount = 0;
+            try (final ResultSet rs1 = first.executeQuery();
+                 final ResultSet rs2 = second.executeQuery()) {
+                boolean next1 = rs1.next();
+                boolean next2 = rs2.next();
+                while (next1 || next2) {
+                    if (next1) {
+                        Assert.assertEquals("Invalid value", "NJ", rs1.getString(1));
+                        firstCount++;
+                        next1 = rs1.next();
+                    }
+
+                    if (next2) {
+                        Assert.assertEquals("Invalid value", "NY", rs2.getString(1));
+                        secondCount++;
+                        next2 = rs2.next();
+                    }
+                }
+            }
+
+            Assert.assertTrue("Invalid result set state", firstCount > 0);
+            Assert.assertTrue("Invalid result set state", secondCount > 0);
+        }
+    }
+}
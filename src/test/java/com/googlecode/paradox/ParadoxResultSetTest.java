@@ -17,13 +17,14 @@ import org.junit.*;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * Unit test for {@link ParadoxResultSet} class.
  *
- * @version 1.7
+ * @version 1.9
  * @since 1.3
  */
 @SuppressWarnings({"java:S109", "java:S1192"})
@@ -619,4 +620,59 @@ public class ParadoxResultSetTest {
             Assert.assertNull("More result sets", stmt.getResultSet());
         }
     }
+
+    /**
+     * Test for forward only result set.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testForwardOnly() throws SQLException {
+        try (final Statement stmt = this.conn.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(2);
+
+            try (final ResultSet rs = stmt.executeQuery("select AreaCode from geog.tblAC where State = 'NJ'")) {
+                Assert.assertEquals(INVALID_RESULT_SET_STATE, ResultSet.TYPE_FORWARD_ONLY, rs.getType());
+                Assert.assertTrue(INVALID_RESULT_SET_STATE, rs.isBeforeFirst());
+                Assert.assertThrows(INVALID_RESULT_SET_STATE, SQLException.class, rs::first);
+
+                final List<String> values = new ArrayList<>();
+                while (rs.next()) {
+                    Assert.assertEquals(INVALID_RESULT_SET_STATE, values.size() + 1, rs.getRow());
+                    values.add(rs.getString("AreaCode"));
+                }
+
+                Assert.assertTrue(INVALID_RESULT_SET_STATE, rs.isAfterLast());
+
+                Collections.sort(values);
+                Assert.assertEquals("Invalid values", Arrays.asList("201", "609", "732", "908", "973"), values);
+            }
+        }
+    }
+
+    /**
+     * Test for column access by index and label.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testColumnAccess() throws SQLException {
+        final Column hidden = new Column("B", ParadoxType.INTEGER);
+        hidden.setHidden(true);
+        final List<Column> columns = Arrays.asList(new Column("A", ParadoxType.INTEGER),
+                new Column("B", ParadoxType.LONG), new Column("C", ParadoxType.NUMBER), hidden);
+        final List<Object[]> values = Collections.singletonList(new Object[]{1, 2L, 3.5D, 4});
+        final ParadoxStatement stmt = (ParadoxStatement) conn.createStatement();
+        try (final ParadoxResultSet rs = new ParadoxResultSet(this.conn.getConnectionInfo(), stmt, values, columns)) {
+            Assert.assertTrue(INVALID_RESULT_SET_STATE, rs.next());
+            Assert.assertEquals("Invalid column index", 2, rs.findColumn("b"));
+            Assert.assertEquals("Invalid value", 1, rs.getInt("a"));
+            Assert.assertEquals("Invalid value", 2L, rs.getLong(2));
+            Assert.assertEquals("Invalid value", 3.5D, rs.getDouble("C"), 0.0001D);
+            Assert.assertEquals("Invalid value", 3, rs.getInt(3));
+            Assert.assertThrows("Invalid column", SQLException.class, () -> rs.getInt(4));
+            Assert.assertThrows("Invalid column", SQLException.class, () -> rs.findColumn("D"));
+        }
+    }
 }
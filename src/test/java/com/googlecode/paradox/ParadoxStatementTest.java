@@ -17,7 +17,7 @@ import java.sql.*;
 /**
  * Unit test for Paradox Statement.
  *
- * @version 1.0
+ * @version 1.1
  * @since 1.6.0
  */
 public class ParadoxStatementTest {
@@ -82,4 +82,30 @@ public class ParadoxStatementTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test for query timeout in forward only result sets.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    @SuppressWarnings("java:S2925")
+    public void testQueryTimeout() throws Exception {
+        try (final Statement statement = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            statement.setQueryTimeout(1);
+            statement.setFetchSize(1);
+
+            try (final ResultSet rs = statement.executeQuery("SELECT * FROM db.HERCULES")) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+
+                Thread.sleep(1500);
+                Assert.assertThrows("Invalid result set state", SQLTimeoutException.class, () -> {
+                    while (rs.next()) {
+                        // Read all rows.
+                    }
+                });
+            }
+        }
+    }
+}
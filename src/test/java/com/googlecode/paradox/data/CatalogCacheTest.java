@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.data;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.Driver;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.utils.TemporarySchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+/**
+ * Unit test for {@link CatalogCache}.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public class CatalogCacheTest {
+
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("db");
+
+    /**
+     * The temporary catalog directory.
+     */
+    private File catalog;
+
+    /**
+     * The temporary schema directory.
+     */
+    private File schema;
+
+    /**
+     * Register the database driver.
+     */
+    @BeforeClass
+    @SuppressWarnings("java:S2115")
+    public static void setUp() {
+        new Driver();
+    }
+
+    /**
+     * Creates a schema with a copy of a table.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Before
+    public void createSchema() throws IOException {
+        catalog = temporarySchema.getCatalog();
+        schema = temporarySchema.getSchema();
+        temporarySchema.copy("db", "HERCULES.DB");
+    }
+
+    /**
+     * Clears the caches.
+     */
+    @After
+    public void clear() {
+        CatalogCache.clearAll();
+    }
+
+    /**
+     * Test for revalidation by file modification time.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testRevalidation() throws IOException {
+        final File table = new File(schema, "HERCULES.DB");
+        final CatalogCache cache = CatalogCache.getInstance(schema, null);
+        Assert.assertTrue("Invalid file", table.setLastModified(System.currentTimeMillis() - 20_000));
+
+        final byte[] header = cache.readHeader(table);
+        Assert.assertSame("Header not cached", header, cache.readHeader(table));
+        Assert.assertTrue("Invalid header size", header.length < table.length());
+
+        Assert.assertTrue("Invalid file", table.setLastModified(table.lastModified() - 10_000));
+        Assert.assertNotSame("Header not revalidated", header, cache.readHeader(table));
+    }
+
+    /**
+     * Test for files read right after a modification, in the same modification time stamp.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testRacyModification() throws IOException {
+        final File table = new File(schema, "HERCULES.DB");
+        final CatalogCache cache = CatalogCache.getInstance(schema, null);
+
+        Assert.assertTrue("Invalid file", table.setLastModified(System.currentTimeMillis()));
+        final byte[] header = cache.readHeader(table);
+        Assert.assertNotSame("Racy header reused", header, cache.readHeader(table));
+
+        Assert.assertTrue("Invalid file", table.setLastModified(System.currentTimeMillis() - 10_000));
+        final byte[] current = cache.readHeader(table);
+        Assert.assertSame("Header not cached", current, cache.readHeader(table));
+    }
+
+    /**
+     * Test for subdirectory listing revalidation.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testDirectories() throws IOException {
+        final CatalogCache cache = CatalogCache.getInstance(catalog, null);
+        Assert.assertEquals("Invalid directories", Collections.singletonList(schema), cache.listDirectories());
+        Assert.assertEquals("Invalid directory", schema, cache.findDirectory("DB"));
+        Assert.assertNull("Invalid directory", cache.findDirectory("other"));
+
+        final File other = new File(catalog, "other");
+        Assert.assertTrue("Invalid directory", other.mkdir());
+        try {
+            Assert.assertEquals("Directory not found", other, cache.findDirectory("OTHER"));
+            Assert.assertEquals("Invalid directories", Arrays.asList(schema, other), cache.listDirectories());
+        } finally {
+            Files.delete(other.toPath());
+        }
+
+        Assert.assertNull("Directory not removed", cache.findDirectory("other"));
+    }
+
+    /**
+     * Test for snapshot file reuse in a new cache.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testSnapshot() throws SQLException {
+        final Properties properties = new Properties();
+        properties.setProperty(ConnectionInfo.CATALOG_SNAPSHOT_KEY, "true");
+
+        final String url = "jdbc:paradox:" + schema.getAbsolutePath();
+        try (final Connection conn = DriverManager.getConnection(url, properties);
+             final ResultSet rs = conn.getMetaData().getTables(null, null, "%", null)) {
+            Assert.assertTrue("Invalid result set state", rs.next());
+        }
+
+        Assert.assertTrue("Snapshot not saved", new File(schema, CatalogCache.SNAPSHOT_FILE).isFile());
+
+        CatalogCache.clearAll();
+        try (final Connection conn = DriverManager.getConnection(url, properties)) {
+            final ConnectionInfo info = conn.unwrap(ParadoxConnection.class).getConnectionInfo();
+            Assert.assertEquals("Snapshot not loaded", 1, CatalogCache.getInstance(schema, info).size());
+
+            try (final ResultSet rs = conn.getMetaData().getColumns(null, null, "HERCULES", "%")) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.data;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.Driver;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.utils.TemporarySchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link CatalogWarmUp}.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public class CatalogWarmUpTest {
+
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("geog");
+
+    /**
+     * The temporary schema directory.
+     */
+    private File schema;
+
+    /**
+     * Register the database driver.
+     */
+    @BeforeClass
+    @SuppressWarnings("java:S2115")
+    public static void setUp() {
+        new Driver();
+    }
+
+    /**
+     * Creates a schema with a copy of the tables and a view.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Before
+    public void createSchema() throws IOException {
+        CatalogCache.clearAll();
+        CatalogWarmUp.clearAll();
+
+        schema = temporarySchema.getSchema();
+        temporarySchema.copy("geog", "tblAC.DB", "tblAC.PX", "County.DB", "County.PX");
+        temporarySchema.write("codes.sql", "select AreaCode from geog.tblAC");
+    }
+
+    /**
+     * Clears the caches.
+     */
+    @After
+    public void clear() {
+        CatalogCache.clearAll();
+        CatalogWarmUp.clearAll();
+    }
+
+    /**
+     * Test for warm-up on connection open.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testWarmUp() throws Exception {
+        final Properties properties = new Properties();
+        properties.put(ConnectionInfo.WARM_UP_KEY, "true");
+        properties.put(ConnectionInfo.WARM_UP_TABLES_KEY, "county");
+        properties.put(ConnectionInfo.WARM_UP_THREADS_KEY, "1");
+
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl(),
+                properties)) {
+            final ConnectionInfo connectionInfo = conn.unwrap(ParadoxConnection.class).getConnectionInfo();
+            final CompletableFuture<Void> warmUp = CatalogWarmUp.start(schema, connectionInfo);
+            Assert.assertSame("Warm-up started again", warmUp, CatalogWarmUp.start(schema, connectionInfo));
+
+            warmUp.get(30, TimeUnit.SECONDS);
+
+            // Table and primary key headers of both tables and the view.
+            Assert.assertEquals("Invalid cache size", 5, CatalogCache.getInstance(schema, null).size());
+            assertCount(conn, "select count(*) from County", 3218);
+        }
+    }
+
+    /**
+     * Test for queries executed while the warm-up is running.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testQueryDuringWarmUp() throws Exception {
+        final Properties properties = new Properties();
+        properties.put(ConnectionInfo.WARM_UP_KEY, "true");
+
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl(),
+                properties)) {
+            try (final Statement stmt = conn.createStatement();
+                 final ResultSet rs = stmt.executeQuery("select count(*) from geog.tblAC")) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                assertCount(conn, "select count(*) from codes", rs.getInt(1));
+            }
+
+            // Do not remove the files while reading them.
+            CatalogWarmUp.start(schema, conn.unwrap(ParadoxConnection.class).getConnectionInfo())
+                    .get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Test for warm-up warnings kept out of the connection.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testWarnings() throws Exception {
+        // Table with an unknown code page.
+        temporarySchema.copy("geog", "tblsttes.DB");
+
+        final Properties properties = new Properties();
+        properties.put(ConnectionInfo.WARM_UP_KEY, "true");
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl(), properties)) {
+            CatalogWarmUp.start(schema, conn.unwrap(ParadoxConnection.class).getConnectionInfo())
+                    .get(30, TimeUnit.SECONDS);
+
+            Assert.assertEquals("Invalid cache size", 6, CatalogCache.getInstance(schema, null).size());
+            Assert.assertNull("Warm-up warning in connection", conn.getWarnings());
+        }
+    }
+
+    /**
+     * Test for warm-up disabled by default.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testDisabled() throws SQLException {
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl())) {
+            Assert.assertFalse("Invalid warm-up state",
+                    conn.unwrap(ParadoxConnection.class).getConnectionInfo().isWarmUp());
+            Assert.assertEquals("Invalid cache size", 0, CatalogCache.getInstance(schema, null).size());
+        }
+    }
+
+    /**
+     * Checks a single value query.
+     *
+     * @param conn     the connection.
+     * @param sql      the query.
+     * @param expected the expected value.
+     * @throws SQLException in case of failures.
+     */
+    private static void assertCount(final Connection conn, final String sql, final int expected)
+            throws SQLException {
+        try (final Statement stmt = conn.createStatement();
+             final ResultSet rs = stmt.executeQuery(sql)) {
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertEquals("Invalid value", expected, rs.getInt(1));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+}
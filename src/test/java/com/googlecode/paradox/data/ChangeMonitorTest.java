@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.data;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.Driver;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.planner.ResultCache;
+import com.googlecode.paradox.utils.TemporarySchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Unit test for {@link ChangeMonitor}.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public class ChangeMonitorTest {
+
+    /**
+     * The published changes.
+     */
+    private final BlockingQueue<File> changes = new LinkedBlockingQueue<>();
+
+    /**
+     * The change listener.
+     */
+    private final Consumer<File> listener = changes::add;
+
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("db");
+
+    /**
+     * The temporary schema directory.
+     */
+    private File schema;
+
+    /**
+     * Register the database driver.
+     */
+    @BeforeClass
+    @SuppressWarnings("java:S2115")
+    public static void setUp() {
+        new Driver();
+    }
+
+    /**
+     * Creates a schema with a copy of a table.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Before
+    public void createSchema() throws IOException {
+        schema = temporarySchema.getSchema();
+        temporarySchema.copy("db", "HERCULES.DB");
+        ChangeMonitor.addListener(listener);
+    }
+
+    /**
+     * Stops the monitors and clears the caches.
+     */
+    @After
+    public void clear() {
+        ChangeMonitor.removeListener(listener);
+        ChangeMonitor.stopAll();
+        CatalogCache.clearAll();
+        ParadoxConnection.getResultCache().clear();
+    }
+
+    /**
+     * Test for directory polling.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testPoll() throws Exception {
+        ChangeMonitor.start(schema, ChangeMonitor.Mode.POLL, 10);
+        final ChangeMonitor monitor = ChangeMonitor.getMonitor(schema);
+        Assert.assertNotNull("Directory not monitored", monitor);
+        Assert.assertTrue("Invalid monitor state", monitor.isActive());
+
+        final long sequence = ChangeMonitor.sequence();
+        final File table = new File(schema, "HERCULES.DB");
+        Assert.assertFalse("Invalid file state", monitor.isChanged(table.getName(), sequence));
+
+        // Not monitored.
+        Files.write(new File(schema, "other.txt").toPath(), new byte[]{1});
+        Assert.assertTrue("Invalid file", table.setLastModified(table.lastModified() - 10_000));
+
+        Assert.assertEquals("Invalid change", table, nextChange());
+        Assert.assertTrue("Invalid file state", monitor.isChanged(table.getName(), sequence));
+        Assert.assertFalse("Invalid file state", monitor.isChanged("OTHER.DB", sequence));
+    }
+
+    /**
+     * Test for file system events.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testWatch() throws Exception {
+        ChangeMonitor.start(schema, ChangeMonitor.Mode.WATCH, 10);
+        Assert.assertNotNull("Directory not monitored", ChangeMonitor.getMonitor(schema));
+
+        final File view = new File(schema, "view.sql");
+        Files.write(view.toPath(), "select 1".getBytes());
+
+        final File changed = nextChange();
+        Assert.assertTrue("Invalid change", view.equals(changed) || schema.equals(changed));
+    }
+
+    /**
+     * Test for result cache invalidation on changes.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testResultCacheInvalidation() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty(ConnectionInfo.RESULT_CACHE_KEY, "true");
+        properties.setProperty(ConnectionInfo.CHANGE_MONITOR_KEY, "poll");
+        properties.setProperty(ConnectionInfo.CHANGE_MONITOR_INTERVAL_KEY, "10");
+
+        final ResultCache cache = ParadoxConnection.getResultCache();
+        cache.clear();
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl(),
+                properties)) {
+            Assert.assertEquals("Invalid value", count(conn), count(conn));
+            Assert.assertEquals("Invalid size", 1, cache.size());
+            Assert.assertNotNull("Directory not monitored", ChangeMonitor.getMonitor(schema));
+
+            final File table = new File(schema, "HERCULES.DB");
+            Assert.assertTrue("Invalid file", table.setLastModified(table.lastModified() - 10_000));
+            Assert.assertNotNull("Change not published", nextChange());
+            Assert.assertEquals("Invalid size", 0, cache.size());
+        }
+    }
+
+    /**
+     * Waits for the next change in the test schema, ignoring late changes of other tests.
+     *
+     * @return the changed file or <code>null</code> if timed out.
+     * @throws InterruptedException if interrupted.
+     */
+    private File nextChange() throws InterruptedException {
+        File changed = changes.poll(5, TimeUnit.SECONDS);
+        while (changed != null && !schema.equals(changed) && !schema.equals(changed.getParentFile())) {
+            changed = changes.poll(5, TimeUnit.SECONDS);
+        }
+
+        return changed;
+    }
+
+    /**
+     * Counts the table rows.
+     *
+     * @param conn the connection.
+     * @return the row count.
+     * @throws SQLException in case of failures.
+     */
+    private static int count(final Connection conn) throws SQLException {
+        try (final Statement stmt = conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select count(*) from HERCULES")) {
+            Assert.assertTrue("Invalid result set state", rs.next());
+            return rs.getInt(1);
+        }
+    }
+}
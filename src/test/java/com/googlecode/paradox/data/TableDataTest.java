@@ -17,14 +17,16 @@ import com.googlecode.paradox.metadata.Table;
 import com.googlecode.paradox.utils.TestUtil;
 import org.junit.*;
 
+import java.io.File;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Unit test for {@link TableData}.
  *
- * @version 1.6
+ * @version 1.9
  * @since 1.0
  */
 public class TableDataTest {
@@ -165,6 +167,38 @@ public class TableDataTest {
         Assert.assertNotNull("Error loading table data.", table.load(fields));
     }
 
+    /**
+     * Test for direct table lookup.
+     */
+    @Test
+    public void testFindTable() {
+        final Table table = TableData.findTable(new File("target/test-classes/db"), "HERCULES",
+                this.conn.getConnectionInfo());
+        Assert.assertNotNull("Table not found", table);
+        Assert.assertEquals("Invalid table name", "hercules", table.getName().toLowerCase());
+        Assert.assertNull("Invalid table", TableData.findTable(new File("target/test-classes/db"),
+                "not found", this.conn.getConnectionInfo()));
+    }
+
+    /**
+     * Test for concurrent table loading order.
+     */
+    @Test
+    public void testListTablesOrder() {
+        final File schema = new File("target/test-classes/db");
+        final List<Table> tables = TableData.listTables(schema, null, this.conn.getConnectionInfo());
+        Assert.assertTrue("Invalid table count", tables.size() > 1);
+
+        for (int i = 1; i < tables.size(); i++) {
+            Assert.assertTrue("Invalid table order", tables.get(i - 1).getName()
+                    .compareTo(tables.get(i).getName()) <= 0);
+        }
+
+        final Table table = TableData.findTable(schema, tables.get(0).getName(), this.conn.getConnectionInfo());
+        Assert.assertNotNull("Table not found", table);
+        Assert.assertEquals("Invalid field count", table.getFields().length, tables.get(0).getFields().length);
+    }
+
     /**
      * Test for class sanity.
      */
@@ -172,4 +206,18 @@ public class TableDataTest {
     public void testSanity() {
         Assert.assertTrue("Utility class in wrong format.", TestUtil.assertSanity(TableData.class));
     }
+
+    /**
+     * Test for table data streaming.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testStreamAreaCodes() throws SQLException {
+        final Table table = this.conn.getConnectionInfo().getCurrentSchema()
+                .findTable(this.conn.getConnectionInfo(), "areacodes");
+        try (final Stream<Object[]> stream = table.stream(table.getFields())) {
+            Assert.assertEquals("Error in stream areacodes.db table.", table.getRowCount(), stream.count());
+        }
+    }
 }
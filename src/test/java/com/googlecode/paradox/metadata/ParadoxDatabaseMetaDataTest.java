@@ -14,9 +14,11 @@ package com.googlecode.paradox.metadata;
 import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.Driver;
 import com.googlecode.paradox.ParadoxResultSet;
+import com.googlecode.paradox.data.CatalogCache;
 import com.googlecode.paradox.utils.Constants;
 import org.junit.*;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
@@ -26,7 +28,7 @@ import java.util.Properties;
 /**
  * Unit test for {@link ParadoxDatabaseMetaData} class.
  *
- * @version 1.1
+ * @version 1.3
  * @since 1.3
  */
 public class ParadoxDatabaseMetaDataTest {
@@ -181,6 +183,39 @@ public class ParadoxDatabaseMetaDataTest {
         }
     }
 
+    /**
+     * Test for columns reading only the table filtered.
+     *
+     * @throws SQLException in case of errors.
+     */
+    @Test
+    public void testColumnsTableFilter() throws SQLException {
+        CatalogCache.clearAll();
+        try (ResultSet rs = this.conn.getMetaData().getColumns(null, null, "CUSTOMER", "%")) {
+            Assert.assertTrue("Invalid result set state.", rs.next());
+            do {
+                Assert.assertEquals("Invalid table name.", "CUSTOMER", rs.getString("TABLE_NAME"));
+            } while (rs.next());
+        }
+
+        final int files = CatalogCache.getInstance(new File("src/test/resources/db"), null).size();
+        Assert.assertTrue("Too many files read: " + files, files > 0 && files <= 4);
+    }
+
+    /**
+     * Test for tables with name pattern.
+     *
+     * @throws SQLException in case of errors.
+     */
+    @Test
+    public void testTablesNamePattern() throws SQLException {
+        try (ResultSet rs = this.conn.getMetaData().getTables(null, "db", "CUST%", null)) {
+            Assert.assertTrue("Invalid result set state.", rs.next());
+            Assert.assertEquals("Invalid table name.", "CUSTOMER", rs.getString("TABLE_NAME"));
+            Assert.assertFalse("Invalid result set state.", rs.next());
+        }
+    }
+
     /**
      * Test for columns with invalid pattern.
      *
@@ -1057,4 +1092,22 @@ public class ParadoxDatabaseMetaDataTest {
             Assert.assertFalse("Invalid ResultSet state.", rs.next());
         }
     }
+
+    /**
+     * Test for primary key metadata with pattern characters in table name.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testPrimaryKeyExactName() throws SQLException {
+        final java.sql.DatabaseMetaData meta = this.conn.getMetaData();
+
+        try (ResultSet rs = meta.getPrimaryKeys(null, "db", "CUSTOM_R")) {
+            Assert.assertFalse("Invalid ResultSet state.", rs.next());
+        }
+
+        try (ResultSet rs = meta.getIndexInfo(null, "d_", "CUSTOMER", false, true)) {
+            Assert.assertFalse("Invalid ResultSet state.", rs.next());
+        }
+    }
 }
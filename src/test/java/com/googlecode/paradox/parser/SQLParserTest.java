@@ -29,7 +29,7 @@ import java.sql.SQLSyntaxErrorException;
 /**
  * Unit test for {@link SQLParser}.
  *
- * @version 1.7
+ * @version 1.8
  * @since 1.0
  */
 @SuppressWarnings({"java:S109", "java:S1192", "java:S1200", "java:S1448"})
@@ -869,6 +869,47 @@ public class SQLParserTest {
         Assert.assertEquals("Invalid field size", "2", node.getValues().get(1).getName());
     }
 
+    /**
+     * Test for IN expression with parameters.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testInWithParameters() throws SQLException {
+        final SQLParser parser = new SQLParser("select id from fields.long where id in (?, 2, ?)");
+        final SelectNode select = (SelectNode) parser.parse();
+
+        Assert.assertEquals("Invalid parameter count", 2, select.getParameterCount());
+        Assert.assertTrue("Invalid node type", select.getCondition() instanceof InNode);
+
+        final InNode node = (InNode) select.getCondition();
+        Assert.assertEquals("Invalid field size", 3, node.getValues().size());
+        Assert.assertTrue("Invalid node type", node.getValues().get(0) instanceof ParameterNode);
+        Assert.assertEquals("Invalid field value", "2", node.getValues().get(1).getName());
+        Assert.assertEquals("Invalid parameter index", 1,
+                ((ParameterNode) node.getValues().get(2)).getParameterIndex());
+    }
+
+    /**
+     * Test for constant functions.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testConstantFunctions() throws SQLException {
+        final SQLParser parser = new SQLParser("select upper('a'), upper(lower(?)), current_date, " +
+                "upper(name), rand(), abs(rand()) from fields.long");
+        final SelectNode select = (SelectNode) parser.parse();
+
+        Assert.assertEquals("Invalid field size", 6, select.getFields().size());
+        Assert.assertTrue("Invalid constant value", ((FunctionNode) select.getFields().get(0)).isConstant());
+        Assert.assertTrue("Invalid constant value", ((FunctionNode) select.getFields().get(1)).isConstant());
+        Assert.assertTrue("Invalid constant value", ((FunctionNode) select.getFields().get(2)).isConstant());
+        Assert.assertFalse("Invalid constant value", ((FunctionNode) select.getFields().get(3)).isConstant());
+        Assert.assertFalse("Invalid constant value", ((FunctionNode) select.getFields().get(4)).isConstant());
+        Assert.assertFalse("Invalid constant value", ((FunctionNode) select.getFields().get(5)).isConstant());
+    }
+
     /**
      * Test for function in fields.
      *
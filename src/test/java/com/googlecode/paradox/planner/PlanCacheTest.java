@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.planner.context.Context;
+import com.googlecode.paradox.planner.plan.Plan;
+import com.googlecode.paradox.results.ParadoxType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit test for {@link PlanCache}.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+@SuppressWarnings("java:S109")
+public class PlanCacheTest {
+
+    /**
+     * Creates a plan reading from the files.
+     *
+     * @param files the plan files.
+     * @return the plan.
+     */
+    private static Plan<Object, Context> plan(final List<File> files) {
+        return new Plan<Object, Context>() {
+            @Override
+            public Object execute(final Context context) {
+                return null;
+            }
+
+            @Override
+            public Context createContext(final ConnectionInfo connectionInfo, final Object[] parameters,
+                                         final ParadoxType[] parameterTypes) {
+                return null;
+            }
+
+            @Override
+            public int getParameterCount() {
+                return 0;
+            }
+
+            @Override
+            public List<File> getSourceFiles() {
+                return files;
+            }
+        };
+    }
+
+    /**
+     * Test for hits and misses.
+     */
+    @Test
+    public void testHitAndMiss() {
+        final PlanCache cache = new PlanCache();
+        final Plan<Object, Context> plan = plan(Collections.emptyList());
+
+        Assert.assertNull("Invalid value", cache.get("url", "catalog", "schema", "select 1"));
+        cache.put("url", "catalog", "schema", "select 1", plan);
+        Assert.assertSame("Invalid value", plan, cache.get("url", "catalog", "schema", "select 1"));
+        Assert.assertNull("Invalid value", cache.get("url", "catalog", "other", "select 1"));
+
+        Assert.assertEquals("Invalid value", 1, cache.getHitCount());
+        Assert.assertEquals("Invalid value", 2, cache.getMissCount());
+    }
+
+    /**
+     * Test for size bound.
+     */
+    @Test
+    public void testEviction() {
+        final PlanCache cache = new PlanCache();
+        cache.setMaximumSize(8);
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("url", "catalog", "schema", "select " + i, plan(Collections.emptyList()));
+            Assert.assertNotNull("Invalid value", cache.get("url", "catalog", "schema", "select 0"));
+        }
+
+        Assert.assertTrue("Invalid size", cache.size() <= 8);
+        Assert.assertTrue("Invalid value", cache.getEvictionCount() > 0);
+        Assert.assertNotNull("Most used entry evicted", cache.get("url", "catalog", "schema", "select 0"));
+        Assert.assertNotNull("Last entry evicted", cache.get("url", "catalog", "schema", "select 19"));
+    }
+
+    /**
+     * Test for invalidation on file changes.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testFileChange() throws IOException {
+        final File file = File.createTempFile("plan", ".db");
+        file.deleteOnExit();
+        Assert.assertTrue("Invalid file", file.setLastModified(System.currentTimeMillis() - 10_000));
+
+        final PlanCache cache = new PlanCache();
+        cache.put("url", "catalog", "schema", "select 1", plan(Collections.singletonList(file)));
+        Assert.assertNotNull("Invalid value", cache.get("url", "catalog", "schema", "select 1"));
+
+        try (final FileOutputStream out = new FileOutputStream(file)) {
+            out.write(1);
+        }
+
+        Assert.assertNull("Invalid value", cache.get("url", "catalog", "schema", "select 1"));
+        Assert.assertEquals("Invalid value", 1, cache.getInvalidationCount());
+        Assert.assertEquals("Invalid size", 0, cache.size());
+    }
+
+    /**
+     * Test for explicit invalidation.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testInvalidate() throws IOException {
+        final File file = File.createTempFile("plan", ".db");
+        file.deleteOnExit();
+        Assert.assertTrue("Invalid file", file.setLastModified(System.currentTimeMillis() - 10_000));
+
+        final PlanCache cache = new PlanCache();
+        cache.put("url", "catalog", "schema", "select 1", plan(Collections.singletonList(file)));
+        cache.put("url", "catalog", "schema", "select 2", plan(Collections.emptyList()));
+        Assert.assertEquals("Invalid size", 2, cache.size());
+        cache.invalidate(file);
+
+        Assert.assertNull("Invalid value", cache.get("url", "catalog", "schema", "select 1"));
+        Assert.assertNotNull("Invalid value", cache.get("url", "catalog", "schema", "select 2"));
+    }
+
+    /**
+     * Test for files changed while planning.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testChangeWhilePlanning() throws IOException {
+        final File file = File.createTempFile("plan", ".db");
+        file.deleteOnExit();
+        Assert.assertTrue("Invalid file", file.setLastModified(System.currentTimeMillis() - 10_000));
+
+        final PlanCache cache = new PlanCache();
+        final PlanCache.Lookup lookup = cache.lookup("url", "catalog", "schema", "select 1");
+        Assert.assertNull("Invalid value", lookup.getPlan());
+
+        // Changed after the planning read the file.
+        try (final FileOutputStream out = new FileOutputStream(file)) {
+            out.write(1);
+        }
+
+        lookup.store(plan(Collections.singletonList(file)));
+        Assert.assertEquals("Invalid size", 0, cache.size());
+    }
+
+    /**
+     * Test for files modified within the racy interval.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Test
+    public void testRacyFile() throws IOException {
+        final File file = File.createTempFile("plan", ".db");
+        file.deleteOnExit();
+
+        final PlanCache cache = new PlanCache();
+        cache.lookup("url", "catalog", "schema", "select 1").store(plan(Collections.singletonList(file)));
+        Assert.assertEquals("Invalid size", 0, cache.size());
+
+        Assert.assertTrue("Invalid file", file.setLastModified(System.currentTimeMillis() - 10_000));
+        cache.lookup("url", "catalog", "schema", "select 1").store(plan(Collections.singletonList(file)));
+        Assert.assertNotNull("Invalid value", cache.lookup("url", "catalog", "schema", "select 1").getPlan());
+    }
+}
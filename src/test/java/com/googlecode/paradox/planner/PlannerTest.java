@@ -10,6 +10,7 @@
  */
 package com.googlecode.paradox.planner;
 
+import com.googlecode.paradox.ConnectionInfo;
 import com.googlecode.paradox.Driver;
 import com.googlecode.paradox.ParadoxConnection;
 import com.googlecode.paradox.exceptions.ParadoxDataException;
@@ -21,12 +22,13 @@ import com.googlecode.paradox.planner.plan.SelectPlan;
 import org.junit.*;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Unit test for {@link Planner}.
  *
- * @version 1.12
+ * @version 1.16
  * @since 1.1
  */
 @SuppressWarnings({"java:S2115", "java:S1192", "java:S109"})
@@ -492,4 +494,124 @@ public class PlannerTest {
             }
         }
     }
+
+    /**
+     * Test for constant functions evaluated once by execution.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testConstantFunctions() throws SQLException {
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select current_timestamp a, rand() b from geog.tblAC")) {
+            Assert.assertTrue("Invalid result set", rs.next());
+            final Timestamp first = rs.getTimestamp("a");
+            final double random = rs.getDouble("b");
+
+            boolean randomChanged = false;
+            while (rs.next()) {
+                Assert.assertEquals("Invalid constant value", first, rs.getTimestamp("a"));
+                randomChanged |= random != rs.getDouble("b");
+            }
+
+            Assert.assertTrue("Invalid volatile value", randomChanged);
+        }
+    }
+
+    /**
+     * Test for common expressions in SELECT, WHERE and ORDER BY.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testCommonExpressions() throws SQLException {
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select upper(trim(State)) s, coalesce(AreaCode, 'x') c " +
+                     "from geog.tblAC where upper(trim(State)) = 'NJ' and coalesce(AreaCode, 'x') <> '201' " +
+                     "order by upper(trim(State)), coalesce(AreaCode, 'x')")) {
+            Assert.assertEquals("Invalid column type", Types.VARCHAR, rs.getMetaData().getColumnType(2));
+
+            for (final String areaCode : new String[]{"609", "732", "908", "973"}) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                Assert.assertEquals("Invalid value", "NJ", rs.getString("s"));
+                Assert.assertEquals("Invalid value", areaCode, rs.getString("c"));
+            }
+
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for group by a function with alias.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testGroupByFunctionWithAlias() throws SQLException {
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select upper(State) s, count(*) from geog.tblAC " +
+                     "where upper(State) = 'NJ' group by upper(State)")) {
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertEquals("Invalid value", "NJ", rs.getString("s"));
+            Assert.assertEquals("Invalid value", 5, rs.getInt(2));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for parallel execution.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testParallelExecution() throws SQLException {
+        final String sql = "select upper(trim(State)) s, AreaCode from geog.tblAC " +
+                "where upper(trim(State)) like 'N%' or AreaCode like '9%'";
+
+        final List<String> sequential = new ArrayList<>();
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                sequential.add(rs.getString("s") + rs.getString("AreaCode"));
+            }
+        }
+
+        this.conn.setClientInfo(ConnectionInfo.PARALLEL_KEY, "true");
+
+        final List<String> parallel = new ArrayList<>();
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                parallel.add(rs.getString("s") + rs.getString("AreaCode"));
+            }
+        }
+
+        Assert.assertFalse("Invalid result set state", sequential.isEmpty());
+        Assert.assertEquals("Invalid values", sequential, parallel);
+    }
+
+    /**
+     * Test for function result types in parallel execution.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testParallelFunctionType() throws SQLException {
+        final String sql = "select coalesce(null, AreaCode) from geog.tblAC";
+
+        final int sequential;
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery(sql)) {
+            sequential = rs.getMetaData().getColumnType(1);
+        }
+
+        this.conn.setClientInfo(ConnectionInfo.PARALLEL_KEY, "true");
+
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery(sql)) {
+            Assert.assertEquals("Invalid column type", sequential, rs.getMetaData().getColumnType(1));
+        }
+
+        Assert.assertEquals("Invalid column type", Types.VARCHAR, sequential);
+    }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.ConnectionInfo;
+import com.googlecode.paradox.Driver;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.utils.TemporarySchema;
+import org.junit.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.util.Properties;
+
+/**
+ * Unit test for {@link ResultCache}.
+ *
+ * @version 1.3
+ * @since 1.6.1
+ */
+public class ResultCacheTest {
+
+    /**
+     * The connection string used in this tests.
+     */
+    private static final String CONNECTION_STRING = "jdbc:paradox:target/test-classes/";
+
+    /**
+     * The result cache.
+     */
+    private final ResultCache cache = ParadoxConnection.getResultCache();
+
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("geog");
+
+    /**
+     * Register the database driver.
+     */
+    @BeforeClass
+    @SuppressWarnings("java:S2115")
+    public static void setUp() {
+        new Driver();
+    }
+
+    /**
+     * Clears the shared cache.
+     */
+    @Before
+    @After
+    public void clear() {
+        cache.clear();
+        cache.resetStatistics();
+    }
+
+    /**
+     * Creates a connection with result cache.
+     *
+     * @param url the connection URL.
+     * @return the connection.
+     * @throws SQLException in case of failures.
+     */
+    private static Connection connect(final String url) throws SQLException {
+        final Properties properties = new Properties();
+        properties.setProperty(ConnectionInfo.RESULT_CACHE_KEY, "true");
+        return DriverManager.getConnection(url, properties);
+    }
+
+    /**
+     * Executes the count query.
+     *
+     * @param conn  the connection.
+     * @param state the state to count.
+     * @return the state area code count.
+     * @throws SQLException in case of failures.
+     */
+    private static int count(final Connection conn, final String state) throws SQLException {
+        try (final PreparedStatement stmt = conn.prepareStatement(
+                "select count(*) from tblAC where State = ?")) {
+            stmt.setString(1, state);
+            try (final ResultSet rs = stmt.executeQuery()) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Test for hits and misses by parameter value.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testHitAndMiss() throws SQLException {
+        try (final Connection conn = connect(CONNECTION_STRING + "geog")) {
+            Assert.assertEquals("Invalid value", 5, count(conn, "NJ"));
+            Assert.assertEquals("Invalid value", 5, count(conn, "NJ"));
+            Assert.assertEquals("Invalid value", 6, count(conn, "NY"));
+
+            Assert.assertEquals("Invalid value", 1, cache.getHitCount());
+            Assert.assertEquals("Invalid value", 2, cache.getMissCount());
+            Assert.assertTrue("Invalid memory", cache.getMemoryUsage() > 0);
+        }
+    }
+
+    /**
+     * Test for connections without result cache.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testDisabled() throws SQLException {
+        try (final Connection conn = DriverManager.getConnection(CONNECTION_STRING + "geog")) {
+            Assert.assertEquals("Invalid value", 5, count(conn, "NJ"));
+            Assert.assertEquals("Invalid size", 0, cache.size());
+        }
+    }
+
+    /**
+     * Test for not deterministic queries.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testNotDeterministic() throws SQLException {
+        try (final Connection conn = connect(CONNECTION_STRING + "geog");
+             final Statement stmt = conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select current_timestamp from tblAC")) {
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertEquals("Invalid size", 0, cache.size());
+        }
+    }
+
+    /**
+     * Test for invalidation on file changes.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testFileChange() throws Exception {
+        temporarySchema.copy("geog", "tblAC.DB");
+        final File table = new File(temporarySchema.getSchema(), "tblAC.DB");
+        try (final Connection conn = connect(temporarySchema.getUrl())) {
+            Assert.assertEquals("Invalid value", 5, count(conn, "NJ"));
+            Assert.assertEquals("Invalid value", 1, cache.size());
+
+            Assert.assertTrue("Invalid file", table.setLastModified(table.lastModified() - 10_000));
+            Assert.assertEquals("Invalid value", 5, count(conn, "NJ"));
+            Assert.assertEquals("Invalid value", 0, cache.getHitCount());
+            Assert.assertEquals("Invalid value", 2, cache.getMissCount());
+
+            cache.invalidate(table);
+            Assert.assertEquals("Invalid size", 0, cache.size());
+            Assert.assertEquals("Invalid memory", 0, cache.getMemoryUsage());
+        }
+    }
+
+    /**
+     * Test for files rewritten in place, with the same size and modification time.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testRacyFileChange() throws Exception {
+        temporarySchema.copy("geog", "tblAC.DB");
+        final File table = new File(temporarySchema.getSchema(), "tblAC.DB");
+        final long modified = System.currentTimeMillis();
+        Assert.assertTrue("Invalid file", table.setLastModified(modified));
+
+        try (final Connection conn = connect(temporarySchema.getUrl())) {
+            Assert.assertEquals("Invalid value", 5, count(conn, "NJ"));
+            Assert.assertEquals("Racy result stored", 0, cache.size());
+
+            // Change the first NJ row to NY.
+            final byte[] bytes = Files.readAllBytes(table.toPath());
+            final int headerSize = (bytes[2] & 0xFF) | ((bytes[3] & 0xFF) << 8);
+            final byte[] state = "NJ".getBytes(StandardCharsets.US_ASCII);
+            for (int i = headerSize; i < bytes.length - 1; i++) {
+                if (bytes[i] == state[0] && bytes[i + 1] == state[1]) {
+                    bytes[i + 1] = 'Y';
+                    break;
+                }
+            }
+
+            Files.write(table.toPath(), bytes);
+            Assert.assertTrue("Invalid file", table.setLastModified(modified));
+            Assert.assertEquals("Invalid file", modified / 1000, table.lastModified() / 1000);
+
+            Assert.assertEquals("Invalid value", 4, count(conn, "NJ"));
+            Assert.assertEquals("Invalid value", 0, cache.getHitCount());
+        }
+    }
+
+    /**
+     * Test for changes made to served values.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testServedValueChange() throws SQLException {
+        final String sql = "select \"time\" from fields.DATE7 where \"date\" is null";
+        try (final Connection conn = connect(CONNECTION_STRING + "fields");
+             final Statement stmt = conn.createStatement()) {
+            final long time;
+            try (final ResultSet rs = stmt.executeQuery(sql)) {
+                Assert.assertTrue("Invalid result set state", rs.next());
+                final java.util.Date value = (java.util.Date) rs.getObject(1);
+                time = value.getTime();
+                value.setTime(time + 1);
+            }
+
+            for (int i = 0; i < 2; i++) {
+                try (final ResultSet rs = stmt.executeQuery(sql)) {
+                    Assert.assertTrue("Invalid result set state", rs.next());
+                    final java.util.Date value = (java.util.Date) rs.getObject(1);
+                    Assert.assertEquals("Invalid value", time, value.getTime());
+                    value.setTime(time + 1);
+                }
+            }
+
+            Assert.assertEquals("Invalid value", 2, cache.getHitCount());
+        }
+    }
+}
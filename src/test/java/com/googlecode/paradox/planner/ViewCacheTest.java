@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.Driver;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.data.CatalogCache;
+import com.googlecode.paradox.utils.TemporarySchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Unit test for {@link ViewCache}.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public class ViewCacheTest {
+
+    /**
+     * The view cache.
+     */
+    private final ViewCache cache = ParadoxConnection.getViewCache();
+
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("db");
+
+    /**
+     * The temporary schema directory.
+     */
+    private File schema;
+
+    /**
+     * Register the database driver.
+     */
+    @BeforeClass
+    @SuppressWarnings("java:S2115")
+    public static void setUp() {
+        new Driver();
+    }
+
+    /**
+     * Creates a schema with a copy of a table and two views.
+     *
+     * @throws IOException in case of failures.
+     */
+    @Before
+    public void createSchema() throws IOException {
+        cache.clear();
+        cache.resetStatistics();
+
+        schema = temporarySchema.getSchema();
+        temporarySchema.copy("db", "HERCULES.DB", "HERCULES.MB", "HERCULES.PX");
+        temporarySchema.write("materialized.sql", "-- materialized\nselect * from HERCULES");
+        temporarySchema.write("plain.sql", "select * from HERCULES");
+    }
+
+    /**
+     * Clears the caches.
+     */
+    @After
+    public void clear() {
+        cache.setMaximumMemory(ViewCache.DEFAULT_MAXIMUM_MEMORY);
+        cache.clear();
+        CatalogCache.clearAll();
+    }
+
+    /**
+     * Counts the view rows.
+     *
+     * @param conn the connection.
+     * @param view the view name.
+     * @return the row count.
+     * @throws SQLException in case of failures.
+     */
+    private static int count(final Connection conn, final String view) throws SQLException {
+        try (final Statement stmt = conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select count(*) from " + view)) {
+            Assert.assertTrue("Invalid result set state", rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Test for materialized result reuse and refresh.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testRefresh() throws SQLException {
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl())) {
+            final int count = count(conn, "plain");
+            Assert.assertEquals("Invalid size", 0, cache.size());
+
+            Assert.assertEquals("Invalid value", count, count(conn, "materialized"));
+            Assert.assertEquals("Invalid value", count, count(conn, "materialized"));
+            Assert.assertEquals("Invalid size", 1, cache.size());
+            Assert.assertEquals("Invalid refresh count", 1, cache.getRefreshCount());
+            Assert.assertTrue("Invalid hit count", cache.getHitCount() > 0);
+
+            final File table = new File(schema, "HERCULES.DB");
+            Assert.assertTrue("Invalid file", table.setLastModified(table.lastModified() - 10_000));
+            Assert.assertEquals("Invalid value", count, count(conn, "materialized"));
+            Assert.assertEquals("Invalid refresh count", 2, cache.getRefreshCount());
+        }
+    }
+
+    /**
+     * Test for materialized view columns.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testColumns() throws SQLException {
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl());
+             final Statement stmt = conn.createStatement();
+             final ResultSet plain = stmt.executeQuery("select * from plain");
+             final Statement stmt2 = conn.createStatement();
+             final ResultSet materialized = stmt2.executeQuery("select * from materialized")) {
+            final int columns = plain.getMetaData().getColumnCount();
+            Assert.assertEquals("Invalid column count", columns, materialized.getMetaData().getColumnCount());
+
+            while (plain.next()) {
+                Assert.assertTrue("Invalid result set state", materialized.next());
+                for (int i = 1; i <= columns; i++) {
+                    Assert.assertEquals("Invalid value", plain.getObject(i), materialized.getObject(i));
+                }
+            }
+
+            Assert.assertFalse("Invalid result set state", materialized.next());
+        }
+    }
+
+    /**
+     * Test for results of old view definitions.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testDefinitionChange() throws Exception {
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl())) {
+            final int count = count(conn, "materialized");
+            Assert.assertTrue("Invalid value", count > 1);
+            Assert.assertEquals("Invalid size", 1, cache.size());
+
+            final File view = temporarySchema.write("materialized.sql",
+                    "-- materialized\nselect * from HERCULES limit 1");
+            Assert.assertTrue("Invalid file", view.setLastModified(view.lastModified() - 10_000));
+
+            Assert.assertEquals("Invalid value", 1, count(conn, "materialized"));
+            Assert.assertEquals("Old definition not removed", 1, cache.size());
+        }
+    }
+
+    /**
+     * Test for the memory budget.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testMemoryBudget() throws Exception {
+        temporarySchema.write("copy.sql", "-- materialized\n-- copy\nselect * from HERCULES");
+        try (final Connection conn = DriverManager.getConnection(temporarySchema.getUrl())) {
+            count(conn, "materialized");
+            final long size = cache.getMemoryUsage();
+            Assert.assertTrue("Invalid memory", size > 0);
+
+            count(conn, "copy");
+            count(conn, "materialized");
+            Assert.assertEquals("Invalid size", 2, cache.size());
+            Assert.assertEquals("Invalid memory", size * 2, cache.getMemoryUsage());
+
+            // Only the most recently used fits.
+            cache.setMaximumMemory(size * 3 / 2);
+            Assert.assertEquals("Invalid size", 1, cache.size());
+            Assert.assertEquals("Invalid eviction count", 1, cache.getEvictionCount());
+
+            final long refreshes = cache.getRefreshCount();
+            count(conn, "materialized");
+            Assert.assertEquals("Least recently used not evicted", refreshes, cache.getRefreshCount());
+
+            // Too large to store.
+            cache.clear();
+            cache.setMaximumMemory(size);
+            count(conn, "materialized");
+            Assert.assertEquals("Invalid size", 0, cache.size());
+            Assert.assertEquals("Invalid memory", 0, cache.getMemoryUsage());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner;
+
+import com.googlecode.paradox.Driver;
+import com.googlecode.paradox.ParadoxConnection;
+import com.googlecode.paradox.data.CatalogCache;
+import com.googlecode.paradox.metadata.View;
+import com.googlecode.paradox.parser.SQLParser;
+import com.googlecode.paradox.planner.nodes.PlanTableNode;
+import com.googlecode.paradox.planner.plan.SelectPlan;
+import com.googlecode.paradox.utils.TemporarySchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit test for {@link ViewInliner}.
+ *
+ * @version 1.2
+ * @since 1.6.1
+ */
+public class ViewInlinerTest {
+
+    /**
+     * The view definition.
+     */
+    private static final String STATES = "select ac.AreaCode, ac.AreasCovered, st.State, c.CountyID, c.County\n" +
+            "from geog.tblAC ac\n" +
+            "         cross join geog.tblsttes st\n" +
+            "         join geog.County c\n" +
+            "              on c.StateID = st.State\n" +
+            "where st.State = ac.State\n";
+
+    /**
+     * The aggregate view definition.
+     */
+    private static final String TOTALS = "select count(*) as total, max(c.County) as last\n" +
+            "from geog.tblsttes st\n" +
+            "         join geog.County c\n" +
+            "              on c.StateID = st.State\n";
+
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("geog");
+
+    /**
+     * The temporary schema directory.
+     */
+    private File schema;
+
+    /**
+     * The database connection.
+     */
+    private ParadoxConnection conn;
+
+    /**
+     * Register the database driver.
+     */
+    @BeforeClass
+    @SuppressWarnings("java:S2115")
+    public static void setUp() {
+        new Driver();
+    }
+
+    /**
+     * Creates a schema with a copy of the tables and the views.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Before
+    public void createSchema() throws Exception {
+        ParadoxConnection.getViewCache().clear();
+
+        schema = temporarySchema.getSchema();
+        temporarySchema.copy("geog", "tblAC.DB", "tblAC.PX", "tblsttes.DB", "tblsttes.PX", "County.DB",
+                "County.PX");
+
+        writeView("states", STATES + "order by st.State, ac.AreaCode");
+        writeView("states_m", "-- materialized\n" + STATES + "order by st.State, ac.AreaCode");
+        writeView("codes", STATES);
+        writeView("codes_m", "-- materialized\n" + STATES);
+        writeView("totals", TOTALS);
+        writeView("totals_m", "-- materialized\n" + TOTALS);
+
+        conn = (ParadoxConnection) DriverManager.getConnection(temporarySchema.getUrl());
+    }
+
+    /**
+     * Closes the connection and clears the caches.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @After
+    public void close() throws SQLException {
+        conn.close();
+        ParadoxConnection.getViewCache().clear();
+        CatalogCache.clearAll();
+    }
+
+    /**
+     * Test for views planned with the query.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testInline() throws SQLException {
+        final SelectPlan plan = plan("select State, County from states where AreaCode = '201'");
+        Assert.assertEquals("Invalid table count", 3, plan.getTables().size());
+        Assert.assertTrue("Invalid table", plan.getTables().stream().map(PlanTableNode::getTable)
+                .noneMatch(View.class::isInstance));
+
+        assertSameResult("select * from states", "select * from states_m");
+        assertSameResult("select State, County from states where AreaCode = '201'",
+                "select State, County from states_m where AreaCode = '201'");
+        assertSameResult("select count(*) from codes", "select count(*) from codes_m");
+        assertSameResult("select s.*, upper(s.County) from codes s where s.State = 'NJ' order by s.CountyID",
+                "select s.*, upper(s.County) from codes_m s where s.State = 'NJ' order by s.CountyID");
+    }
+
+    /**
+     * Test for views joined with other tables.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testJoin() throws SQLException {
+        final SelectPlan plan = plan("select v.County, t.total from codes v cross join totals t");
+        Assert.assertEquals("Invalid table count", 4, plan.getTables().size());
+
+        assertSameResult("select v.County, t.total from codes v cross join totals t",
+                "select v.County, t.total from codes_m v cross join totals_m t");
+        assertSameResult("select * from totals t join codes v on v.State = 'NJ'",
+                "select * from totals_m t join codes_m v on v.State = 'NJ'");
+
+        // Same table in the view and in the query.
+        final SelectPlan same = plan("select v.State from codes v join geog.County c on c.CountyID = v.CountyID");
+        Assert.assertEquals("Invalid table count", 2, same.getTables().size());
+        assertSameResult("select v.State from codes v join geog.County c on c.CountyID = v.CountyID",
+                "select v.State from codes_m v join geog.County c on c.CountyID = v.CountyID");
+    }
+
+    /**
+     * Test for aggregate views executed with only the used columns.
+     *
+     * @throws SQLException in case of failures.
+     */
+    @Test
+    public void testAggregate() throws SQLException {
+        final SelectPlan plan = plan("select total from totals");
+        Assert.assertTrue("Invalid table", plan.getTables().get(0).getTable() instanceof View);
+
+        assertSameResult("select total from totals", "select total from totals_m");
+        assertSameResult("select last from totals", "select last from totals_m");
+        assertSameResult("select count(*) from totals", "select count(*) from totals_m");
+        assertSameResult("select * from totals", "select * from totals_m");
+    }
+
+    /**
+     * Test for cached plans invalidated by view changes.
+     *
+     * @throws Exception in case of failures.
+     */
+    @Test
+    public void testViewChange() throws Exception {
+        final File view = new File(schema, "codes.sql");
+        Assert.assertTrue("View file not a source",
+                plan("select County from codes").getSourceFiles().contains(view));
+        Assert.assertTrue("View file not a source",
+                plan("select total from totals").getSourceFiles().contains(new File(schema, "totals.sql")));
+
+        final String sql = "select count(*) from codes";
+        final List<List<Object>> all = execute(sql);
+        Assert.assertEquals("Invalid value", all, execute(sql));
+
+        writeView("codes", STATES + "and st.State = 'NJ'\n");
+        Assert.assertTrue("Invalid file", view.setLastModified(view.lastModified() - 10_000));
+
+        Assert.assertEquals("Invalid value", execute("select count(*) from codes_m where State = 'NJ'"),
+                execute(sql));
+        Assert.assertNotEquals("Invalid value", all, execute(sql));
+    }
+
+    /**
+     * Plans a query.
+     *
+     * @param sql the query.
+     * @return the query plan.
+     * @throws SQLException in case of failures.
+     */
+    private SelectPlan plan(final String sql) throws SQLException {
+        return (SelectPlan) Planner.create(conn.getConnectionInfo(), new SQLParser(sql).parse());
+    }
+
+    /**
+     * Check if two queries have the same result.
+     *
+     * @param sql      the query to test.
+     * @param expected the query with the expected result.
+     * @throws SQLException in case of failures.
+     */
+    private void assertSameResult(final String sql, final String expected) throws SQLException {
+        final List<List<Object>> rows = execute(expected);
+        Assert.assertFalse("Invalid result set state", rows.size() <= 1);
+        Assert.assertEquals("Invalid value", rows, execute(sql));
+    }
+
+    /**
+     * Executes a query.
+     *
+     * @param sql the query.
+     * @return the column labels followed by the rows.
+     * @throws SQLException in case of failures.
+     */
+    private List<List<Object>> execute(final String sql) throws SQLException {
+        final List<List<Object>> rows = new ArrayList<>();
+        try (final Statement stmt = conn.createStatement();
+             final ResultSet rs = stmt.executeQuery(sql)) {
+            final ResultSetMetaData metaData = rs.getMetaData();
+            final List<Object> labels = new ArrayList<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                labels.add(metaData.getColumnLabel(i));
+            }
+
+            rows.add(labels);
+            while (rs.next()) {
+                final Object[] row = new Object[metaData.getColumnCount()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+
+                rows.add(Arrays.asList(row));
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Writes a view.
+     *
+     * @param name       the view name.
+     * @param definition the view definition.
+     * @throws IOException in case of failures.
+     */
+    private void writeView(final String name, final String definition) throws IOException {
+        temporarySchema.write(name + ".sql", definition);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit test for {@link RowIndex} class.
+ *
+ * @version 1.0
+ * @since 1.6.1
+ */
+public class RowIndexTest {
+
+    /**
+     * Test for values of the same type.
+     */
+    @Test
+    public void testSameType() {
+        final Object[] first = {1, "a"};
+        final Object[] second = {2, "b"};
+        final Object[] third = {1, "c"};
+        final RowIndex index = new RowIndex(Arrays.asList(first, second, third, new Object[]{null, "d"}));
+
+        Assert.assertEquals("Invalid value", Arrays.asList(first, third), index.find(0, 1));
+        Assert.assertEquals("Invalid value", Collections.singletonList(second), index.find(1, "b"));
+        Assert.assertTrue("Invalid value", index.find(0, 3).isEmpty());
+        Assert.assertTrue("Invalid value", index.find(0, null).isEmpty());
+    }
+
+    /**
+     * Test for numeric values with different scales.
+     */
+    @Test
+    public void testBigDecimal() {
+        final Object[] first = {new BigDecimal("1.50")};
+        final Object[] second = {new BigDecimal("0.00")};
+        final RowIndex index = new RowIndex(Arrays.asList(first, second));
+
+        Assert.assertEquals("Invalid value", Collections.singletonList(first), index.find(0, new BigDecimal("1.5")));
+        Assert.assertEquals("Invalid value", Collections.singletonList(second), index.find(0, BigDecimal.ZERO));
+    }
+
+    /**
+     * Test for values of other types, always returned in table order.
+     */
+    @Test
+    public void testOtherTypes() {
+        final Object[] first = {"1"};
+        final Object[] second = {2};
+        final Object[] third = {1.0D};
+        final Object[] fourth = {"2"};
+        final RowIndex index = new RowIndex(Arrays.asList(first, second, third, fourth));
+
+        final List<Object[]> rows = index.find(0, 2);
+        Assert.assertEquals("Invalid value", Arrays.asList(first, second, third, fourth), rows);
+        Assert.assertEquals("Invalid value", Arrays.asList(second, third, fourth), index.find(0, "2"));
+    }
+}
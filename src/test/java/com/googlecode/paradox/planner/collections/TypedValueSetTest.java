@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.planner.collections;
+
+import com.googlecode.paradox.ConnectionInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.Arrays;
+
+/**
+ * Unit test for {@link TypedValueSet} class.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public class TypedValueSetTest {
+
+    /**
+     * The connection information.
+     */
+    private final ConnectionInfo connectionInfo = new ConnectionInfo("jdbc:paradox:");
+
+    /**
+     * Test for integer values.
+     */
+    @Test
+    public void testInteger() {
+        final TypedValueSet set = new TypedValueSet(Integer.class, Arrays.asList("1", 2, null, "a"), connectionInfo);
+        Assert.assertTrue("Invalid value", set.contains(1, connectionInfo));
+        Assert.assertTrue("Invalid value", set.contains(2, connectionInfo));
+        Assert.assertFalse("Invalid value", set.contains(3, connectionInfo));
+        Assert.assertFalse("Invalid value", set.contains(null, connectionInfo));
+    }
+
+    /**
+     * Test for numeric values with different scales.
+     */
+    @Test
+    public void testBigDecimal() {
+        final TypedValueSet set = new TypedValueSet(BigDecimal.class, Arrays.asList("1.50", "0.00"),
+                connectionInfo);
+        Assert.assertTrue("Invalid value", set.contains(new BigDecimal("1.5"), connectionInfo));
+        Assert.assertTrue("Invalid value", set.contains(BigDecimal.ZERO, connectionInfo));
+        Assert.assertFalse("Invalid value", set.contains(BigDecimal.ONE, connectionInfo));
+    }
+
+    /**
+     * Test for values in other types.
+     */
+    @Test
+    public void testMixedTypes() {
+        final TypedValueSet set = new TypedValueSet(String.class, Arrays.asList("a", 10L), connectionInfo);
+        Assert.assertTrue("Invalid value", set.contains("a", connectionInfo));
+        Assert.assertTrue("Invalid value", set.contains("10", connectionInfo));
+        Assert.assertFalse("Invalid value", set.contains("11", connectionInfo));
+    }
+
+    /**
+     * Test for checked values of other type than the set type.
+     */
+    @Test
+    public void testOtherValueType() {
+        final TypedValueSet set = new TypedValueSet(Integer.class, Arrays.asList("10", 20), connectionInfo);
+        Assert.assertTrue("Invalid value", set.contains(10L, connectionInfo));
+        Assert.assertTrue("Invalid value", set.contains(20D, connectionInfo));
+        Assert.assertFalse("Invalid value", set.contains(30L, connectionInfo));
+    }
+
+    /**
+     * Test for date values.
+     */
+    @Test
+    public void testDate() {
+        final TypedValueSet set = new TypedValueSet(Date.class, Arrays.asList("2020-01-01", "2020-01-02"),
+                connectionInfo);
+        Assert.assertTrue("Invalid value", set.contains(Date.valueOf("2020-01-02"), connectionInfo));
+        Assert.assertFalse("Invalid value", set.contains(Date.valueOf("2020-01-03"), connectionInfo));
+    }
+}
@@ -13,20 +13,25 @@ package com.googlecode.paradox.planner.plan;
 import com.googlecode.paradox.Driver;
 import com.googlecode.paradox.ParadoxConnection;
 import com.googlecode.paradox.exceptions.ParadoxException;
+import com.googlecode.paradox.metadata.View;
 import com.googlecode.paradox.parser.SQLParser;
 import com.googlecode.paradox.parser.nodes.StatementNode;
 import com.googlecode.paradox.planner.Planner;
 import com.googlecode.paradox.planner.nodes.comparable.EqualsNode;
 import com.googlecode.paradox.planner.nodes.join.ANDNode;
 import com.googlecode.paradox.planner.nodes.join.ORNode;
+import com.googlecode.paradox.utils.TemporarySchema;
 import org.junit.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.sql.*;
 
 /**
  * Unit test for {@link SelectPlan} class.
  *
- * @version 1.9
+ * @version 1.12
  * @since 1.3
  */
 @SuppressWarnings({"java:S109", "java:S1192"})
@@ -42,6 +47,12 @@ public class SelectPlanTest {
      */
     private ParadoxConnection conn;
 
+    /**
+     * The temporary schema.
+     */
+    @Rule
+    public final TemporarySchema temporarySchema = new TemporarySchema("geog");
+
     /**
      * Creates a new instance.
      */
@@ -546,4 +557,176 @@ public class SelectPlanTest {
             Assert.assertNotEquals("Invalid value", "--", rs.getString(1));
         }
     }
+
+    /**
+     * Test for COUNT(*) from the table header.
+     *
+     * @throws SQLException if has errors.
+     */
+    @Test
+    public void testHeaderOnlyCount() throws SQLException {
+        final SelectPlan plan = (SelectPlan) Planner.create(conn.getConnectionInfo(),
+                new SQLParser("select count(*) from geog.County").parse());
+        Assert.assertTrue("Invalid plan", plan.isHeaderOnly());
+
+        try (final PreparedStatement stmt = this.conn.prepareStatement("select count(*) from geog.County");
+             final ResultSet rs = stmt.executeQuery()) {
+
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertEquals("Invalid value", 3218, rs.getInt(1));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for COUNT(*) with a condition not used in joins.
+     *
+     * @throws SQLException if has errors.
+     */
+    @Test
+    public void testCountWithOr() throws SQLException {
+        try (final PreparedStatement stmt = this.conn.prepareStatement(
+                "select count(*) from geog.County where CountyID = 201 or CountyID = 202");
+             final ResultSet rs = stmt.executeQuery()) {
+
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertEquals("Invalid value", 2, rs.getInt(1));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for MIN and MAX of the primary key from the first and last table rows.
+     *
+     * @throws SQLException if has errors.
+     */
+    @Test
+    public void testKeyEndpoints() throws SQLException {
+        final SelectPlan plan = (SelectPlan) Planner.create(conn.getConnectionInfo(),
+                new SQLParser("select min(CountyID), max(CountyID), count(*) from geog.County").parse());
+        Assert.assertTrue("Invalid plan", plan.isHeaderOnly());
+
+        try (final Statement stmt = this.conn.createStatement();
+             final ResultSet rs = stmt.executeQuery("select min(CountyID), max(CountyID), count(*) from geog.County");
+             final Statement scanStmt = this.conn.createStatement();
+             final ResultSet scan = scanStmt.executeQuery("select min(CountyID), max(CountyID), count(*) " +
+                     "from geog.County where CountyID is not null")) {
+
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertTrue("Invalid result set state", scan.next());
+            Assert.assertEquals("Invalid value", scan.getObject(1), rs.getObject(1));
+            Assert.assertEquals("Invalid value", scan.getObject(2), rs.getObject(2));
+            Assert.assertEquals("Invalid value", scan.getObject(3), rs.getObject(3));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for MIN and MAX of the primary key with a blank first key.
+     *
+     * @throws Exception if has errors.
+     */
+    @Test
+    public void testBlankKeyEndpoints() throws Exception {
+        temporarySchema.copy("geog", "County.DB", "County.PX");
+        try (final RandomAccessFile file = new RandomAccessFile(new File(temporarySchema.getSchema(), "County.DB"),
+                "rw")) {
+            // Little endian header sizes.
+            file.seek(0x02);
+            final int headerSize = file.read() | (file.read() << 8);
+            file.seek(0x05);
+            final int blockSize = file.read() * 0x400;
+            file.seek(0x0E);
+            final int firstBlock = file.read() | (file.read() << 8);
+
+            // Blank the key of the first row, after the block header.
+            file.seek(headerSize + (long) (firstBlock - 1) * blockSize + 6);
+            file.write(new byte[4]);
+        }
+
+        try (final Connection blank = DriverManager.getConnection(temporarySchema.getUrl());
+             final Statement stmt = blank.createStatement();
+             final ResultSet rs = stmt.executeQuery("select min(CountyID), max(CountyID), count(*) from County");
+             final Statement scanStmt = blank.createStatement();
+             final ResultSet scan = scanStmt.executeQuery("select min(CountyID), max(CountyID), count(*) " +
+                     "from County where CountyID is not null")) {
+
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertTrue("Invalid result set state", scan.next());
+            Assert.assertNotNull("Invalid value", rs.getObject(1));
+            Assert.assertEquals("Invalid value", scan.getObject(1), rs.getObject(1));
+            Assert.assertEquals("Invalid value", scan.getObject(2), rs.getObject(2));
+            Assert.assertEquals("Invalid value", scan.getInt(3) + 1, rs.getInt(3));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for COUNT, MIN and MAX from the header of an empty table.
+     *
+     * @throws Exception if has errors.
+     */
+    @Test
+    public void testHeaderOnlyEmptyTable() throws Exception {
+        temporarySchema.copy("geog", "County.DB", "County.PX");
+        try (final RandomAccessFile file = new RandomAccessFile(new File(temporarySchema.getSchema(), "County.DB"),
+                "rw")) {
+            // Row count in header.
+            file.seek(0x06);
+            file.write(new byte[4]);
+        }
+
+        try (final Connection empty = DriverManager.getConnection(temporarySchema.getUrl());
+             final Statement stmt = empty.createStatement();
+             final ResultSet rs = stmt.executeQuery("select min(CountyID), max(CountyID), count(*) from County")) {
+
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertNull("Invalid value", rs.getObject(1));
+            Assert.assertNull("Invalid value", rs.getObject(2));
+            Assert.assertEquals("Invalid value", 0, rs.getInt(3));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+
+        try (final PreparedStatement stmt = this.conn.prepareStatement("select count(*) from joins.indexed");
+             final ResultSet rs = stmt.executeQuery()) {
+
+            Assert.assertTrue("Invalid result set state", rs.next());
+            Assert.assertEquals("Invalid value", 0, rs.getInt(1));
+            Assert.assertFalse("Invalid result set state", rs.next());
+        }
+    }
+
+    /**
+     * Test for MIN and MAX of a not numeric key.
+     *
+     * @throws SQLException if has errors.
+     */
+    @Test
+    public void testNotNumericKeyEndpoints() throws SQLException {
+        final SelectPlan plan = (SelectPlan) Planner.create(conn.getConnectionInfo(),
+                new SQLParser("select max(AreaCode) from geog.tblAC").parse());
+        Assert.assertFalse("Invalid plan", plan.isHeaderOnly());
+    }
+
+    /**
+     * Test for view row count without loading the view rows.
+     *
+     * @throws SQLException if has errors.
+     * @throws IOException  in case of I/O errors.
+     */
+    @Test
+    public void testViewCount() throws SQLException, IOException {
+        final View view = View.load(conn.getConnectionInfo(), "geog",
+                new File("target/test-classes/geog/states.sql"));
+
+        int count = 0;
+        try (final PreparedStatement stmt = this.conn.prepareStatement("select * from geog.states");
+             final ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+
+        Assert.assertEquals("Invalid value", count, view.getRowCount());
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2009 Leonardo Alves da Costa
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version. This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public
+ * License for more details. You should have received a copy of the GNU General Public License along with this
+ * program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.googlecode.paradox.utils;
+
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Temporary catalog with a single schema directory, removed after each test.
+ *
+ * @version 1.1
+ * @since 1.6.1
+ */
+public final class TemporarySchema extends TemporaryFolder {
+
+    /**
+     * The test databases directory.
+     */
+    private static final String TEST_DIRECTORY = "target/test-classes";
+
+    /**
+     * Age of the files written, in milliseconds.
+     */
+    private static final long OLD_FILE_AGE = 10_000L;
+
+    /**
+     * The schema name.
+     */
+    private final String name;
+
+    /**
+     * The schema directory.
+     */
+    private File schema;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name the schema name.
+     */
+    public TemporarySchema(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        super.before();
+        schema = newFolder(name);
+    }
+
+    /**
+     * Gets the catalog directory.
+     *
+     * @return the catalog directory.
+     */
+    public File getCatalog() {
+        return getRoot();
+    }
+
+    /**
+     * Gets the schema directory.
+     *
+     * @return the schema directory.
+     */
+    public File getSchema() {
+        return schema;
+    }
+
+    /**
+     * Gets the schema connection URL.
+     *
+     * @return the schema connection URL.
+     */
+    public String getUrl() {
+        return "jdbc:paradox:" + schema.getAbsolutePath();
+    }
+
+    /**
+     * Copies test database files into the schema, keeping their modification times if out of the racy interval.
+     *
+     * @param source the test database name.
+     * @param names  the file names.
+     * @throws IOException in case of failures.
+     */
+    public void copy(final String source, final String... names) throws IOException {
+        for (final String file : names) {
+            final File target = new File(schema, file);
+            Files.copy(new File(new File(TEST_DIRECTORY, source), file).toPath(), target.toPath(),
+                    StandardCopyOption.COPY_ATTRIBUTES);
+            if (System.currentTimeMillis() - target.lastModified() < OLD_FILE_AGE) {
+                age(target);
+            }
+        }
+    }
+
+    /**
+     * Writes a text file into the schema, with a modification time out of the racy interval, as a file written
+     * before the test.
+     *
+     * @param file    the file name.
+     * @param content the file content.
+     * @return the file written.
+     * @throws IOException in case of failures.
+     */
+    public File write(final String file, final String content) throws IOException {
+        final File target = new File(schema, file);
+        Files.write(target.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        age(target);
+        return target;
+    }
+
+    /**
+     * Changes the file modification time to a time out of the racy interval.
+     *
+     * @param file the file to change.
+     * @throws IOException in case of failures.
+     */
+    private static void age(final File file) throws IOException {
+        if (!file.setLastModified(System.currentTimeMillis() - OLD_FILE_AGE)) {
+            throw new IOException("Can't change the modification time of " + file);
+        }
+    }
+}